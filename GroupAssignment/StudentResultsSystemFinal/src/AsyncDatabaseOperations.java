@@ -0,0 +1,123 @@
+import javafx.application.Platform;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.TableView;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs {@link ResultsRepository} calls on a small background pool so the
+ * JavaFX application thread never waits on JDBC.
+ * Results are handed back on the FX thread with Platform.runLater.
+ */
+public class AsyncDatabaseOperations {
+
+    // Kept below the connection pool size so queued work waits here, not on a connection
+    private static final int WORKER_THREADS = 4;
+    private static final int QUEUE_CAPACITY = 256;
+
+    private static final ThreadPoolExecutor EXECUTOR = createExecutor();
+
+    /**
+     * Executor that runs tasks on the JavaFX application thread.
+     */
+    public static final Executor FX_THREAD = Platform::runLater;
+
+    private final ResultsRepository dbOps;
+
+    public AsyncDatabaseOperations(ResultsRepository dbOps) {
+        this.dbOps = dbOps;
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS,
+                30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+            Thread thread = new Thread(runnable, "db-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Runs a database call on a background thread. If the queue is full the call
+     * is not run and the returned future fails with a RejectedExecutionException.
+     */
+    public <T> CompletableFuture<T> submit(Function<ResultsRepository, T> call) {
+        try {
+            return CompletableFuture.supplyAsync(() -> call.apply(dbOps), EXECUTOR);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(
+                    new RejectedExecutionException("Too many database requests are waiting; please try again.", e));
+        }
+    }
+
+    /**
+     * Runs a database call on a background thread and passes the result to
+     * {@code onSuccess} on the FX thread. Failures are logged and shown in an alert.
+     */
+    public <T> CompletableFuture<Void> callAsync(Function<ResultsRepository, T> call, Consumer<T> onSuccess) {
+        return submit(call)
+                .thenAcceptAsync(onSuccess, FX_THREAD)
+                .exceptionally(error -> {
+                    reportFailure(error);
+                    return null;
+                });
+    }
+
+    /**
+     * Runs a write on a background thread and then {@code onDone} on the FX thread.
+     */
+    public CompletableFuture<Void> runAsync(Consumer<ResultsRepository> write, Runnable onDone) {
+        return callAsync(ops -> {
+            write.accept(ops);
+            return null;
+        }, ignored -> onDone.run());
+    }
+
+    private static void reportFailure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        cause.printStackTrace();
+        Platform.runLater(() -> {
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setTitle("Database Error");
+            alert.setHeaderText(null);
+            alert.setContentText("The request could not be completed: " + cause.getMessage());
+            alert.show();
+        });
+    }
+
+    /**
+     * Shows a spinner in an empty table while its rows load, or the given
+     * empty-table message once loading has finished.
+     */
+    public static void setLoading(TableView<?> table, boolean loading, String emptyMessage) {
+        table.setPlaceholder(loading ? new ProgressIndicator() : new Label(emptyMessage));
+    }
+
+    /**
+     * Adds a row just written to a table whose rows are all in memory, where the
+     * table's sort puts it, or {@code unsortedOrder} when no column is sorted.
+     */
+    public static <T> void insertSorted(TableView<T> table, T row, Comparator<? super T> unsortedOrder) {
+        Comparator<? super T> order = table.getComparator() != null ? table.getComparator() : unsortedOrder;
+        List<T> items = table.getItems();
+        int position = Collections.binarySearch(items, row, order);
+        items.add(position < 0 ? -position - 1 : position, row);
+    }
+}
@@ -0,0 +1,119 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * The broadsheet of a form/term/year: one row per student with their mark in every
+ * subject, read straight from the repository's results cursor.
+ *
+ * Rows are produced one at a time as the cursor moves, so exporters that write each
+ * row out as it arrives use the same memory for fifty students or five thousand.
+ */
+public final class Broadsheet {
+
+    /**
+     * One student's line. {@code marks} follows {@link #subjects()}; a subject
+     * without a result is {@link #NO_MARK}.
+     */
+    public record Row(int admno, String studentName, int[] marks, int total, int subjectCount) {
+
+        public double mean() {
+            return subjectCount == 0 ? 0 : (double) total / subjectCount;
+        }
+
+        public String grade() {
+            return Grading.gradeFor((int) mean());
+        }
+    }
+
+    public static final int NO_MARK = -1;
+
+    private final ResultsRepository repository;
+    private final int form;
+    private final int term;
+    private final int year;
+    private final List<SubjectRow> subjects;
+    private final Map<Integer, Integer> columnOf = new HashMap<>();
+
+    public Broadsheet(ResultsRepository repository, int form, int term, int year) {
+        this.repository = repository;
+        this.form = form;
+        this.term = term;
+        this.year = year;
+        List<SubjectRow> sorted = new ArrayList<>(repository.getAllSubjects());
+        sorted.sort(Comparator.comparingInt(SubjectRow::id)); // The order results are streamed in
+        this.subjects = List.copyOf(sorted);
+        for (int i = 0; i < subjects.size(); i++) {
+            columnOf.put(subjects.get(i).id(), i);
+        }
+    }
+
+    public List<SubjectRow> subjects() {
+        return subjects;
+    }
+
+    /**
+     * Short column heading for a subject: its code if it has one, else its name.
+     */
+    public static String heading(SubjectRow subject) {
+        return subject.code() == null || subject.code().isBlank() ? subject.name() : subject.code();
+    }
+
+    public String title() {
+        return "Broadsheet - Form " + form + ", Term " + term + ", " + year;
+    }
+
+    /**
+     * Streams the broadsheet to {@code consumer} in admno order.
+     *
+     * @return the number of students, or -1 if reading the results failed.
+     */
+    public int forEach(Consumer<Row> consumer) {
+        int[] count = {0};
+        int[] admno = {-1};
+        String[] name = {null};
+        int[][] marks = {newMarks()};
+        int[] total = {0};
+        int[] subjectCount = {0};
+        Runnable emit = () -> {
+            consumer.accept(new Row(admno[0], name[0], marks[0], total[0], subjectCount[0]));
+            count[0]++;
+        };
+        // Results arrive ordered by admno, so each student's rows are contiguous
+        int streamed = repository.streamResults(form, term, year, result -> {
+            if (result.admno() != admno[0]) {
+                if (admno[0] >= 0) {
+                    emit.run();
+                }
+                admno[0] = result.admno();
+                name[0] = result.studentName();
+                marks[0] = newMarks();
+                total[0] = 0;
+                subjectCount[0] = 0;
+            }
+            Integer column = columnOf.get(result.subjectId());
+            if (column != null) {
+                marks[0][column] = result.total();
+            }
+            total[0] += result.total();
+            subjectCount[0]++;
+        });
+        if (streamed < 0) {
+            return -1;
+        }
+        if (admno[0] >= 0) {
+            emit.run();
+        }
+        return count[0];
+    }
+
+    private int[] newMarks() {
+        int[] marks = new int[subjects.size()];
+        Arrays.fill(marks, NO_MARK);
+        return marks;
+    }
+}
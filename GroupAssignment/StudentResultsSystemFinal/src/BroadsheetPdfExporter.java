@@ -0,0 +1,79 @@
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.property.UnitValue;
+
+import java.io.OutputStream;
+
+/**
+ * Writes a {@link Broadsheet} to PDF with iText's large-table mode: the table is
+ * added to the document before its rows, and every {@link #FLUSH_EVERY_ROWS} rows
+ * the finished ones are laid out, written and released. Together with the streamed
+ * broadsheet, heap use does not grow with the number of students.
+ */
+public final class BroadsheetPdfExporter {
+
+    private static final int FLUSH_EVERY_ROWS = 50;
+    private static final float FONT_SIZE = 8;
+
+    private BroadsheetPdfExporter() {
+    }
+
+    /**
+     * @return the number of students written, or -1 if reading the results failed
+     *         (the PDF then holds the rows read before the failure).
+     */
+    public static int write(Broadsheet broadsheet, OutputStream out) {
+        int subjectCount = broadsheet.subjects().size();
+        try (PdfDocument pdf = new PdfDocument(new PdfWriter(out));
+             Document document = new Document(pdf, PageSize.A4.rotate())) {
+            document.setFontSize(FONT_SIZE);
+            document.add(new Paragraph(broadsheet.title()).setBold().setFontSize(16));
+
+            // AdmNo, Name, one column per subject, Total, Mean, Grade
+            float[] widths = new float[subjectCount + 5];
+            widths[0] = 2;
+            widths[1] = 5;
+            for (int i = 0; i < subjectCount; i++) {
+                widths[2 + i] = 1.5f;
+            }
+            widths[subjectCount + 2] = 2;
+            widths[subjectCount + 3] = 2;
+            widths[subjectCount + 4] = 1.5f;
+            Table table = new Table(UnitValue.createPercentArray(widths), true).useAllAvailableWidth();
+            table.addHeaderCell("AdmNo");
+            table.addHeaderCell("Name");
+            for (SubjectRow subject : broadsheet.subjects()) {
+                table.addHeaderCell(Broadsheet.heading(subject));
+            }
+            table.addHeaderCell("Total");
+            table.addHeaderCell("Mean");
+            table.addHeaderCell("Grade");
+            document.add(table);
+
+            int[] rows = {0};
+            int written = broadsheet.forEach(row -> {
+                table.addCell(String.valueOf(row.admno()));
+                table.addCell(row.studentName() == null ? "" : row.studentName());
+                for (int mark : row.marks()) {
+                    table.addCell(mark == Broadsheet.NO_MARK ? "-" : String.valueOf(mark));
+                }
+                table.addCell(String.valueOf(row.total()));
+                table.addCell(String.format("%.1f", row.mean()));
+                table.addCell(row.grade());
+                if (++rows[0] % FLUSH_EVERY_ROWS == 0) {
+                    table.flush();
+                }
+            });
+            if (rows[0] == 0) {
+                table.addCell(new Cell(1, subjectCount + 5).add(new Paragraph("No results")));
+            }
+            table.complete();
+            return written;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Keeps reference data that rarely changes - subjects, subject names and result
+ * years - in memory in front of another repository.
+ *
+ * Each list is loaded on first use and reloaded once it is older than the TTL.
+ * Writes made through this repository that can change a list (subject CRUD,
+ * saving marks, deleting students) drop it at once, so the next read sees the change.
+ * Cached lists are unmodifiable.
+ */
+public class CachingResultsRepository extends ForwardingResultsRepository {
+
+    public static final long DEFAULT_TTL_MILLIS = 10 * 60 * 1000;
+
+    private final CachedList<SubjectRow> subjects;
+    private final CachedList<String> subjectNames;
+    private final CachedList<Integer> years;
+    private volatile SubjectDictionary subjectDictionary;
+
+    public CachingResultsRepository(ResultsRepository delegate) {
+        this(delegate, DEFAULT_TTL_MILLIS);
+    }
+
+    public CachingResultsRepository(ResultsRepository delegate, long ttlMillis) {
+        super(delegate);
+        subjects = new CachedList<>("subjects", delegate::getAllSubjects, ttlMillis);
+        subjectNames = new CachedList<>("subjectNames", delegate::getAllSubjectNames, ttlMillis);
+        years = new CachedList<>("years", delegate::getYearsFromDatabase, ttlMillis);
+    }
+
+    /**
+     * Returns hit/miss counts for each cached list.
+     */
+    public List<CacheStats> getStats() {
+        return List.of(subjects.stats(), subjectNames.stats(), years.stats());
+    }
+
+    /**
+     * Drops every cached list, e.g. after the database was changed by another program.
+     */
+    public void invalidateAll() {
+        invalidateSubjects();
+        years.invalidate();
+    }
+
+    private void invalidateSubjects() {
+        subjects.invalidate();
+        subjectNames.invalidate();
+    }
+
+    // -----------------------------------------
+    // Cached reads
+    // -----------------------------------------
+
+    @Override
+    public List<SubjectRow> getAllSubjects() {
+        return subjects.get();
+    }
+
+    @Override
+    public List<String> getAllSubjectNames() {
+        return subjectNames.get();
+    }
+
+    @Override
+    public List<Integer> getYearsFromDatabase() {
+        return years.get();
+    }
+
+    /**
+     * Built from the cached subject list and rebuilt only when that list is reloaded.
+     */
+    @Override
+    public SubjectDictionary getSubjectDictionary() {
+        List<SubjectRow> current = subjects.get();
+        SubjectDictionary dictionary = subjectDictionary;
+        if (dictionary == null || !dictionary.isBuiltFrom(current)) {
+            dictionary = SubjectDictionary.of(current);
+            subjectDictionary = dictionary;
+        }
+        return dictionary;
+    }
+
+    // -----------------------------------------
+    // Writes that invalidate
+    // -----------------------------------------
+
+    @Override
+    public SubjectRow addSubject(String name, String code, String description) {
+        try {
+            return delegate.addSubject(name, code, description);
+        } finally {
+            invalidateSubjects();
+        }
+    }
+
+    @Override
+    public void updateSubject(int id, String name, String code, String description) {
+        try {
+            delegate.updateSubject(id, name, code, description);
+        } finally {
+            invalidateSubjects();
+        }
+    }
+
+    @Override
+    public boolean deleteSubject(int id) {
+        try {
+            return delegate.deleteSubject(id);
+        } finally {
+            // Deleting a subject also deletes its results
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public boolean saveMarks(List<MarkRow> marks) {
+        try {
+            return delegate.saveMarks(marks);
+        } finally {
+            years.invalidate();
+        }
+    }
+
+    @Override
+    public boolean deleteStudent(int admno) {
+        try {
+            return delegate.deleteStudent(admno);
+        } finally {
+            years.invalidate();
+        }
+    }
+
+    /**
+     * Hit/miss counts of one cached list.
+     */
+    public record CacheStats(String name, long hits, long misses, long invalidations) {
+
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    /**
+     * One lazily loaded list with a TTL. A load that returns nothing is not kept,
+     * so an empty table or a failed query is retried on the next read.
+     */
+    private static final class CachedList<T> {
+        private final String name;
+        private final Supplier<List<T>> loader;
+        private final long ttlNanos;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder invalidations = new LongAdder();
+
+        private volatile Entry<T> entry;
+        // Bumped on invalidate so a load that raced with a write is not stored
+        private long generation;
+
+        private record Entry<T>(List<T> values, long loadedAt) {
+        }
+
+        CachedList(String name, Supplier<List<T>> loader, long ttlMillis) {
+            this.name = name;
+            this.loader = loader;
+            this.ttlNanos = ttlMillis * 1_000_000;
+        }
+
+        List<T> get() {
+            Entry<T> current = entry;
+            if (current != null && System.nanoTime() - current.loadedAt() < ttlNanos) {
+                hits.increment();
+                return current.values();
+            }
+            misses.increment();
+            long loadGeneration;
+            synchronized (this) {
+                loadGeneration = generation;
+            }
+            List<T> values = List.copyOf(loader.get());
+            synchronized (this) {
+                if (!values.isEmpty() && loadGeneration == generation) {
+                    entry = new Entry<>(values, System.nanoTime());
+                }
+            }
+            return values;
+        }
+
+        synchronized void invalidate() {
+            generation++;
+            entry = null;
+            invalidations.increment();
+        }
+
+        CacheStats stats() {
+            return new CacheStats(name, hits.sum(), misses.sum(), invalidations.sum());
+        }
+    }
+}
@@ -0,0 +1,234 @@
+import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.kernel.pdf.xobject.PdfImageXObject;
+import com.itextpdf.layout.element.Image;
+
+import javax.imageio.ImageIO;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Draws bar charts of marks into PNG images for PDF exports.
+ *
+ * Charts are painted with Java2D on a BufferedImage, which needs no display and no
+ * JavaFX scene, so it works headless and from any thread. One renderer serves a
+ * batch: identical charts are drawn once, and {@link #forDocument()} hands out
+ * the same image object for repeats within a PDF so it is embedded only once.
+ */
+public final class ChartRenderer {
+
+    /**
+     * What a chart shows; equal specs produce identical images.
+     *
+     * @param values marks out of 100, one per label
+     */
+    public record Spec(String title, String axisLabel, List<String> labels, List<Integer> values) {
+
+        public Spec {
+            labels = List.copyOf(labels);
+            values = List.copyOf(values);
+        }
+    }
+
+    // Laid out on a 1000x500 canvas and drawn at SCALE; about 1.5x the size placed on the page
+    private static final int WIDTH = 1000;
+    private static final int HEIGHT = 500;
+    private static final double SCALE = 0.8;
+    private static final int MAX_MARK = 100;
+
+    private static final Color BAR = new Color(0xF3, 0x62, 0x2D);
+    private static final Color GRID = new Color(0xDD, 0xDD, 0xDD);
+
+    /*
+     * The chart only uses these colours, so it is drawn into an 8-bit indexed image
+     * without anti-aliasing: PNG encoding is about twice as fast and files a fifth
+     * of the size of a full-colour image.
+     */
+    private static final IndexColorModel PALETTE = palette(Color.WHITE, Color.BLACK, Color.DARK_GRAY, BAR, GRID);
+
+    private final Map<Spec, byte[]> images = new ConcurrentHashMap<>();
+    private final AtomicInteger requested = new AtomicInteger();
+    private final AtomicInteger rendered = new AtomicInteger();
+
+    private static IndexColorModel palette(Color... colors) {
+        byte[] reds = new byte[colors.length];
+        byte[] greens = new byte[colors.length];
+        byte[] blues = new byte[colors.length];
+        for (int i = 0; i < colors.length; i++) {
+            reds[i] = (byte) colors[i].getRed();
+            greens[i] = (byte) colors[i].getGreen();
+            blues[i] = (byte) colors[i].getBlue();
+        }
+        return new IndexColorModel(8, colors.length, reds, greens, blues);
+    }
+
+    /**
+     * Returns the chart as PNG bytes, drawing it only the first time this spec is seen.
+     */
+    public byte[] png(Spec spec) {
+        requested.incrementAndGet();
+        return images.computeIfAbsent(spec, key -> {
+            rendered.incrementAndGet();
+            return draw(key);
+        });
+    }
+
+    /**
+     * Charts drawn so far.
+     */
+    public int renderedCount() {
+        return rendered.get();
+    }
+
+    /**
+     * Chart requests served without drawing, from this renderer or a document's embedded images.
+     */
+    public int reusedCount() {
+        return requested.get() - rendered.get();
+    }
+
+    /**
+     * Returns a view for one PDF document. Not thread-safe: use one per document.
+     */
+    public DocumentCharts forDocument() {
+        return new DocumentCharts();
+    }
+
+    /**
+     * Hands out layout images for one document, sharing one embedded image per spec.
+     */
+    public final class DocumentCharts {
+        private final Map<Spec, PdfImageXObject> embedded = new HashMap<>();
+
+        private DocumentCharts() {
+        }
+
+        /**
+         * Returns an image element scaled to the available page width.
+         */
+        public Image image(Spec spec) {
+            PdfImageXObject xObject = embedded.get(spec);
+            if (xObject == null) {
+                xObject = new PdfImageXObject(ImageDataFactory.create(png(spec)));
+                embedded.put(spec, xObject);
+            } else {
+                requested.incrementAndGet();
+            }
+            return new Image(xObject).setAutoScale(true);
+        }
+    }
+
+    // -----------------------------------------
+    // Drawing
+    // -----------------------------------------
+
+    private static byte[] draw(Spec spec) {
+        BufferedImage image = new BufferedImage((int) (WIDTH * SCALE), (int) (HEIGHT * SCALE),
+                BufferedImage.TYPE_BYTE_INDEXED, PALETTE);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.scale(SCALE, SCALE);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, WIDTH, HEIGHT);
+            paint(g, spec);
+        } finally {
+            g.dispose();
+        }
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", png);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return png.toByteArray();
+    }
+
+    private static void paint(Graphics2D g, Spec spec) {
+        int left = 80;
+        int right = WIDTH - 30;
+        int top = 70;
+        int bottom = HEIGHT - 120;
+        int plotHeight = bottom - top;
+
+        g.setColor(Color.BLACK);
+        g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 28));
+        FontMetrics titleMetrics = g.getFontMetrics();
+        g.drawString(spec.title(), (WIDTH - titleMetrics.stringWidth(spec.title())) / 2, 45);
+
+        // Horizontal grid and mark scale every 20 marks
+        g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 18));
+        FontMetrics metrics = g.getFontMetrics();
+        for (int mark = 0; mark <= MAX_MARK; mark += 20) {
+            int y = bottom - mark * plotHeight / MAX_MARK;
+            g.setColor(GRID);
+            g.drawLine(left, y, right, y);
+            g.setColor(Color.DARK_GRAY);
+            String text = String.valueOf(mark);
+            g.drawString(text, left - 10 - metrics.stringWidth(text), y + metrics.getAscent() / 2 - 2);
+        }
+
+        int count = spec.values().size();
+        if (count > 0) {
+            float slot = (float) (right - left) / count;
+            int barWidth = Math.max(2, Math.round(slot * 0.7f));
+            boolean rotateLabels = count > 8;
+            // Rotated labels need about 1.5 text heights of width each; skip some rather than overlap
+            int labelEvery = rotateLabels ? Math.max(1, (int) Math.ceil(metrics.getHeight() * 1.5 / slot)) : 1;
+            for (int i = 0; i < count; i++) {
+                int value = Math.max(0, Math.min(MAX_MARK, spec.values().get(i)));
+                int barHeight = value * plotHeight / MAX_MARK;
+                int x = Math.round(left + slot * i + (slot - barWidth) / 2);
+                g.setColor(BAR);
+                g.fillRect(x, bottom - barHeight, barWidth, barHeight);
+
+                g.setColor(Color.BLACK);
+                if (count <= 30) {
+                    String text = String.valueOf(spec.values().get(i));
+                    g.drawString(text, x + (barWidth - metrics.stringWidth(text)) / 2, bottom - barHeight - 6);
+                }
+                if (i % labelEvery == 0) {
+                    drawLabel(g, metrics, shorten(spec.labels().get(i), 12), x + barWidth / 2, bottom + 8, rotateLabels);
+                }
+            }
+        }
+
+        g.setColor(Color.BLACK);
+        g.setStroke(new BasicStroke(2));
+        g.drawLine(left, top, left, bottom);
+        g.drawLine(left, bottom, right, bottom);
+        String axis = spec.axisLabel();
+        g.drawString(axis, (WIDTH - metrics.stringWidth(axis)) / 2, HEIGHT - 12);
+    }
+
+    private static void drawLabel(Graphics2D g, FontMetrics metrics, String label, int centerX, int y, boolean rotate) {
+        if (!rotate) {
+            g.drawString(label, centerX - metrics.stringWidth(label) / 2, y + metrics.getAscent());
+            return;
+        }
+        AffineTransform saved = g.getTransform();
+        g.translate(centerX, y);
+        g.rotate(-Math.PI / 4);
+        g.drawString(label, -metrics.stringWidth(label), metrics.getAscent() / 2);
+        g.setTransform(saved);
+    }
+
+    private static String shorten(String label, int maxLength) {
+        if (label == null) {
+            return "";
+        }
+        return label.length() <= maxLength ? label : label.substring(0, maxLength - 2) + "..";
+    }
+}
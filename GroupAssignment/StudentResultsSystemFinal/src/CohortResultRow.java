@@ -0,0 +1,5 @@
+/**
+ * One result line within a form/term/year cohort: the student, the subject and the mark.
+ */
+public record CohortResultRow(int admno, String studentName, int subjectId, String subject, int total, String grade) {
+}
@@ -0,0 +1,309 @@
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A small bounded JDBC connection pool.
+ * Connections handed out are proxies: calling close() returns the physical
+ * connection to the pool instead of closing the socket to MySQL.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long validationIdleMillis;
+    private final long leakThresholdMillis;
+
+    private final Semaphore permits;
+    private final Deque<IdleConnection> idle = new ArrayDeque<>();
+    private final Set<Lease> active = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    // Statistics
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong borrowNanos = new AtomicLong();
+    private final AtomicLong maxBorrowNanos = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+    private final AtomicLong leaks = new AtomicLong();
+
+    /**
+     * @param maxSize             maximum number of physical connections
+     * @param borrowTimeoutMillis how long getConnection() waits for a free connection
+     * @param validationIdleMillis connections idle longer than this are validated before reuse
+     * @param leakThresholdMillis connections held longer than this are reported as leaked
+     */
+    public ConnectionPool(String url, String user, String password, int maxSize,
+                          long borrowTimeoutMillis, long validationIdleMillis, long leakThresholdMillis) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.validationIdleMillis = validationIdleMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, leakThresholdMillis / 2);
+        housekeeper.scheduleWithFixedDelay(this::detectLeaks, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new one if none is idle.
+     * The caller must close() it (try-with-resources) to give it back.
+     *
+     * @throws SQLTimeoutException if no connection becomes free within the borrow timeout.
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        long start = System.nanoTime();
+        try {
+            // A free permit is taken without counting a waiter; the zero timeout still honours the fair queue
+            if (!permits.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+                waiters.incrementAndGet();
+                try {
+                    if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                        timeouts.incrementAndGet();
+                        throw new SQLTimeoutException("Timed out after " + borrowTimeoutMillis
+                                + " ms waiting for a database connection (" + getStats() + ")");
+                    }
+                } finally {
+                    waiters.decrementAndGet();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            Connection physical = takeIdle();
+            if (physical == null) {
+                physical = DriverManager.getConnection(url, user, password);
+                created.incrementAndGet();
+            }
+            Lease lease = new Lease(physical);
+            active.add(lease);
+            recordBorrow(System.nanoTime() - start);
+            return lease.proxy;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Takes a usable idle connection, validating ones that sat unused for a while.
+     */
+    private Connection takeIdle() {
+        while (true) {
+            IdleConnection candidate;
+            synchronized (idle) {
+                candidate = idle.pollFirst(); // most recently used first
+            }
+            if (candidate == null) {
+                return null;
+            }
+            long idleFor = System.currentTimeMillis() - candidate.returnedAt;
+            if (idleFor < validationIdleMillis || isUsable(candidate.physical)) {
+                return candidate.physical;
+            }
+            discard(candidate.physical);
+        }
+    }
+
+    private boolean isUsable(Connection connection) {
+        try {
+            return !connection.isClosed() && connection.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(Lease lease) {
+        if (!active.remove(lease)) {
+            return; // already returned
+        }
+        Connection physical = lease.physical;
+        try {
+            boolean reusable = !closed && !physical.isClosed();
+            if (reusable && !physical.getAutoCommit()) {
+                // Never hand out a connection with a half-finished transaction
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (reusable) {
+                synchronized (idle) {
+                    idle.addFirst(new IdleConnection(physical, System.currentTimeMillis()));
+                }
+            } else {
+                discard(physical);
+            }
+        } catch (SQLException e) {
+            discard(physical);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(Connection connection) {
+        discarded.incrementAndGet();
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // The connection is being thrown away anyway
+        }
+    }
+
+    private void recordBorrow(long nanos) {
+        borrowCount.incrementAndGet();
+        borrowNanos.addAndGet(nanos);
+        maxBorrowNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Reports connections that have been held longer than the leak threshold,
+     * along with the stack trace of the code that borrowed them.
+     */
+    private void detectLeaks() {
+        long now = System.currentTimeMillis();
+        for (Lease lease : active) {
+            if (!lease.leakReported && now - lease.borrowedAt > leakThresholdMillis) {
+                lease.leakReported = true;
+                leaks.incrementAndGet();
+                System.err.println("Possible connection leak: connection held for "
+                        + (now - lease.borrowedAt) + " ms");
+                lease.borrowSite.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Returns a snapshot of the pool's current state.
+     */
+    public PoolStats getStats() {
+        int idleCount;
+        synchronized (idle) {
+            idleCount = idle.size();
+        }
+        long borrows = borrowCount.get();
+        double averageMillis = borrows == 0 ? 0 : borrowNanos.get() / 1_000_000.0 / borrows;
+        return new PoolStats(maxSize, active.size(), idleCount, waiters.get(), borrows,
+                averageMillis, maxBorrowNanos.get() / 1_000_000.0,
+                timeouts.get(), created.get(), discarded.get(), leaks.get());
+    }
+
+    /**
+     * Closes all idle connections. Borrowed connections are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        synchronized (idle) {
+            for (IdleConnection connection : idle) {
+                discard(connection.physical);
+            }
+            idle.clear();
+        }
+    }
+
+    /**
+     * Point-in-time pool statistics.
+     */
+    public record PoolStats(int maxSize, int active, int idle, int waiters, long borrows,
+                            double averageBorrowMillis, double maxBorrowMillis,
+                            long timeouts, long created, long discarded, long leaks) {
+        @Override
+        public String toString() {
+            return String.format("active=%d, idle=%d, max=%d, waiters=%d, borrows=%d, "
+                            + "avgBorrow=%.2fms, maxBorrow=%.2fms, timeouts=%d, leaks=%d",
+                    active, idle, maxSize, waiters, borrows, averageBorrowMillis, maxBorrowMillis, timeouts, leaks);
+        }
+    }
+
+    /**
+     * A physical connection waiting in the pool.
+     */
+    private record IdleConnection(Connection physical, long returnedAt) {
+    }
+
+    /**
+     * One borrow of a physical connection. Each borrow gets its own proxy, so a
+     * caller holding on to a returned connection cannot touch the next borrower's.
+     */
+    private final class Lease implements InvocationHandler {
+        private final Connection physical;
+        private final Connection proxy;
+        private final long borrowedAt = System.currentTimeMillis();
+        private final Throwable borrowSite = new Throwable("Connection borrowed here");
+        private volatile boolean returned;
+        private volatile boolean leakReported;
+
+        private Lease(Connection physical) {
+            this.physical = physical;
+            this.proxy = (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(), new Class<?>[]{Connection.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxyInstance, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || physical.isClosed();
+                case "equals":
+                    return proxyInstance == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxyInstance);
+                case "toString":
+                    return "Pooled[" + physical + "]";
+                default:
+                    if (returned) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+                    try {
+                        return method.invoke(physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
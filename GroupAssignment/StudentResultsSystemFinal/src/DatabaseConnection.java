@@ -1,28 +1,65 @@
+import java.io.IOException;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class DatabaseConnection {
 
     // Database connection details
-    private static final String URL = "jdbc:mysql://localhost:3306/results_system?useSSL=false&serverTimezone=UTC";
+    private static final String URL = "jdbc:mysql://localhost:3306/results_system?useSSL=false&serverTimezone=UTC"
+            + "&rewriteBatchedStatements=true"; // Send JDBC batches as multi-row statements
     private static final String USER = "root"; // Replace with your MySQL username
     private static final String PASSWORD = "`1234567890-="; // Replace with your MySQL password
 
+    // Connection pool settings
+    private static final int POOL_SIZE = 10;
+    private static final long BORROW_TIMEOUT_MILLIS = 5_000;
+    private static final long VALIDATE_AFTER_IDLE_MILLIS = 30_000;
+    private static final long LEAK_THRESHOLD_MILLIS = 60_000;
+
+    /**
+     * Holder for the shared pool, created on first use.
+     */
+    private static class PoolHolder {
+        private static final ConnectionPool POOL = createPool();
+
+        private static ConnectionPool createPool() {
+            try {
+                // Load the MySQL JDBC driver once (optional for modern drivers)
+                Class.forName("com.mysql.cj.jdbc.Driver");
+            } catch (ClassNotFoundException e) {
+                System.err.println("MySQL Driver not found: " + e.getMessage());
+            }
+            ConnectionPool pool = new ConnectionPool(URL, USER, PASSWORD, POOL_SIZE,
+                    BORROW_TIMEOUT_MILLIS, VALIDATE_AFTER_IDLE_MILLIS, LEAK_THRESHOLD_MILLIS);
+            Runtime.getRuntime().addShutdownHook(new Thread(pool::close, "connection-pool-shutdown"));
+            try {
+                // Bring the schema and its indexes up to date before the first query
+                SchemaMigrator.migrate(pool);
+            } catch (SQLException | IOException e) {
+                // Every upsert and aggregate refresh depends on the schema, so do not run without it
+                pool.close();
+                throw new IllegalStateException("Schema migration failed: " + e.getMessage(), e);
+            }
+            return pool;
+        }
+    }
+
+    /**
+     * Returns the connection pool shared by the whole application.
+     */
+    public static ConnectionPool getPool() {
+        return PoolHolder.POOL;
+    }
+
     /**
-     * Establishes and returns a connection to the database.
+     * Borrows a connection from the shared pool.
+     * Closing the returned connection gives it back to the pool.
      *
      * @return Connection object to interact with the database.
-     * @throws SQLException if a database access error occurs.
+     * @throws SQLException if a database access error occurs or no connection is free in time.
      */
     public static Connection getConnection() throws SQLException {
-        try {
-            // Explicitly load the MySQL JDBC driver (optional for modern drivers)
-            Class.forName("com.mysql.cj.jdbc.Driver");
-        } catch (ClassNotFoundException e) {
-            System.err.println("MySQL Driver not found: " + e.getMessage());
-        }
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        return getPool().getConnection();
     }
 
     /**
@@ -31,6 +68,7 @@ public class DatabaseConnection {
     public static void main(String[] args) {
         try (Connection connection = getConnection()) {
             System.out.println("Database connected successfully!");
+            System.out.println("Pool: " + getPool().getStats());
         } catch (SQLException e) {
             System.err.println("Connection failed: " + e.getMessage());
         }
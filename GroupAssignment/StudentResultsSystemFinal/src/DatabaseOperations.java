@@ -1,73 +1,331 @@
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
-public class DatabaseOperations {
+public class DatabaseOperations implements ResultsRepository {
 
-    private static final String URL = "jdbc:mysql://localhost:3306/results_system"; // Update with your DB URL
-    private static final String USER = "root"; // Update with your DB username
-    private static final String PASSWORD = "`1234567890-="; // Update with your DB password
+    // Column lists shared by the queries that build each row type
+    private static final String STUDENT_COLUMNS = "admno, name, gender, form, term, year";
+    private static final String SUBJECT_COLUMNS = "id, name, code, description";
+    private static final String RANKING_COLUMNS = "form, term, year, subject_id, admno, score, position, out_of";
+    private static final String AGGREGATE_COLUMNS = "admno, form, term, year, mark_sum, subject_count";
+    private static final String OUTCOME_COLUMNS =
+            "admno, form, term, year, subject_count, total_marks, average, overall_grade, promotion_status";
+
+    // MySQL Connector/J streams rows one at a time instead of buffering the whole result
+    private static final int MYSQL_STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    private final ConnectionPool pool;
+    private final int streamingFetchSize;
+
+    /**
+     * Uses the shared MySQL pool from {@link DatabaseConnection}.
+     */
+    public DatabaseOperations() {
+        this(DatabaseConnection.getPool(), MYSQL_STREAMING_FETCH_SIZE);
+    }
+
+    /**
+     * @param pool               where connections are borrowed from
+     * @param streamingFetchSize fetch size used by the stream* methods
+     */
+    protected DatabaseOperations(ConnectionPool pool, int streamingFetchSize) {
+        this.pool = pool;
+        this.streamingFetchSize = streamingFetchSize;
+    }
+
+    /**
+     * Borrows a connection from the pool. Closing it returns it to the pool.
+     */
+    protected Connection connect() throws SQLException {
+        return pool.getConnection();
+    }
+
+    private static StudentRow readStudent(ResultSet resultSet) throws SQLException {
+        return new StudentRow(
+                resultSet.getInt("admno"),
+                resultSet.getString("name"),
+                resultSet.getString("gender"),
+                resultSet.getInt("form"),
+                resultSet.getInt("term"),
+                resultSet.getInt("year"));
+    }
+
+    private static CohortResultRow readCohortResult(ResultSet resultSet) throws SQLException {
+        return new CohortResultRow(
+                resultSet.getInt("admno"),
+                resultSet.getString("student_name"),
+                resultSet.getInt("subject_id"),
+                resultSet.getString("subject_name"),
+                resultSet.getInt("total"),
+                resultSet.getString("grade"));
+    }
 
     /**
-     * Establishes a connection to the database.
+     * Prepares a forward-only, read-only statement that streams its rows from the server.
      */
-    private Connection connect() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+    private PreparedStatement prepareStreaming(Connection connection, String query) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(streamingFetchSize);
+        return statement;
+    }
+
+    /**
+     * Logs a swallowed SQL error and flags the current call as failed in {@link QueryMetrics}.
+     */
+    private static void failed(SQLException e) {
+        e.printStackTrace();
+        QueryMetrics.markFailed();
+    }
+
+    private static RankRow readRanking(ResultSet resultSet) throws SQLException {
+        return new RankRow(
+                resultSet.getInt("form"),
+                resultSet.getInt("term"),
+                resultSet.getInt("year"),
+                resultSet.getInt("subject_id"),
+                resultSet.getInt("admno"),
+                resultSet.getInt("score"),
+                resultSet.getInt("position"),
+                resultSet.getInt("out_of"));
+    }
+
+    private static TermAggregate readAggregate(ResultSet resultSet) throws SQLException {
+        return new TermAggregate(
+                resultSet.getInt("admno"),
+                resultSet.getInt("form"),
+                resultSet.getInt("term"),
+                resultSet.getInt("year"),
+                resultSet.getInt("mark_sum"),
+                resultSet.getInt("subject_count"));
+    }
+
+    private static TermOutcome readOutcome(ResultSet resultSet) throws SQLException {
+        return new TermOutcome(
+                resultSet.getInt("admno"),
+                resultSet.getInt("form"),
+                resultSet.getInt("term"),
+                resultSet.getInt("year"),
+                resultSet.getInt("subject_count"),
+                resultSet.getInt("total_marks"),
+                resultSet.getDouble("average"),
+                resultSet.getString("overall_grade"),
+                resultSet.getString("promotion_status"));
+    }
+
+    private static SubjectRow readSubject(ResultSet resultSet) throws SQLException {
+        return new SubjectRow(
+                resultSet.getInt("id"),
+                resultSet.getString("name"),
+                resultSet.getString("code"),
+                resultSet.getString("description"));
     }
 
     // -----------------------------------------
     // CRUD Operations for Students
     // -----------------------------------------
 
-    public boolean addStudent(String name, String gender, int form, int term, int year) {
+    @Override
+    public StudentRow addStudent(String name, String gender, int form, int term, int year) {
         String query = "INSERT INTO students (name, gender, form, term, year) VALUES (?, ?, ?, ?, ?)";
         try (Connection connection = connect();
-             PreparedStatement statement = connection.prepareStatement(query)) {
+             PreparedStatement statement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
             statement.setString(1, name);
             statement.setString(2, gender);
             statement.setInt(3, form);
             statement.setInt(4, term);
             statement.setInt(5, year);
             statement.executeUpdate();
-            return true;
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                return keys.next() ? new StudentRow(keys.getInt(1), name, gender, form, term, year) : null;
+            }
         } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
+            failed(e);
+            return null;
+        }
+    }
+
+    /**
+     * Inserts a batch of students in a single transaction using one JDBC batch.
+     * The admno of each input row is ignored; the database assigns it.
+     *
+     * @return the generated admission numbers in input order, or an empty list if the
+     *         batch failed and was rolled back.
+     */
+    @Override
+    public List<Integer> addStudents(List<StudentRow> students) {
+        List<Integer> admissionNumbers = new ArrayList<>(students.size());
+        if (students.isEmpty()) {
+            return admissionNumbers;
         }
+        String query = "INSERT INTO students (name, gender, form, term, year) VALUES (?, ?, ?, ?, ?)";
+        try (Connection connection = connect()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+                for (StudentRow student : students) {
+                    statement.setString(1, student.name());
+                    statement.setString(2, student.gender());
+                    statement.setInt(3, student.form());
+                    statement.setInt(4, student.term());
+                    statement.setInt(5, student.year());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        admissionNumbers.add(keys.getInt(1));
+                    }
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            failed(e);
+            admissionNumbers.clear();
+        }
+        return admissionNumbers;
     }
 
-    public List<String[]> getAllStudents() {
-        List<String[]> students = new ArrayList<>();
-        String query = "SELECT * FROM students";
+    @Override
+    public List<StudentRow> getAllStudents() {
+        List<StudentRow> students = new ArrayList<>();
+        String query = "SELECT " + STUDENT_COLUMNS + " FROM students";
         try (Connection connection = connect();
              Statement statement = connection.createStatement();
              ResultSet resultSet = statement.executeQuery(query)) {
             while (resultSet.next()) {
-                String[] student = {
-                        String.valueOf(resultSet.getInt("admno")),
-                        resultSet.getString("name"),
-                        resultSet.getString("gender"),
-                        String.valueOf(resultSet.getInt("form")),
-                        String.valueOf(resultSet.getInt("term")),
-                        String.valueOf(resultSet.getInt("year"))
-                };
-                students.add(student);
+                students.add(readStudent(resultSet));
             }
         } catch (SQLException e) {
-            e.printStackTrace();
+            failed(e);
         }
         return students;
     }
 
+    /**
+     * Returns up to {@code limit} students with an admno greater than {@code afterAdmno},
+     * in admno order. Pass 0 for the first page and the last admno seen for the next one.
+     */
+    @Override
+    public List<StudentRow> getStudentsPage(int afterAdmno, int limit) {
+        List<StudentRow> students = new ArrayList<>(limit);
+        String query = "SELECT " + STUDENT_COLUMNS + " FROM students WHERE admno > ? ORDER BY admno LIMIT ?";
+        try (Connection connection = connect();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setInt(1, afterAdmno);
+            statement.setInt(2, limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    students.add(readStudent(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            failed(e);
+        }
+        return students;
+    }
+
+    /**
+     * Keyset paging in any {@link StudentSort} order: the rows after {@code after} are
+     * those with a greater sort value, or an equal one and a greater admno. It is written
+     * as "column >= value AND (column > value OR admno > last)" so the first part is an
+     * index range. With {@code skip} 0 this reads only the page from the sort column's
+     * index; a jump to a far page skips from the nearest row the caller knows.
+     */
+    @Override
+    public List<StudentRow> getStudentsSorted(StudentSort sort, boolean descending, StudentRow after, int skip, int limit) {
+        List<StudentRow> students = new ArrayList<>(limit);
+        String column = sort.column();
+        String direction = descending ? " DESC" : "";
+        String comparison = descending ? " < ?" : " > ?";
+        String orEqual = descending ? " <= ?" : " >= ?";
+        StringBuilder query = new StringBuilder("SELECT " + STUDENT_COLUMNS + " FROM students");
+        if (after != null) {
+            query.append(sort == StudentSort.ADMNO
+                    ? " WHERE admno" + comparison
+                    : " WHERE " + column + orEqual + " AND (" + column + comparison + " OR admno" + comparison + ")");
+        }
+        query.append(" ORDER BY ").append(column).append(direction);
+        if (sort != StudentSort.ADMNO) {
+            query.append(", admno").append(direction);
+        }
+        query.append(" LIMIT ? OFFSET ?");
+        try (Connection connection = connect();
+             PreparedStatement statement = connection.prepareStatement(query.toString())) {
+            int index = 1;
+            if (after != null) {
+                if (sort != StudentSort.ADMNO) {
+                    statement.setObject(index++, sort.keyOf(after));
+                    statement.setObject(index++, sort.keyOf(after));
+                }
+                statement.setInt(index++, after.admno());
+            }
+            statement.setInt(index++, limit);
+            statement.setInt(index, skip);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    students.add(readStudent(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            failed(e);
+        }
+        return students;
+    }
+
+    @Override
+    public int countStudents() {
+        try (Connection connection = connect();
+             PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM students");
+             ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        } catch (SQLException e) {
+            failed(e);
+            return 0;
+        }
+    }
+
+    /**
+     * Streams every student, in admno order, to {@code consumer} without holding them in memory.
+     *
+     * @return the number of rows streamed, or -1 if the query failed.
+     */
+    @Override
+    public int streamStudents(Consumer<StudentRow> consumer) {
+        String query = "SELECT " + STUDENT_COLUMNS + " FROM students ORDER BY admno";
+        int count = 0;
+        try (Connection connection = connect();
+             PreparedStatement statement = prepareStreaming(connection, query);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                consumer.accept(readStudent(resultSet));
+                count++;
+            }
+        } catch (SQLException e) {
+            failed(e);
+            return -1;
+        }
+        return count;
+    }
+
+    @Override
     public boolean deleteStudent(int admno) {
         String query = "DELETE FROM students WHERE admno = ?";
         try (Connection connection = connect();
              PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setInt(1, admno);
-            statement.executeUpdate();
-            return true;
+            return statement.executeUpdate() > 0;
         } catch (SQLException e) {
-            e.printStackTrace();
+            failed(e);
             return false;
         }
     }
@@ -76,7 +334,8 @@ public class DatabaseOperations {
     // CRUD Operations for Teachers
     // -----------------------------------------
 
-    public boolean addTeacher(String name, String staffNumber, String idPassport) {
+    @Override
+    public TeacherRow addTeacher(String name, String staffNumber, String idPassport) {
         String query = "INSERT INTO teachers (name, staff_number, id_passport) VALUES (?, ?, ?)";
         try (Connection connection = connect();
              PreparedStatement statement = connection.prepareStatement(query)) {
@@ -84,46 +343,46 @@ public class DatabaseOperations {
             statement.setString(2, staffNumber);
             statement.setString(3, idPassport);
             statement.executeUpdate();
-            return true;
+            return new TeacherRow(staffNumber, name, idPassport);
         } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
+            failed(e);
+            return null;
         }
     }
 
-    public List<String[]> getAllTeachers() {
-        List<String[]> teachers = new ArrayList<>();
-        String query = "SELECT * FROM teachers";
+    @Override
+    public List<TeacherRow> getAllTeachers() {
+        List<TeacherRow> teachers = new ArrayList<>();
+        String query = "SELECT staff_number, name, id_passport FROM teachers";
         try (Connection connection = connect();
              Statement statement = connection.createStatement();
              ResultSet resultSet = statement.executeQuery(query)) {
             while (resultSet.next()) {
-                String[] teacher = {
+                teachers.add(new TeacherRow(
                         resultSet.getString("staff_number"),
                         resultSet.getString("name"),
-                        resultSet.getString("id_passport")
-                };
-                teachers.add(teacher);
+                        resultSet.getString("id_passport")));
             }
         } catch (SQLException e) {
-            e.printStackTrace();
+            failed(e);
         }
         return teachers;
     }
 
+    @Override
     public boolean deleteTeacher(String staffNumber) {
         String query = "DELETE FROM teachers WHERE staff_number = ?";
         try (Connection connection = connect();
              PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, staffNumber);
-            statement.executeUpdate();
-            return true;
+            return statement.executeUpdate() > 0;
         } catch (SQLException e) {
-            e.printStackTrace();
+            failed(e);
             return false;
         }
     }
 
+    @Override
     public List<String> getAllSubjectNames() {
         List<String> subjects = new ArrayList<>();
         String query = "SELECT name FROM subjects";
@@ -134,57 +393,132 @@ public class DatabaseOperations {
                 subjects.add(resultSet.getString("name"));
             }
         } catch (SQLException e) {
-            e.printStackTrace();
+            failed(e);
         }
         return subjects;
     }
 
-    public List<String[]> getIndividualResults(String studentAdmNo) {
-        List<String[]> results = new ArrayList<>();
-        String query = "SELECT sub.name, r.total FROM results r " +
+    @Override
+    public List<ResultRow> getIndividualResults(int admno) {
+        List<ResultRow> results = new ArrayList<>();
+        String query = "SELECT sub.name, r.total, r.grade FROM results r " +
                 "JOIN subjects sub ON r.subject_id = sub.id " +
                 "WHERE r.admno = ?";
         try (Connection connection = connect();
              PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setString(1, studentAdmNo);
-            ResultSet resultSet = statement.executeQuery();
-            while (resultSet.next()) {
-                results.add(new String[]{resultSet.getString("name"), resultSet.getString("total")});
+            statement.setInt(1, admno);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    results.add(new ResultRow(
+                            resultSet.getString("name"),
+                            resultSet.getInt("total"),
+                            resultSet.getString("grade")));
+                }
             }
         } catch (SQLException e) {
-            e.printStackTrace();
+            failed(e);
         }
         return results;
     }
 
-
-
-
-
-    public List<String[]> getGroupResults(String form, String term, String year, String subject) {
-        List<String[]> results = new ArrayList<>();
-        String query = "SELECT s.name, r.total FROM results r " +
+    @Override
+    public List<GroupResultRow> getGroupResults(int form, int term, int year, String subject) {
+        List<GroupResultRow> results = new ArrayList<>();
+        String query = "SELECT s.admno, s.name, r.total FROM results r " +
                 "JOIN students s ON r.admno = s.admno " +
                 "JOIN subjects sub ON r.subject_id = sub.id " +
                 "WHERE r.form = ? AND r.term = ? AND r.year = ? AND sub.name = ?";
         try (Connection connection = connect();
              PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setInt(1, Integer.parseInt(form.split(" ")[1]));
-            statement.setInt(2, Integer.parseInt(term.split(" ")[1]));
-            statement.setInt(3, Integer.parseInt(year));
+            statement.setInt(1, form);
+            statement.setInt(2, term);
+            statement.setInt(3, year);
             statement.setString(4, subject);
-            ResultSet resultSet = statement.executeQuery();
-            while (resultSet.next()) {
-                results.add(new String[]{resultSet.getString("name"), resultSet.getString("total")});
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    results.add(new GroupResultRow(
+                            resultSet.getInt("admno"),
+                            resultSet.getString("name"),
+                            resultSet.getInt("total")));
+                }
             }
         } catch (SQLException e) {
-            e.printStackTrace();
+            failed(e);
         }
         return results;
     }
 
 
 
+    /**
+     * Returns the next page of results for a form/term/year cohort, ordered by
+     * (admno, subject_id). Pass 0, 0 for the first page and the last row's
+     * admno and subjectId for the next one.
+     */
+    @Override
+    public List<CohortResultRow> getResultsPage(int form, int term, int year, int afterAdmno, int afterSubjectId, int limit) {
+        List<CohortResultRow> results = new ArrayList<>(limit);
+        String query = "SELECT r.admno, s.name AS student_name, r.subject_id, sub.name AS subject_name, r.total, r.grade " +
+                "FROM results r " +
+                "JOIN students s ON r.admno = s.admno " +
+                "JOIN subjects sub ON r.subject_id = sub.id " +
+                "WHERE r.form = ? AND r.term = ? AND r.year = ? " +
+                "AND (r.admno > ? OR (r.admno = ? AND r.subject_id > ?)) " +
+                "ORDER BY r.admno, r.subject_id LIMIT ?";
+        try (Connection connection = connect();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setInt(1, form);
+            statement.setInt(2, term);
+            statement.setInt(3, year);
+            statement.setInt(4, afterAdmno);
+            statement.setInt(5, afterAdmno);
+            statement.setInt(6, afterSubjectId);
+            statement.setInt(7, limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    results.add(readCohortResult(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            failed(e);
+        }
+        return results;
+    }
+
+    /**
+     * Streams every result for a form/term/year cohort, ordered by (admno, subject_id),
+     * to {@code consumer}. Intended for export jobs: rows are never collected in memory.
+     *
+     * @return the number of rows streamed, or -1 if the query failed.
+     */
+    @Override
+    public int streamResults(int form, int term, int year, Consumer<CohortResultRow> consumer) {
+        String query = "SELECT r.admno, s.name AS student_name, r.subject_id, sub.name AS subject_name, r.total, r.grade " +
+                "FROM results r " +
+                "JOIN students s ON r.admno = s.admno " +
+                "JOIN subjects sub ON r.subject_id = sub.id " +
+                "WHERE r.form = ? AND r.term = ? AND r.year = ? " +
+                "ORDER BY r.admno, r.subject_id";
+        int count = 0;
+        try (Connection connection = connect();
+             PreparedStatement statement = prepareStreaming(connection, query)) {
+            statement.setInt(1, form);
+            statement.setInt(2, term);
+            statement.setInt(3, year);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    consumer.accept(readCohortResult(resultSet));
+                    count++;
+                }
+            }
+        } catch (SQLException e) {
+            failed(e);
+            return -1;
+        }
+        return count;
+    }
+
+    @Override
     public boolean addTeacherSubject(String teacherId, String subject, int form, int term) {
         String query = "INSERT INTO teacher_subjects (teacher_id, subject, form, term) VALUES (?, ?, ?, ?)";
         try (Connection connection = connect();
@@ -196,71 +530,229 @@ public class DatabaseOperations {
             statement.executeUpdate();
             return true;
         } catch (SQLException e) {
-            e.printStackTrace();
+            failed(e);
             return false;
         }
     }
 
-    public List<String[]> getTeacherSubjects(String teacherId) {
-        List<String[]> subjects = new ArrayList<>();
-        String query = "SELECT ts.subject, ts.form, ts.term " +
+    @Override
+    public List<TeacherSubjectRow> getTeacherSubjects(String teacherId) {
+        List<TeacherSubjectRow> subjects = new ArrayList<>();
+        String query = "SELECT ts.id, ts.subject, ts.form, ts.term " +
                 "FROM teacher_subjects ts " +
                 "WHERE ts.teacher_id = ?";
         try (Connection connection = connect();
              PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, teacherId);
-            ResultSet resultSet = statement.executeQuery();
-            while (resultSet.next()) {
-                subjects.add(new String[]{
-                        resultSet.getString("subject"),
-                        String.valueOf(resultSet.getInt("form")),
-                        String.valueOf(resultSet.getInt("term"))
-                });
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    subjects.add(new TeacherSubjectRow(
+                            resultSet.getInt("id"),
+                            resultSet.getString("subject"),
+                            resultSet.getInt("form"),
+                            resultSet.getInt("term")));
+                }
             }
         } catch (SQLException e) {
-            e.printStackTrace();
+            failed(e);
         }
         return subjects;
     }
 
+    @Override
     public List<String> getSubjectsForTeacher(String teacherId) {
         List<String> subjects = new ArrayList<>();
         String query = "SELECT subject FROM teacher_subjects WHERE teacher_id = ?";
         try (Connection connection = connect();
              PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, teacherId);
-            ResultSet resultSet = statement.executeQuery();
-            while (resultSet.next()) {
-                subjects.add(resultSet.getString("subject"));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    subjects.add(resultSet.getString("subject"));
+                }
             }
         } catch (SQLException e) {
-            e.printStackTrace();
+            failed(e);
         }
         return subjects;
     }
 
-    public List<String[]> getStudentsForSubject(int subjectId, int term) {
-        List<String[]> students = new ArrayList<>();
-        String query = "SELECT s.admno, s.name FROM students s " +
+    @Override
+    public List<StudentRow> getStudentsForSubject(int subjectId, int term) {
+        List<StudentRow> students = new ArrayList<>();
+        String query = "SELECT s.admno, s.name, s.gender, s.form, s.term, s.year FROM students s " +
                 "JOIN results r ON s.admno = r.admno " +
                 "WHERE r.subject_id = ? AND r.term = ?";
         try (Connection connection = connect();
              PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setInt(1, subjectId);
             statement.setInt(2, term);
-            ResultSet resultSet = statement.executeQuery();
-            while (resultSet.next()) {
-                students.add(new String[]{
-                        resultSet.getString("admno"),
-                        resultSet.getString("name")
-                });
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    students.add(readStudent(resultSet));
+                }
             }
         } catch (SQLException e) {
-            e.printStackTrace();
+            failed(e);
         }
         return students;
     }
 
+    /**
+     * Returns the class list of a form/term/year with each student's marks in the subject.
+     * The list comes from the students table, so a student without a results row yet is
+     * included with zero marks and saving them inserts the row.
+     */
+    @Override
+    public List<MarkRow> getMarksForSubject(int subjectId, int form, int term, int year) {
+        List<MarkRow> marks = new ArrayList<>();
+        String query = "SELECT s.admno, s.name, COALESCE(r.cat1, 0) AS cat1, COALESCE(r.cat2, 0) AS cat2, " +
+                "COALESCE(r.cat3, 0) AS cat3, COALESCE(r.cat4, 0) AS cat4, COALESCE(r.exam, 0) AS exam " +
+                "FROM students s " +
+                "LEFT JOIN results r ON r.admno = s.admno AND r.subject_id = ? " +
+                "AND r.form = s.form AND r.term = s.term AND r.year = s.year " +
+                "WHERE s.form = ? AND s.term = ? AND s.year = ? " +
+                "ORDER BY s.admno";
+        try (Connection connection = connect();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setInt(1, subjectId);
+            statement.setInt(2, form);
+            statement.setInt(3, term);
+            statement.setInt(4, year);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    marks.add(new MarkRow(
+                            resultSet.getInt("admno"),
+                            resultSet.getString("name"),
+                            subjectId,
+                            form,
+                            term,
+                            year,
+                            resultSet.getInt("cat1"),
+                            resultSet.getInt("cat2"),
+                            resultSet.getInt("cat3"),
+                            resultSet.getInt("cat4"),
+                            resultSet.getInt("exam")));
+                }
+            }
+        } catch (SQLException e) {
+            failed(e);
+        }
+        return marks;
+    }
+
+    /**
+     * Inserts or updates marks for a class list in one transaction.
+     * Rows are sent as a single JDBC batch and upserted on
+     * (admno, form, term, year, subject_id); see db/migration.
+     *
+     * @return true if every row was saved, false if the batch was rolled back.
+     */
+    @Override
+    public boolean saveMarks(List<MarkRow> marks) {
+        if (marks.isEmpty()) {
+            return true;
+        }
+        String query = "INSERT INTO results (admno, subject_id, form, term, year, cat1, cat2, cat3, cat4, exam, total, grade) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE cat1 = VALUES(cat1), cat2 = VALUES(cat2), cat3 = VALUES(cat3), " +
+                "cat4 = VALUES(cat4), exam = VALUES(exam), total = VALUES(total), grade = VALUES(grade)";
+        try (Connection connection = connect()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(query);
+                 PreparedStatement clearRankings = connection.prepareStatement(
+                         "DELETE FROM rankings WHERE form = ? AND term = ? AND year = ?");
+                 PreparedStatement clearOutcomes = connection.prepareStatement(
+                         "DELETE FROM term_outcomes WHERE form = ? AND term = ? AND year = ?");
+                 PreparedStatement refreshAggregate = connection.prepareStatement(REFRESH_AGGREGATE)) {
+                for (MarkRow mark : marks) {
+                    statement.setInt(1, mark.admno());
+                    statement.setInt(2, mark.subjectId());
+                    statement.setInt(3, mark.form());
+                    statement.setInt(4, mark.term());
+                    statement.setInt(5, mark.year());
+                    statement.setInt(6, mark.cat1());
+                    statement.setInt(7, mark.cat2());
+                    statement.setInt(8, mark.cat3());
+                    statement.setInt(9, mark.cat4());
+                    statement.setInt(10, mark.exam());
+                    statement.setInt(11, mark.total());
+                    statement.setString(12, mark.grade());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                for (MarkRow student : distinctStudentTerms(marks)) {
+                    refreshAggregate.setInt(1, student.admno());
+                    refreshAggregate.setInt(2, student.form());
+                    refreshAggregate.setInt(3, student.term());
+                    refreshAggregate.setInt(4, student.year());
+                    refreshAggregate.addBatch();
+                }
+                refreshAggregate.executeBatch();
+                // Positions and outcomes of the cohorts touched are now stale
+                for (MarkRow cohort : distinctCohorts(marks)) {
+                    for (PreparedStatement clear : List.of(clearRankings, clearOutcomes)) {
+                        clear.setInt(1, cohort.form());
+                        clear.setInt(2, cohort.term());
+                        clear.setInt(3, cohort.year());
+                        clear.addBatch();
+                    }
+                }
+                clearRankings.executeBatch();
+                clearOutcomes.executeBatch();
+                connection.commit();
+                return true;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            failed(e);
+            return false;
+        }
+    }
+
+    /**
+     * Re-sums one student's term from its results rows (a handful, found through
+     * uk_results_entry). The upsert has no old totals to apply a delta to, and
+     * re-summing cannot drift.
+     */
+    private static final String REFRESH_AGGREGATE =
+            "INSERT INTO student_term_aggregates (" + AGGREGATE_COLUMNS + ") " +
+            "SELECT admno, form, term, year, SUM(total), COUNT(*) FROM results " +
+            "WHERE admno = ? AND form = ? AND term = ? AND year = ? " +
+            "GROUP BY admno, form, term, year " +
+            "ON DUPLICATE KEY UPDATE mark_sum = VALUES(mark_sum), subject_count = VALUES(subject_count)";
+
+    /**
+     * One mark per distinct (admno, form, term, year) in {@code marks}.
+     */
+    private static List<MarkRow> distinctStudentTerms(List<MarkRow> marks) {
+        Map<List<Integer>, MarkRow> keys = new LinkedHashMap<>();
+        for (MarkRow mark : marks) {
+            keys.putIfAbsent(List.of(mark.admno(), mark.form(), mark.term(), mark.year()), mark);
+        }
+        return new ArrayList<>(keys.values());
+    }
+
+    /**
+     * One mark per distinct (form, term, year) in {@code marks}.
+     */
+    private static List<MarkRow> distinctCohorts(List<MarkRow> marks) {
+        List<MarkRow> cohorts = new ArrayList<>();
+        for (MarkRow mark : marks) {
+            boolean seen = cohorts.stream().anyMatch(cohort -> cohort.form() == mark.form()
+                    && cohort.term() == mark.term() && cohort.year() == mark.year());
+            if (!seen) {
+                cohorts.add(mark);
+            }
+        }
+        return cohorts;
+    }
+
+    @Override
     public boolean deleteTeacherSubject(int id) {
         String query = "DELETE FROM teacher_subjects WHERE id = ?";
         try (Connection connection = connect();
@@ -269,7 +761,7 @@ public class DatabaseOperations {
             statement.executeUpdate();
             return true;
         } catch (SQLException e) {
-            e.printStackTrace();
+            failed(e);
             return false;
         }
     }
@@ -278,166 +770,239 @@ public class DatabaseOperations {
     // CRUD Operations for Subjects
     // -----------------------------------------
 
-    public List<String[]> getAllSubjects() {
-        List<String[]> subjects = new ArrayList<>();
-        String query = "SELECT * FROM subjects";
+    @Override
+    public List<SubjectRow> getAllSubjects() {
+        List<SubjectRow> subjects = new ArrayList<>();
+        String query = "SELECT " + SUBJECT_COLUMNS + " FROM subjects";
         try (Connection connection = connect();
              Statement statement = connection.createStatement();
              ResultSet resultSet = statement.executeQuery(query)) {
             while (resultSet.next()) {
-                String[] subject = {
-                        String.valueOf(resultSet.getInt("id")),
-                        resultSet.getString("name"),
-                        resultSet.getString("description")
-                };
-                subjects.add(subject);
+                subjects.add(readSubject(resultSet));
             }
         } catch (SQLException e) {
-            e.printStackTrace();
+            failed(e);
         }
         return subjects;
     }
 
 
-    public List<String[]> getResultsForStudent(String admNo, int form, int term) {
-        List<String[]> results = new ArrayList<>();
+    @Override
+    public List<ResultRow> getResultsForStudent(int admno, int form, int term, int year) {
+        List<ResultRow> results = new ArrayList<>();
         String query = "SELECT s.name AS subject, r.total, r.grade " +
                 "FROM results r " +
                 "JOIN subjects s ON r.subject_id = s.id " +
-                "WHERE r.admno = ? AND r.form = ? AND r.term = ?";
+                "WHERE r.admno = ? AND r.form = ? AND r.term = ? AND r.year = ?";
         try (Connection connection = connect();
              PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setString(1, admNo);
+            statement.setInt(1, admno);
             statement.setInt(2, form);
             statement.setInt(3, term);
-            ResultSet resultSet = statement.executeQuery();
-            while (resultSet.next()) {
-                results.add(new String[]{
-                        resultSet.getString("subject"),
-                        resultSet.getString("total"),
-                        resultSet.getString("grade")
-                });
+            statement.setInt(4, year);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    results.add(new ResultRow(
+                            resultSet.getString("subject"),
+                            resultSet.getInt("total"),
+                            resultSet.getString("grade")));
+                }
             }
         } catch (SQLException e) {
-            e.printStackTrace();
+            failed(e);
         }
         return results;
     }
 
-    public String getStudentNameByAdmNo(String admNo) {
-        String studentName = null;
-        String query = "SELECT name FROM students WHERE admno = ?";
+    @Override
+    public Integer getNewestResultYear(int admno, int form, int term) {
+        String query = "SELECT MAX(year) AS year FROM results WHERE admno = ? AND form = ? AND term = ?";
         try (Connection connection = connect();
              PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setString(1, admNo);
-            ResultSet resultSet = statement.executeQuery();
-            if (resultSet.next()) {
-                studentName = resultSet.getString("name");
+            statement.setInt(1, admno);
+            statement.setInt(2, form);
+            statement.setInt(3, term);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    int year = resultSet.getInt("year");
+                    return resultSet.wasNull() ? null : year;
+                }
             }
         } catch (SQLException e) {
-            e.printStackTrace();
+            failed(e);
         }
-        return studentName;
+        return null;
     }
 
-    public boolean saveOverallGradeAndPromotionStatus(String admNo, String grade, int form, int term, String promotionStatus) {
-        String query = "UPDATE students SET overall_grade = ?, promotion_status = ? WHERE admno = ?";
+    @Override
+    public String getStudentNameByAdmNo(int admno) {
+        String studentName = null;
+        String query = "SELECT name FROM students WHERE admno = ?";
         try (Connection connection = connect();
              PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setString(1, grade);
-            statement.setString(2, promotionStatus);
-            statement.setString(3, admNo);
-            statement.executeUpdate();
-            return true;
+            statement.setInt(1, admno);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    studentName = resultSet.getString("name");
+                }
+            }
         } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
+            failed(e);
         }
+        return studentName;
     }
 
 
-    public List<String[]> searchStudentsByName(String query) {
-        List<String[]> students = new ArrayList<>();
-        String sqlQuery = "SELECT * FROM students WHERE name LIKE ?";
+    @Override
+    public List<StudentRow> searchStudentsByName(String query) {
+        List<StudentRow> students = new ArrayList<>();
+        String sqlQuery = "SELECT " + STUDENT_COLUMNS + " FROM students WHERE name LIKE ?";
         try (Connection connection = connect();
              PreparedStatement statement = connection.prepareStatement(sqlQuery)) {
             statement.setString(1, "%" + query + "%");
-            ResultSet resultSet = statement.executeQuery();
-            while (resultSet.next()) {
-                String[] student = {
-                        String.valueOf(resultSet.getInt("admno")),
-                        resultSet.getString("name"),
-                        resultSet.getString("gender"),
-                        String.valueOf(resultSet.getInt("form")),
-                        String.valueOf(resultSet.getInt("term")),
-                        String.valueOf(resultSet.getInt("year"))
-                };
-                students.add(student);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    students.add(readStudent(resultSet));
+                }
             }
         } catch (SQLException e) {
-            e.printStackTrace();
+            failed(e);
         }
         return students;
     }
 
-    public List<String[]> getStudentsByFormAndTerm(int form, int term) {
-        List<String[]> students = new ArrayList<>();
-        String query = "SELECT * FROM students WHERE form = ? AND term = ?";
+    @Override
+    public List<StudentRow> getStudentsByFormAndTerm(int form, int term) {
+        List<StudentRow> students = new ArrayList<>();
+        String query = "SELECT " + STUDENT_COLUMNS + " FROM students WHERE form = ? AND term = ?";
         try (Connection connection = connect();
              PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setInt(1, form);
             statement.setInt(2, term);
-            ResultSet resultSet = statement.executeQuery();
-            while (resultSet.next()) {
-                String[] student = {
-                        String.valueOf(resultSet.getInt("admno")),
-                        resultSet.getString("name"),
-                        resultSet.getString("gender"),
-                        String.valueOf(resultSet.getInt("form")),
-                        String.valueOf(resultSet.getInt("term")),
-                        String.valueOf(resultSet.getInt("year"))
-                };
-                students.add(student);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    students.add(readStudent(resultSet));
+                }
             }
         } catch (SQLException e) {
-            e.printStackTrace();
+            failed(e);
         }
         return students;
     }
 
-    public void addSubject(String name, String description) {
-        String query = "INSERT INTO subjects (name, description) VALUES (?, ?)";
+    @Override
+    public List<Integer> getStudentYears(int form, int term) {
+        List<Integer> years = new ArrayList<>();
+        String query = "SELECT DISTINCT year FROM students WHERE form = ? AND term = ? ORDER BY year ASC";
         try (Connection connection = connect();
-             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setInt(1, form);
+            statement.setInt(2, term);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    years.add(resultSet.getInt("year"));
+                }
+            }
+        } catch (SQLException e) {
+            failed(e);
+        }
+        return years;
+    }
+
+    @Override
+    public SubjectRow addSubject(String name, String code, String description) {
+        String query = "INSERT INTO subjects (name, code, description) VALUES (?, ?, ?)";
+        try (Connection connection = connect();
+             PreparedStatement preparedStatement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
             preparedStatement.setString(1, name);
-            preparedStatement.setString(2, description);
+            preparedStatement.setString(2, code);
+            preparedStatement.setString(3, description);
             preparedStatement.executeUpdate();
+            try (ResultSet keys = preparedStatement.getGeneratedKeys()) {
+                return keys.next() ? new SubjectRow(keys.getInt(1), name, code, description) : null;
+            }
         } catch (SQLException e) {
-            e.printStackTrace();
+            failed(e);
+            return null;
         }
     }
 
-    public void updateSubject(int id, String name, String description) {
-        String query = "UPDATE subjects SET name = ?, description = ? WHERE id = ?";
+    @Override
+    public void updateSubject(int id, String name, String code, String description) {
+        String query = "UPDATE subjects SET name = ?, code = ?, description = ? WHERE id = ?";
         try (Connection connection = connect();
              PreparedStatement preparedStatement = connection.prepareStatement(query)) {
             preparedStatement.setString(1, name);
-            preparedStatement.setString(2, description);
-            preparedStatement.setInt(3, id);
+            preparedStatement.setString(2, code);
+            preparedStatement.setString(3, description);
+            preparedStatement.setInt(4, id);
             preparedStatement.executeUpdate();
         } catch (SQLException e) {
-            e.printStackTrace();
+            failed(e);
         }
     }
 
-    public void deleteSubject(int id) {
+    @Override
+    public boolean deleteSubject(int id) {
         String query = "DELETE FROM subjects WHERE id = ?";
-        try (Connection connection = connect();
-             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-            preparedStatement.setInt(1, id);
-            preparedStatement.executeUpdate();
+        String results = "SELECT admno, form, term, year, total FROM results WHERE subject_id = ?";
+        String subtract = "UPDATE student_term_aggregates SET mark_sum = mark_sum - ?, subject_count = subject_count - 1 " +
+                "WHERE admno = ? AND form = ? AND term = ? AND year = ?";
+        try (Connection connection = connect()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement preparedStatement = connection.prepareStatement(query);
+                 PreparedStatement resultsStatement = connection.prepareStatement(results);
+                 PreparedStatement subtractStatement = connection.prepareStatement(subtract);
+                 PreparedStatement clearAggregates = connection.prepareStatement(
+                         "DELETE FROM student_term_aggregates WHERE subject_count <= 0");
+                 PreparedStatement clearRankings = connection.prepareStatement("DELETE FROM rankings WHERE subject_id = ?");
+                 PreparedStatement clearCohortRankings = connection.prepareStatement(
+                         "DELETE FROM rankings WHERE form = ? AND term = ? AND year = ?");
+                 PreparedStatement clearOutcomes = connection.prepareStatement(
+                         "DELETE FROM term_outcomes WHERE form = ? AND term = ? AND year = ?")) {
+                // Take the subject's results out of the aggregates before the cascade deletes them
+                Set<List<Integer>> cohorts = new LinkedHashSet<>();
+                resultsStatement.setInt(1, id);
+                try (ResultSet resultSet = resultsStatement.executeQuery()) {
+                    while (resultSet.next()) {
+                        cohorts.add(List.of(resultSet.getInt("form"), resultSet.getInt("term"), resultSet.getInt("year")));
+                        subtractStatement.setInt(1, resultSet.getInt("total"));
+                        subtractStatement.setInt(2, resultSet.getInt("admno"));
+                        subtractStatement.setInt(3, resultSet.getInt("form"));
+                        subtractStatement.setInt(4, resultSet.getInt("term"));
+                        subtractStatement.setInt(5, resultSet.getInt("year"));
+                        subtractStatement.addBatch();
+                    }
+                }
+                subtractStatement.executeBatch();
+                clearAggregates.executeUpdate();
+                // subject_id 0 (overall) cannot reference subjects, so there is no cascade
+                clearRankings.setInt(1, id);
+                clearRankings.executeUpdate();
+                // As in saveMarks, the overall positions and outcomes of the cohorts it was sat in are now stale
+                for (List<Integer> cohort : cohorts) {
+                    for (PreparedStatement clear : List.of(clearCohortRankings, clearOutcomes)) {
+                        clear.setInt(1, cohort.get(0));
+                        clear.setInt(2, cohort.get(1));
+                        clear.setInt(3, cohort.get(2));
+                        clear.addBatch();
+                    }
+                }
+                clearCohortRankings.executeBatch();
+                clearOutcomes.executeBatch();
+                preparedStatement.setInt(1, id);
+                boolean deleted = preparedStatement.executeUpdate() > 0;
+                connection.commit();
+                return deleted;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
         } catch (SQLException e) {
-            e.printStackTrace();
+            failed(e);
+            return false;
         }
     }
 
@@ -445,41 +1010,261 @@ public class DatabaseOperations {
     // Fetching Unique Years for Reports
     // -----------------------------------------
 
-    public List<String> getYearsFromDatabase() {
-        List<String> years = new ArrayList<>();
+    @Override
+    public List<Integer> getYearsFromDatabase() {
+        List<Integer> years = new ArrayList<>();
         String query = "SELECT DISTINCT year FROM results WHERE year <= YEAR(CURDATE()) ORDER BY year ASC";
         try (Connection connection = connect();
              Statement statement = connection.createStatement();
              ResultSet resultSet = statement.executeQuery(query)) {
             while (resultSet.next()) {
-                years.add(resultSet.getString("year"));
+                years.add(resultSet.getInt("year"));
             }
         } catch (SQLException e) {
-            e.printStackTrace();
+            failed(e);
         }
         return years;
     }
 
-    public List<String[]> searchSubjectsByName(String query) {
-        List<String[]> subjects = new ArrayList<>();
-        String sqlQuery = "SELECT * FROM subjects WHERE name LIKE ?";
+    @Override
+    public List<SubjectRow> searchSubjectsByName(String query) {
+        List<SubjectRow> subjects = new ArrayList<>();
+        String sqlQuery = "SELECT " + SUBJECT_COLUMNS + " FROM subjects WHERE name LIKE ?";
         try (Connection connection = connect();
              PreparedStatement statement = connection.prepareStatement(sqlQuery)) {
             statement.setString(1, "%" + query + "%");
-            ResultSet resultSet = statement.executeQuery();
-            while (resultSet.next()) {
-                String[] subject = {
-                        String.valueOf(resultSet.getInt("id")), // ID
-                        resultSet.getString("name"),           // Name
-                        resultSet.getString("description")     // Description
-                };
-                subjects.add(subject);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    subjects.add(readSubject(resultSet));
+                }
             }
         } catch (SQLException e) {
-            e.printStackTrace();
+            failed(e);
         }
         return subjects;
     }
 
+    // -----------------------------------------
+    // Rankings
+    // -----------------------------------------
+
+    @Override
+    public boolean saveRankings(int form, int term, int year, List<RankRow> rankings) {
+        String delete = "DELETE FROM rankings WHERE form = ? AND term = ? AND year = ?";
+        String insert = "INSERT INTO rankings (" + RANKING_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        try (Connection connection = connect()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement deleteStatement = connection.prepareStatement(delete);
+                 PreparedStatement insertStatement = connection.prepareStatement(insert)) {
+                deleteStatement.setInt(1, form);
+                deleteStatement.setInt(2, term);
+                deleteStatement.setInt(3, year);
+                deleteStatement.executeUpdate();
+                for (RankRow ranking : rankings) {
+                    insertStatement.setInt(1, form);
+                    insertStatement.setInt(2, term);
+                    insertStatement.setInt(3, year);
+                    insertStatement.setInt(4, ranking.subjectId());
+                    insertStatement.setInt(5, ranking.admno());
+                    insertStatement.setInt(6, ranking.score());
+                    insertStatement.setInt(7, ranking.position());
+                    insertStatement.setInt(8, ranking.outOf());
+                    insertStatement.addBatch();
+                }
+                insertStatement.executeBatch();
+                connection.commit();
+                return true;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            failed(e);
+            return false;
+        }
+    }
 
+    @Override
+    public List<RankRow> getRankings(int form, int term, int year) {
+        List<RankRow> rankings = new ArrayList<>();
+        String query = "SELECT " + RANKING_COLUMNS + " FROM rankings " +
+                "WHERE form = ? AND term = ? AND year = ? ORDER BY subject_id, position, admno";
+        try (Connection connection = connect();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setInt(1, form);
+            statement.setInt(2, term);
+            statement.setInt(3, year);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    rankings.add(readRanking(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            failed(e);
+        }
+        return rankings;
+    }
+
+    @Override
+    public List<RankRow> getStudentRankings(int admno, int form, int term, int year) {
+        List<RankRow> rankings = new ArrayList<>();
+        String query = "SELECT " + RANKING_COLUMNS + " FROM rankings " +
+                "WHERE admno = ? AND form = ? AND term = ? AND year = ? ORDER BY subject_id";
+        try (Connection connection = connect();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setInt(1, admno);
+            statement.setInt(2, form);
+            statement.setInt(3, term);
+            statement.setInt(4, year);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    rankings.add(readRanking(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            failed(e);
+        }
+        return rankings;
+    }
+
+    // -----------------------------------------
+    // Term outcomes
+    // -----------------------------------------
+
+    @Override
+    public boolean saveTermOutcomes(int form, int term, int year, List<TermOutcome> outcomes) {
+        String delete = "DELETE FROM term_outcomes WHERE form = ? AND term = ? AND year = ?";
+        String insert = "INSERT INTO term_outcomes (" + OUTCOME_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        String update = "UPDATE students SET overall_grade = ?, promotion_status = ? WHERE admno = ?";
+        try (Connection connection = connect()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement deleteStatement = connection.prepareStatement(delete);
+                 PreparedStatement insertStatement = connection.prepareStatement(insert);
+                 PreparedStatement updateStatement = connection.prepareStatement(update)) {
+                deleteStatement.setInt(1, form);
+                deleteStatement.setInt(2, term);
+                deleteStatement.setInt(3, year);
+                deleteStatement.executeUpdate();
+                for (TermOutcome outcome : outcomes) {
+                    insertStatement.setInt(1, outcome.admno());
+                    insertStatement.setInt(2, form);
+                    insertStatement.setInt(3, term);
+                    insertStatement.setInt(4, year);
+                    insertStatement.setInt(5, outcome.subjectCount());
+                    insertStatement.setInt(6, outcome.totalMarks());
+                    insertStatement.setDouble(7, outcome.average());
+                    insertStatement.setString(8, outcome.overallGrade());
+                    insertStatement.setString(9, outcome.promotionStatus());
+                    insertStatement.addBatch();
+
+                    updateStatement.setString(1, outcome.overallGrade());
+                    updateStatement.setString(2, outcome.promotionStatus());
+                    updateStatement.setInt(3, outcome.admno());
+                    updateStatement.addBatch();
+                }
+                insertStatement.executeBatch();
+                updateStatement.executeBatch();
+                connection.commit();
+                return true;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            failed(e);
+            return false;
+        }
+    }
+
+    @Override
+    public TermOutcome getTermOutcome(int admno, int form, int term, int year) {
+        String query = "SELECT " + OUTCOME_COLUMNS + " FROM term_outcomes " +
+                "WHERE admno = ? AND form = ? AND term = ? AND year = ?";
+        try (Connection connection = connect();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setInt(1, admno);
+            statement.setInt(2, form);
+            statement.setInt(3, term);
+            statement.setInt(4, year);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return readOutcome(resultSet);
+                }
+            }
+        } catch (SQLException e) {
+            failed(e);
+        }
+        return null;
+    }
+
+    @Override
+    public List<TermOutcome> getTermOutcomes(int form, int term, int year) {
+        List<TermOutcome> outcomes = new ArrayList<>();
+        String query = "SELECT " + OUTCOME_COLUMNS + " FROM term_outcomes " +
+                "WHERE form = ? AND term = ? AND year = ? ORDER BY admno";
+        try (Connection connection = connect();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setInt(1, form);
+            statement.setInt(2, term);
+            statement.setInt(3, year);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    outcomes.add(readOutcome(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            failed(e);
+        }
+        return outcomes;
+    }
+
+    // -----------------------------------------
+    // Term aggregates
+    // -----------------------------------------
+
+    @Override
+    public List<TermAggregate> getTermAggregates(int form, int term, int year) {
+        List<TermAggregate> aggregates = new ArrayList<>();
+        String query = "SELECT " + AGGREGATE_COLUMNS + " FROM student_term_aggregates " +
+                "WHERE form = ? AND term = ? AND year = ? ORDER BY admno";
+        try (Connection connection = connect();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setInt(1, form);
+            statement.setInt(2, term);
+            statement.setInt(3, year);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    aggregates.add(readAggregate(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            failed(e);
+        }
+        return aggregates;
+    }
+
+    @Override
+    public TermAggregate getTermAggregate(int admno, int form, int term, int year) {
+        String query = "SELECT " + AGGREGATE_COLUMNS + " FROM student_term_aggregates " +
+                "WHERE admno = ? AND form = ? AND term = ? AND year = ?";
+        try (Connection connection = connect();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setInt(1, admno);
+            statement.setInt(2, form);
+            statement.setInt(3, term);
+            statement.setInt(4, year);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return readAggregate(resultSet);
+                }
+            }
+        } catch (SQLException e) {
+            failed(e);
+        }
+        return null;
+    }
 }
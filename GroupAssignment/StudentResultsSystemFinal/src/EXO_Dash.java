@@ -1,5 +1,7 @@
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Pos;
+import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -7,10 +9,26 @@ import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+
 public class EXO_Dash extends Application {
 
     private BorderPane root; // Main layout container
 
+    // Each screen is built once and kept for the session, so switching between them is instant
+    private final CachedView studentsView = new CachedView(new StudentManagement(),
+            VersionedResultsRepository.Table.STUDENTS);
+    private final CachedView teachersView = new CachedView(new TeacherManagement(),
+            VersionedResultsRepository.Table.TEACHERS, VersionedResultsRepository.Table.SUBJECTS);
+    private final CachedView examResultsView = new CachedView(new ExamResultsManagement(),
+            VersionedResultsRepository.Table.RESULTS, VersionedResultsRepository.Table.SUBJECTS,
+            VersionedResultsRepository.Table.STUDENTS);
+    private final CachedView subjectsView = new CachedView(new SubjectManagement(),
+            VersionedResultsRepository.Table.SUBJECTS);
+    private CachedView shown; // Null on the welcome screen
+
     @Override
     public void start(Stage primaryStage) {
         // Create navigation buttons
@@ -50,6 +68,38 @@ public class EXO_Dash extends Application {
         primaryStage.setScene(scene);
         primaryStage.setMaximized(true); // Full-screen support
         primaryStage.show();
+
+        prebuildViews();
+    }
+
+    /**
+     * Builds the screens not opened yet one at a time once the dashboard is showing,
+     * each in its own FX event so the window stays responsive; their data loads run on
+     * background threads.
+     */
+    private void prebuildViews() {
+        Queue<CachedView> toBuild = new ArrayDeque<>(List.of(studentsView, examResultsView, teachersView, subjectsView));
+        Platform.runLater(new Runnable() {
+            @Override
+            public void run() {
+                CachedView view = toBuild.poll();
+                if (view != null) {
+                    view.build();
+                    Platform.runLater(this);
+                }
+            }
+        });
+    }
+
+    /**
+     * Puts a screen in the centre, refreshing it first if its data changed while it was hidden.
+     */
+    private void show(CachedView view) {
+        if (shown != null) {
+            shown.hidden();
+        }
+        shown = view;
+        root.setCenter(view.show());
     }
 
     /**
@@ -60,6 +110,10 @@ public class EXO_Dash extends Application {
         welcomeLabel.setStyle("-fx-font-size: 24px; -fx-font-weight: bold;");
         VBox welcomeScreen = new VBox(welcomeLabel);
         welcomeScreen.setAlignment(Pos.CENTER);
+        if (shown != null) {
+            shown.hidden();
+            shown = null;
+        }
         root.setCenter(welcomeScreen);
     }
 
@@ -67,35 +121,76 @@ public class EXO_Dash extends Application {
      * Displays the Students Management View (Dynamic Data Handling via StudentManagement).
      */
     private void showStudentsView() {
-        StudentManagement studentManagement = new StudentManagement(); // Delegate to StudentManagement
-        root.setCenter(studentManagement.getView()); // Dynamically fetch and display student data
+        show(studentsView);
     }
 
     /**
      * Displays the Teachers Management View (Dynamic Data Handling via TeacherManagement).
      */
     private void showTeachersView() {
-        TeacherManagement teacherManagement = new TeacherManagement(); // Delegate to TeacherManagement
-        root.setCenter(teacherManagement.getView()); // Dynamically fetch and display teacher data
+        show(teachersView);
     }
 
     /**
      * Displays the Exam Results Management View (Dynamic Data Handling via ExamResultsManagement).
      */
     private void showExamResultsView() {
-        ExamResultsManagement examResultsManagement = new ExamResultsManagement(); // Delegate to ExamResultsManagement
-        root.setCenter(examResultsManagement.getView()); // Dynamically fetch and display exam result data
+        show(examResultsView);
     }
 
     /**
      * Displays the Subjects Management View (Dynamic Data Handling via SubjectManagement).
      */
     private void showSubjectsView() {
-        SubjectManagement subjectManagement = new SubjectManagement(); // Delegate to SubjectManagement
-        root.setCenter(subjectManagement.getView()); // Dynamically fetch and display subject data
+        show(subjectsView);
+    }
+
+    /**
+     * A screen kept for the session with the version of its tables it last reflected.
+     * Writes made while a screen is showing are its own and already on it, so only
+     * writes made while it was hidden (by another screen or a background job) make it
+     * refresh when shown again.
+     */
+    private static final class CachedView {
+        private final ManagementView management;
+        private final VersionedResultsRepository.Table[] tables;
+        private Parent view;
+        private long seenVersion;
+
+        CachedView(ManagementView management, VersionedResultsRepository.Table... tables) {
+            this.management = management;
+            this.tables = tables;
+        }
+
+        void build() {
+            if (view == null) {
+                seenVersion = version();
+                view = management.getView();
+            }
+        }
+
+        Parent show() {
+            if (view == null) {
+                build();
+            } else if (version() != seenVersion) {
+                seenVersion = version();
+                management.refresh();
+            }
+            return view;
+        }
+
+        void hidden() {
+            seenVersion = version();
+        }
+
+        private long version() {
+            return Repositories.versions().version(tables);
+        }
     }
 
     public static void main(String[] args) {
-        launch(args);
+        if (Repositories.openOrShowError()) {
+            launch(args);
+        }
     }
 }
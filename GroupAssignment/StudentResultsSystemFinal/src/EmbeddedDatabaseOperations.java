@@ -0,0 +1,47 @@
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * {@link DatabaseOperations} backed by an embedded, file-based H2 database running
+ * in MySQL compatibility mode, so the same SQL runs without a MySQL server.
+ * Useful for benchmarks and load tests on any machine.
+ */
+public class EmbeddedDatabaseOperations extends DatabaseOperations {
+
+    /**
+     * Database files are kept under ./data next to the working directory.
+     * IGNORECASE matches MySQL's case-insensitive default collation for LIKE searches.
+     */
+    public static final String DEFAULT_URL = "jdbc:h2:file:./data/results_system"
+            + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE;NON_KEYWORDS=YEAR,VALUE";
+
+    // H2 does not accept MySQL's negative streaming fetch size; a positive one pages through the result
+    private static final int STREAMING_FETCH_SIZE = 1000;
+
+    private static final int POOL_SIZE = 10;
+    private static final long BORROW_TIMEOUT_MILLIS = 5_000;
+    private static final long VALIDATE_AFTER_IDLE_MILLIS = 30_000;
+    private static final long LEAK_THRESHOLD_MILLIS = 60_000;
+
+    public EmbeddedDatabaseOperations() {
+        this(DEFAULT_URL);
+    }
+
+    /**
+     * @param url an H2 JDBC URL; use "jdbc:h2:mem:name;MODE=MySQL;..." for a throwaway database.
+     */
+    public EmbeddedDatabaseOperations(String url) {
+        super(createSchema(new ConnectionPool(url, "sa", "", POOL_SIZE,
+                BORROW_TIMEOUT_MILLIS, VALIDATE_AFTER_IDLE_MILLIS, LEAK_THRESHOLD_MILLIS)), STREAMING_FETCH_SIZE);
+    }
+
+    // Migrates the schema before the pool is handed to the superclass
+    private static ConnectionPool createSchema(ConnectionPool pool) {
+        try {
+            SchemaMigrator.migrate(pool);
+        } catch (SQLException | IOException e) {
+            throw new IllegalStateException("Could not migrate the embedded database schema", e);
+        }
+        return pool;
+    }
+}
@@ -3,6 +3,7 @@ import com.itextpdf.layout.Document;
 import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.property.UnitValue;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.chart.*;
@@ -12,18 +13,36 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.scene.text.Text;
 
+import java.io.BufferedOutputStream;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 
-public class ExamResultsManagement {
+public class ExamResultsManagement implements ManagementView {
 
     private VBox mainContainer;
-    private DatabaseOperations dbOps;
+    private ResultsRepository dbOps;
+    private AsyncDatabaseOperations asyncOps;
+    private int studentLookupGeneration; // Newest admission number lookup
+
+    // The filters whose choices come from the database, reloaded by refresh
+    private ComboBox<Integer> yearFilter;
+    private ComboBox<String> subjectFilter;
+    private ComboBox<String> studentDropdown;
+
+    // Admission numbers offered at a time in the student dropdown
+    private static final int STUDENT_LOOKUP_SIZE = 50;
 
     public ExamResultsManagement() {
-        dbOps = new DatabaseOperations();
+        dbOps = Repositories.get();
+        asyncOps = new AsyncDatabaseOperations(dbOps);
     }
 
+    @Override
     public VBox getView() {
         mainContainer = new VBox(20);
         mainContainer.setPadding(new Insets(20));
@@ -44,6 +63,18 @@ public class ExamResultsManagement {
         return mainContainer;
     }
 
+    /**
+     * Reloads the years, subjects and admission numbers offered. A report already on
+     * screen is left as it is.
+     */
+    @Override
+    public void refresh() {
+        populateYearDropdown(yearFilter);
+        populateSubjectDropdown(subjectFilter);
+        String typed = studentDropdown.getEditor().getText().trim();
+        lookupStudents(studentDropdown, typed.matches("\\d{1,9}") ? Integer.parseInt(typed) - 1 : 0);
+    }
+
     private VBox createFilterOptions() {
         VBox filterContainer = new VBox(10);
         filterContainer.setAlignment(Pos.CENTER_LEFT);
@@ -59,16 +90,13 @@ public class ExamResultsManagement {
         termFilter.getItems().addAll("Term 1", "Term 2", "Term 3");
         termFilter.setPromptText("Select Term");
 
-        ComboBox<String> yearFilter = new ComboBox<>();
+        yearFilter = new ComboBox<>();
         populateYearDropdown(yearFilter);
-        yearFilter.setPromptText("Select Year");
 
-        ComboBox<String> subjectFilter = new ComboBox<>();
-        subjectFilter.getItems().addAll(dbOps.getAllSubjectNames()); // Fetch all subjects dynamically
-        subjectFilter.setPromptText("Select Subject");
+        subjectFilter = new ComboBox<>();
+        populateSubjectDropdown(subjectFilter); // Fetch all subjects dynamically
 
-        ComboBox<String> studentDropdown = new ComboBox<>();
-        studentDropdown.setPromptText("Select Admission Number");
+        studentDropdown = new ComboBox<>();
         studentDropdown.setPrefWidth(200);
         populateStudentDropdown(studentDropdown);
 
@@ -77,20 +105,72 @@ public class ExamResultsManagement {
         groupReportButton.setOnAction(event -> {
             String form = formFilter.getValue();
             String term = termFilter.getValue();
-            String year = yearFilter.getValue();
+            Integer year = yearFilter.getValue();
             String subject = subjectFilter.getValue();
 
-            generateGroupReport(form, term, year, subject);
+            if (form == null || term == null || year == null || subject == null) {
+                showAlert("Missing Filters", "Please select a form, term, year and subject.");
+                return;
+            }
+            generateGroupReport(Integer.parseInt(form.split(" ")[1]), Integer.parseInt(term.split(" ")[1]), year, subject);
         });
 
         Button individualReportButton = new Button("Generate Individual Report");
         individualReportButton.setStyle("-fx-font-size: 14px; -fx-pref-width: 200px;");
         individualReportButton.setOnAction(event -> {
-            String studentAdmNo = studentDropdown.getValue();
-            generateIndividualReport(studentAdmNo);
+            String studentAdmNo = studentDropdown.getEditor().getText().trim();
+            if (!studentAdmNo.matches("\\d+")) {
+                showAlert("Missing Student", "Please select an admission number.");
+                return;
+            }
+            generateIndividualReport(Integer.parseInt(studentAdmNo));
+        });
+
+        Button closeTermButton = new Button("Close Term");
+        closeTermButton.setStyle("-fx-font-size: 14px; -fx-pref-width: 160px;");
+        closeTermButton.setOnAction(event -> {
+            String form = formFilter.getValue();
+            String term = termFilter.getValue();
+            Integer year = yearFilter.getValue();
+
+            if (form == null || term == null || year == null) {
+                showAlert("Missing Filters", "Please select a form, term and year.");
+                return;
+            }
+            closeTerm(Integer.parseInt(form.split(" ")[1]), Integer.parseInt(term.split(" ")[1]), year);
+        });
+
+        Button resultSlipsButton = new Button("Result Slips");
+        resultSlipsButton.setStyle("-fx-font-size: 14px; -fx-pref-width: 140px;");
+        resultSlipsButton.setOnAction(event -> {
+            String form = formFilter.getValue();
+            String term = termFilter.getValue();
+            Integer year = yearFilter.getValue();
+
+            if (form == null || term == null || year == null) {
+                showAlert("Missing Filters", "Please select a form, term and year.");
+                return;
+            }
+            generateResultSlips(Integer.parseInt(form.split(" ")[1]), Integer.parseInt(term.split(" ")[1]), year);
         });
 
-        HBox filterRow = new HBox(10, formFilter, termFilter, yearFilter, subjectFilter, studentDropdown, groupReportButton, individualReportButton);
+        Button broadsheetButton = new Button("Broadsheet");
+        broadsheetButton.setStyle("-fx-font-size: 14px; -fx-pref-width: 140px;");
+        broadsheetButton.setOnAction(event -> {
+            String form = formFilter.getValue();
+            String term = termFilter.getValue();
+            Integer year = yearFilter.getValue();
+
+            if (form == null || term == null || year == null) {
+                showAlert("Missing Filters", "Please select a form, term and year.");
+                return;
+            }
+            exportBroadsheet(Integer.parseInt(form.split(" ")[1]), Integer.parseInt(term.split(" ")[1]), year);
+        });
+
+        HBox filterRow = new HBox(10, formFilter, termFilter, yearFilter, subjectFilter, studentDropdown,
+                groupReportButton, individualReportButton, closeTermButton, resultSlipsButton,
+                broadsheetButton);
         filterRow.setAlignment(Pos.CENTER);
 
         filterContainer.getChildren().addAll(filterTitle, filterRow);
@@ -98,130 +178,301 @@ public class ExamResultsManagement {
         return filterContainer;
     }
 
+    /**
+     * Offers admission numbers a page at a time: the first page up front, then the
+     * numbers starting at whatever has been typed, instead of loading every student.
+     */
     private void populateStudentDropdown(ComboBox<String> studentDropdown) {
-        List<String[]> students = dbOps.getAllStudents();
-        for (String[] student : students) {
-            studentDropdown.getItems().add(student[0]);
-        }
+        studentDropdown.setEditable(true);
+        studentDropdown.setPromptText("Select Admission Number");
+        lookupStudents(studentDropdown, 0);
+        studentDropdown.getEditor().textProperty().addListener((observable, oldValue, newValue) -> {
+            String typed = newValue.trim();
+            if (typed.isEmpty()) {
+                lookupStudents(studentDropdown, 0);
+            } else if (typed.matches("\\d{1,9}") && !studentDropdown.getItems().contains(typed)) {
+                lookupStudents(studentDropdown, Integer.parseInt(typed) - 1);
+            }
+        });
     }
 
-    private void populateYearDropdown(ComboBox<String> yearDropdown) {
-        List<String> yearsFromDatabase = dbOps.getYearsFromDatabase();
-        yearDropdown.getItems().addAll(yearsFromDatabase);
+    private void lookupStudents(ComboBox<String> studentDropdown, int afterAdmno) {
+        int generation = ++studentLookupGeneration;
+        asyncOps.callAsync(ops -> ops.getStudentsPage(afterAdmno, STUDENT_LOOKUP_SIZE), students -> {
+            if (generation == studentLookupGeneration) {
+                studentDropdown.getItems().setAll(students.stream().map(student -> String.valueOf(student.admno())).toList());
+            }
+        });
     }
 
-    private void generateGroupReport(String form, String term, String year, String subject) {
-        VBox reportContainer = new VBox(20);
-        reportContainer.setAlignment(Pos.TOP_CENTER);
-        reportContainer.setPadding(new Insets(10));
+    private void populateYearDropdown(ComboBox<Integer> yearDropdown) {
+        yearDropdown.setPromptText("Loading years...");
+        asyncOps.callAsync(ResultsRepository::getYearsFromDatabase, yearsFromDatabase -> {
+            Integer selected = yearDropdown.getValue();
+            yearDropdown.getItems().setAll(yearsFromDatabase);
+            yearDropdown.setValue(yearsFromDatabase.contains(selected) ? selected : null);
+            yearDropdown.setPromptText("Select Year");
+        });
+    }
 
-        TableView<String[]> reportTable = createGroupReportTable(form, term, year, subject);
-        BarChart<String, Number> chart = createGroupReportChart(form, term, year, subject);
+    private void populateSubjectDropdown(ComboBox<String> subjectDropdown) {
+        subjectDropdown.setPromptText("Loading subjects...");
+        asyncOps.callAsync(ResultsRepository::getAllSubjectNames, subjects -> {
+            String selected = subjectDropdown.getValue();
+            subjectDropdown.getItems().setAll(subjects);
+            subjectDropdown.setValue(subjects.contains(selected) ? selected : null);
+            subjectDropdown.setPromptText("Select Subject");
+        });
+    }
 
-        reportContainer.getChildren().addAll(new Label("Group Report"), reportTable, chart);
+    private void generateGroupReport(int form, int term, int year, String subject) {
+        VBox reportContainer = createReportContainer();
+        asyncOps.callAsync(ops -> {
+            int subjectId = ops.getSubjectDictionary().find(subject).map(SubjectRow::id).orElse(0);
+            // Every subject of the form in the same pass, to compare this one against
+            Map<String, MarkStatistics> subjectStatistics = MarkStatistics.bySubject(ops, form, term, year);
+            if (subjectStatistics == null) {
+                throw new IllegalStateException("Could not read the results of Form " + form + ", Term " + term + ", " + year);
+            }
+            return ReportSnapshot.forGroup(form, term, year, subject, ops.getGroupResults(form, term, year, subject),
+                    RankingEngine.load(ops, form, term, year), subjectId, subjectStatistics);
+        }, snapshot -> showReport(reportContainer, new Label("Group Report"), snapshot));
+    }
 
-        Button exportButton = new Button("Download PDF");
-        exportButton.setStyle("-fx-font-size: 14px;");
-        exportButton.setOnAction(event -> exportToPDF(reportTable, chart, "Group_Report.pdf"));
-        reportContainer.getChildren().add(exportButton);
+    /**
+     * Runs the {@link TermCloseJob}: stores every student's overall grade, promotion
+     * status and positions, which result slips then show.
+     */
+    private void closeTerm(int form, int term, int year) {
+        String cohort = "Form " + form + ", Term " + term + ", " + year;
+        asyncOps.callAsync(ops -> TermCloseJob.run(ops, form, term, year), summary -> {
+            if (!summary.saved()) {
+                Alert alert = new Alert(Alert.AlertType.ERROR);
+                alert.setTitle("Close Term Failed");
+                alert.setHeaderText(null);
+                alert.setContentText("The results for " + cohort + " could not be saved. Nothing was changed.");
+                alert.showAndWait();
+                return;
+            }
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Term Closed");
+            alert.setHeaderText(null);
+            alert.setContentText(summary.students() == 0
+                    ? "There are no results to close for " + cohort + "."
+                    : "Closed " + cohort + " for " + summary.students() + " student(s): " + summary.promoted()
+                    + " proceed, " + summary.repeating() + " repeat (" + summary.millis() + " ms).");
+            alert.showAndWait();
+        });
+    }
 
-        mainContainer.getChildren().add(reportContainer);
+    /**
+     * Writes every student's result slip for a cohort, as one PDF or a ZIP of PDFs,
+     * showing progress with a Cancel button while the {@link ResultSlipGenerator} runs.
+     */
+    private void generateResultSlips(int form, int term, int year) {
+        ChoiceDialog<String> formatDialog = new ChoiceDialog<>("Single PDF", "Single PDF", "ZIP of PDFs");
+        formatDialog.setTitle("Result Slips");
+        formatDialog.setHeaderText(null);
+        formatDialog.setContentText("Output:");
+        String format = formatDialog.showAndWait().orElse(null);
+        if (format == null) {
+            return;
+        }
+        boolean zip = format.startsWith("ZIP");
+        String fileName = "Result_Slips_Form" + form + "_Term" + term + "_" + year + (zip ? ".zip" : ".pdf");
+
+        ResultSlipGenerator generator = new ResultSlipGenerator(dbOps, form, term, year);
+        ProgressBar progressBar = new ProgressBar(ProgressBar.INDETERMINATE_PROGRESS);
+        progressBar.setPrefWidth(300);
+        Label progressLabel = new Label("Loading results...");
+        Button cancelButton = new Button("Cancel");
+        cancelButton.setOnAction(event -> {
+            generator.cancel();
+            cancelButton.setDisable(true);
+        });
+        VBox progressBox = new VBox(10, new Label("Result Slips - Form " + form + ", Term " + term + ", " + year),
+                progressBar, progressLabel, cancelButton);
+        progressBox.setAlignment(Pos.CENTER);
+        progressBox.setPadding(new Insets(10));
+        mainContainer.getChildren().add(progressBox);
+
+        generator.setProgressListener((done, total) -> Platform.runLater(() -> {
+            progressBar.setProgress((double) done / total);
+            progressLabel.setText(done + " of " + total + " slips");
+        }));
+        asyncOps.callAsync(ops -> {
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(fileName))) {
+                return zip ? generator.writeZip(out) : generator.writeMergedPdf(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, summary -> {
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle(summary.cancelled() ? "Result Slips Cancelled" : "Result Slips Ready");
+            alert.setHeaderText(null);
+            alert.setContentText(summary.cancelled()
+                    ? "Cancelled after " + summary.slips() + " slip(s); " + fileName + " is incomplete."
+                    : "Wrote " + summary.slips() + " slip(s) to " + fileName + " in " + summary.millis() + " ms.");
+            alert.showAndWait();
+        }).whenComplete((ignored, error) -> Platform.runLater(
+                () -> mainContainer.getChildren().remove(progressBox)));
+    }
+
+    /**
+     * Writes every student's marks in every subject for a cohort, or for the whole
+     * year, as a landscape PDF, CSV or Excel file. All formats stream from the results
+     * cursor row by row, so large forms do not have to fit in memory.
+     */
+    private void exportBroadsheet(int form, int term, int year) {
+        String pdf = "PDF";
+        String csv = "CSV";
+        String xlsx = "Excel (XLSX)";
+        String yearCsv = "Whole " + year + " - CSV";
+        String yearXlsx = "Whole " + year + " - Excel (XLSX)";
+        ChoiceDialog<String> formatDialog = new ChoiceDialog<>(pdf, pdf, csv, xlsx, yearCsv, yearXlsx);
+        formatDialog.setTitle("Broadsheet");
+        formatDialog.setHeaderText(null);
+        formatDialog.setContentText("Output:");
+        String choice = formatDialog.showAndWait().orElse(null);
+        if (choice == null) {
+            return;
+        }
+        boolean wholeYear = choice.equals(yearCsv) || choice.equals(yearXlsx);
+        SpreadsheetWriter.Format format = choice.equals(csv) || choice.equals(yearCsv)
+                ? SpreadsheetWriter.Format.CSV : SpreadsheetWriter.Format.XLSX;
+        String baseName = wholeYear ? "Broadsheet_" + year : "Broadsheet_Form" + form + "_Term" + term + "_" + year;
+        String fileName = baseName + (choice.equals(pdf) ? ".pdf" : format.extension());
+
+        asyncOps.callAsync(ops -> {
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(fileName))) {
+                if (choice.equals(pdf)) {
+                    return BroadsheetPdfExporter.write(new Broadsheet(ops, form, term, year), out);
+                }
+                try (SpreadsheetWriter writer = SpreadsheetWriter.open(format, out, baseName)) {
+                    return wholeYear
+                            ? SpreadsheetExporter.writeYear(ops, year, writer)
+                            : SpreadsheetExporter.writeBroadsheet(new Broadsheet(ops, form, term, year), writer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, rows -> {
+            if (rows < 0) {
+                Alert alert = new Alert(Alert.AlertType.ERROR);
+                alert.setTitle("Export Failed");
+                alert.setHeaderText(null);
+                alert.setContentText("The results could not be read; " + fileName + " is incomplete.");
+                alert.showAndWait();
+                return;
+            }
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Export Successful");
+            alert.setHeaderText(null);
+            alert.setContentText("Wrote " + rows + " row(s) to " + fileName);
+            alert.showAndWait();
+        });
     }
 
-    private void generateIndividualReport(String studentAdmNo) {
+    private void generateIndividualReport(int studentAdmNo) {
+        VBox reportContainer = createReportContainer();
+        asyncOps.callAsync(ops -> ReportSnapshot.forStudent(studentAdmNo, ops.getIndividualResults(studentAdmNo)), snapshot -> {
+            Label reportTitle = new Label(snapshot.title());
+            reportTitle.setFont(Font.font("Arial", FontWeight.BOLD, 16));
+            showReport(reportContainer, reportTitle, snapshot);
+        });
+    }
+
+    /**
+     * Adds an empty report area showing a spinner until its snapshot arrives.
+     */
+    private VBox createReportContainer() {
         VBox reportContainer = new VBox(20);
         reportContainer.setAlignment(Pos.TOP_CENTER);
         reportContainer.setPadding(new Insets(10));
+        reportContainer.getChildren().add(new ProgressIndicator());
+        mainContainer.getChildren().add(reportContainer);
+        return reportContainer;
+    }
 
-        Label reportTitle = new Label("Individual Report for Admission No: " + studentAdmNo);
-        reportTitle.setFont(Font.font("Arial", FontWeight.BOLD, 16));
-
-        TableView<String[]> reportTable = createIndividualReportTable(studentAdmNo);
-        BarChart<String, Number> chart = createIndividualReportChart(studentAdmNo);
-
-        reportContainer.getChildren().addAll(reportTitle, reportTable, chart);
+    /**
+     * Renders the table, chart and export button of a report from one snapshot.
+     */
+    private void showReport(VBox reportContainer, Label heading, ReportSnapshot snapshot) {
+        Label summary = new Label(snapshot.summary());
 
         Button exportButton = new Button("Download PDF");
         exportButton.setStyle("-fx-font-size: 14px;");
-        exportButton.setOnAction(event -> exportToPDF(reportTable, chart, "Individual_Report.pdf"));
-        reportContainer.getChildren().add(exportButton);
-
-        mainContainer.getChildren().add(reportContainer);
+        exportButton.setOnAction(event -> exportToPDF(snapshot));
+        Button csvButton = new Button("Download CSV");
+        csvButton.setStyle("-fx-font-size: 14px;");
+        csvButton.setOnAction(event -> exportToSpreadsheet(snapshot, SpreadsheetWriter.Format.CSV));
+        Button xlsxButton = new Button("Download Excel");
+        xlsxButton.setStyle("-fx-font-size: 14px;");
+        xlsxButton.setOnAction(event -> exportToSpreadsheet(snapshot, SpreadsheetWriter.Format.XLSX));
+        HBox exportButtons = new HBox(10, exportButton, csvButton, xlsxButton);
+        exportButtons.setAlignment(Pos.CENTER);
+
+        reportContainer.getChildren().setAll(heading, summary, createReportTable(snapshot), createReportChart(snapshot));
+        if (!snapshot.subjectStatistics().isEmpty()) {
+            Label subjectsHeading = new Label("All Subjects");
+            subjectsHeading.setFont(Font.font("Arial", FontWeight.BOLD, 14));
+            reportContainer.getChildren().addAll(subjectsHeading, createSubjectStatisticsTable(snapshot));
+        }
+        reportContainer.getChildren().add(exportButtons);
     }
 
-    private TableView<String[]> createGroupReportTable(String form, String term, String year, String subject) {
+    /**
+     * One row of statistics per subject of the group report's form, term and year.
+     */
+    private TableView<String[]> createSubjectStatisticsTable(ReportSnapshot snapshot) {
         TableView<String[]> table = new TableView<>();
-
-        TableColumn<String[], String> colStudent = new TableColumn<>("Student");
-        colStudent.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue()[0]));
-
-        TableColumn<String[], String> colMarks = new TableColumn<>("Marks");
-        colMarks.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue()[1]));
-
-        table.getColumns().addAll(colStudent, colMarks);
-
-        List<String[]> data = dbOps.getGroupResults(form, term, year, subject);
-        table.getItems().addAll(data);
-
+        List<String> headers = ReportSnapshot.SUBJECT_STATISTICS_HEADERS;
+        for (int i = 0; i < headers.size(); i++) {
+            int column = i;
+            TableColumn<String[], String> tableColumn = new TableColumn<>(headers.get(i));
+            tableColumn.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue()[column]));
+            table.getColumns().add(tableColumn);
+        }
+        table.getItems().setAll(snapshot.subjectStatisticsRows());
+        table.setPrefHeight(Math.min(10, table.getItems().size() + 1) * 28 + 4);
         return table;
     }
 
-    private BarChart<String, Number> createGroupReportChart(String form, String term, String year, String subject) {
-        CategoryAxis xAxis = new CategoryAxis();
-        xAxis.setLabel("Students");
+    private TableView<ReportSnapshot.Line> createReportTable(ReportSnapshot snapshot) {
+        TableView<ReportSnapshot.Line> table = new TableView<>();
 
-        NumberAxis yAxis = new NumberAxis();
-        yAxis.setLabel("Marks");
+        TableColumn<ReportSnapshot.Line, String> colLabel = new TableColumn<>(snapshot.kind().labelHeader());
+        colLabel.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().label()));
 
-        BarChart<String, Number> barChart = new BarChart<>(xAxis, yAxis);
-        barChart.setTitle("Group Marks");
-
-        XYChart.Series<String, Number> series = new XYChart.Series<>();
-        series.setName("Marks");
+        TableColumn<ReportSnapshot.Line, Number> colMarks = new TableColumn<>("Marks");
+        colMarks.setCellValueFactory(data -> new javafx.beans.property.SimpleIntegerProperty(data.getValue().total()));
 
-        List<String[]> data = dbOps.getGroupResults(form, term, year, subject);
-        for (String[] record : data) {
-            series.getData().add(new XYChart.Data<>(record[0], Integer.parseInt(record[1])));
+        table.getColumns().addAll(colLabel, colMarks);
+        if (snapshot.hasPositions()) {
+            TableColumn<ReportSnapshot.Line, Number> colPosition = new TableColumn<>("Position");
+            colPosition.setCellValueFactory(data -> new javafx.beans.property.SimpleIntegerProperty(data.getValue().position()));
+            table.getColumns().add(colPosition);
         }
-
-        barChart.getData().add(series);
-
-        return barChart;
-    }
-
-    private TableView<String[]> createIndividualReportTable(String studentAdmNo) {
-        TableView<String[]> table = new TableView<>();
-
-        TableColumn<String[], String> colSubject = new TableColumn<>("Subject");
-        colSubject.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue()[0]));
-
-        TableColumn<String[], String> colMarks = new TableColumn<>("Marks");
-        colMarks.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue()[1]));
-
-        table.getColumns().addAll(colSubject, colMarks);
-
-        List<String[]> data = dbOps.getIndividualResults(studentAdmNo);
-        table.getItems().addAll(data);
+        table.setPlaceholder(new Label("No results found"));
+        table.getItems().setAll(snapshot.lines());
 
         return table;
     }
 
-    private BarChart<String, Number> createIndividualReportChart(String studentAdmNo) {
+    private BarChart<String, Number> createReportChart(ReportSnapshot snapshot) {
         CategoryAxis xAxis = new CategoryAxis();
-        xAxis.setLabel("Subjects");
+        xAxis.setLabel(snapshot.kind().axisLabel());
 
         NumberAxis yAxis = new NumberAxis();
         yAxis.setLabel("Marks");
 
         BarChart<String, Number> barChart = new BarChart<>(xAxis, yAxis);
-        barChart.setTitle("Subject Marks");
+        barChart.setTitle(snapshot.kind().chartTitle());
 
         XYChart.Series<String, Number> series = new XYChart.Series<>();
         series.setName("Marks");
-
-        List<String[]> data = dbOps.getIndividualResults(studentAdmNo);
-        for (String[] record : data) {
-            series.getData().add(new XYChart.Data<>(record[0], Integer.parseInt(record[1])));
+        for (ReportSnapshot.Line line : snapshot.lines()) {
+            series.getData().add(new XYChart.Data<>(line.label(), line.total()));
         }
 
         barChart.getData().add(series);
@@ -229,28 +480,66 @@ public class ExamResultsManagement {
         return barChart;
     }
 
-    private void exportToPDF(TableView<String[]> table, BarChart<String, Number> chart, String fileName) {
+    private void exportToPDF(ReportSnapshot snapshot) {
+        String fileName = snapshot.kind().fileName();
         try (PdfWriter writer = new PdfWriter(fileName);
              com.itextpdf.kernel.pdf.PdfDocument pdfDoc = new com.itextpdf.kernel.pdf.PdfDocument(writer);
              Document document = new Document(pdfDoc)) {
 
             // Add title
             document.add(new Paragraph("Report").setBold().setFontSize(20));
+            document.add(new Paragraph(snapshot.title()));
 
             // Add Table
-            Table pdfTable = new Table(UnitValue.createPercentArray(2)).useAllAvailableWidth();
-            pdfTable.addHeaderCell("Student");
+            boolean positions = snapshot.hasPositions();
+            Table pdfTable = new Table(UnitValue.createPercentArray(positions ? 3 : 2)).useAllAvailableWidth();
+            pdfTable.addHeaderCell(snapshot.kind().labelHeader());
             pdfTable.addHeaderCell("Marks");
+            if (positions) {
+                pdfTable.addHeaderCell("Position");
+            }
 
-            for (String[] row : table.getItems()) {
-                pdfTable.addCell(row[0]); // Student
-                pdfTable.addCell(row[1]); // Marks
+            for (ReportSnapshot.Line line : snapshot.lines()) {
+                pdfTable.addCell(line.label()); // Student or subject
+                pdfTable.addCell(String.valueOf(line.total())); // Marks
+                if (positions) {
+                    pdfTable.addCell(line.isRanked() ? String.valueOf(line.position()) : "-");
+                }
             }
 
             document.add(pdfTable);
 
-            // Add Chart Placeholder (charts need to be converted to an image to add to PDF)
-            document.add(new Paragraph("Chart Placeholder").setItalic());
+            // Add Statistics
+            if (!snapshot.isEmpty()) {
+                document.add(new Paragraph("Statistics").setBold().setFontSize(14));
+                Table statisticsTable = new Table(UnitValue.createPercentArray(2)).useAllAvailableWidth();
+                for (String[] row : snapshot.statistics().toRows()) {
+                    statisticsTable.addCell(row[0]);
+                    statisticsTable.addCell(row[1]);
+                }
+                document.add(statisticsTable);
+            }
+
+            // Add every subject of the form, term and year
+            if (!snapshot.subjectStatistics().isEmpty()) {
+                document.add(new Paragraph("All Subjects").setBold().setFontSize(14));
+                Table subjectsTable = new Table(UnitValue.createPercentArray(ReportSnapshot.SUBJECT_STATISTICS_HEADERS.size()))
+                        .useAllAvailableWidth();
+                for (String header : ReportSnapshot.SUBJECT_STATISTICS_HEADERS) {
+                    subjectsTable.addHeaderCell(header);
+                }
+                for (String[] row : snapshot.subjectStatisticsRows()) {
+                    for (String cell : row) {
+                        subjectsTable.addCell(cell);
+                    }
+                }
+                document.add(subjectsTable);
+            }
+
+            // Add Chart, drawn off-screen rather than from the live BarChart node
+            if (!snapshot.isEmpty()) {
+                document.add(new ChartRenderer().forDocument().image(snapshot.chartSpec()));
+            }
 
             // Confirmation
             Alert alert = new Alert(Alert.AlertType.INFORMATION);
@@ -276,4 +565,34 @@ public class ExamResultsManagement {
         }
     }
 
+    private void exportToSpreadsheet(ReportSnapshot snapshot, SpreadsheetWriter.Format format) {
+        String pdfName = snapshot.kind().fileName();
+        String fileName = pdfName.substring(0, pdfName.lastIndexOf('.')) + format.extension();
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(fileName));
+             SpreadsheetWriter writer = SpreadsheetWriter.open(format, out, snapshot.kind().chartTitle())) {
+            SpreadsheetExporter.writeReport(snapshot, writer);
+        } catch (IOException e) {
+            e.printStackTrace();
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setTitle("Export Failed");
+            alert.setHeaderText(null);
+            alert.setContentText("Could not write to file: " + fileName);
+            alert.showAndWait();
+            return;
+        }
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("Export Successful");
+        alert.setHeaderText(null);
+        alert.setContentText("Exported successfully to: " + fileName);
+        alert.showAndWait();
+    }
+
+    private void showAlert(String title, String content) {
+        Alert alert = new Alert(Alert.AlertType.WARNING);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(content);
+        alert.showAndWait();
+    }
+
 }
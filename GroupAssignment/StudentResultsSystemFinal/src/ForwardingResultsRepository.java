@@ -0,0 +1,263 @@
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A {@link ResultsRepository} that passes every call to another one.
+ * Decorators extend it and override only the methods they change.
+ */
+public abstract class ForwardingResultsRepository implements ResultsRepository {
+
+    protected final ResultsRepository delegate;
+
+    protected ForwardingResultsRepository(ResultsRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    // -----------------------------------------
+    // Students
+    // -----------------------------------------
+
+    @Override
+    public StudentRow addStudent(String name, String gender, int form, int term, int year) {
+        return delegate.addStudent(name, gender, form, term, year);
+    }
+
+    @Override
+    public List<Integer> addStudents(List<StudentRow> students) {
+        return delegate.addStudents(students);
+    }
+
+    @Override
+    public List<StudentRow> getAllStudents() {
+        return delegate.getAllStudents();
+    }
+
+    @Override
+    public List<StudentRow> getStudentsPage(int afterAdmno, int limit) {
+        return delegate.getStudentsPage(afterAdmno, limit);
+    }
+
+    @Override
+    public List<StudentRow> getStudentsSorted(StudentSort sort, boolean descending, StudentRow after, int skip, int limit) {
+        return delegate.getStudentsSorted(sort, descending, after, skip, limit);
+    }
+
+    @Override
+    public int countStudents() {
+        return delegate.countStudents();
+    }
+
+    @Override
+    public int streamStudents(Consumer<StudentRow> consumer) {
+        return delegate.streamStudents(consumer);
+    }
+
+    @Override
+    public boolean deleteStudent(int admno) {
+        return delegate.deleteStudent(admno);
+    }
+
+    @Override
+    public String getStudentNameByAdmNo(int admno) {
+        return delegate.getStudentNameByAdmNo(admno);
+    }
+
+    @Override
+    public List<StudentRow> searchStudentsByName(String query) {
+        return delegate.searchStudentsByName(query);
+    }
+
+    @Override
+    public List<StudentRow> getStudentsByFormAndTerm(int form, int term) {
+        return delegate.getStudentsByFormAndTerm(form, term);
+    }
+
+    @Override
+    public List<Integer> getStudentYears(int form, int term) {
+        return delegate.getStudentYears(form, term);
+    }
+
+    // -----------------------------------------
+    // Teachers
+    // -----------------------------------------
+
+    @Override
+    public TeacherRow addTeacher(String name, String staffNumber, String idPassport) {
+        return delegate.addTeacher(name, staffNumber, idPassport);
+    }
+
+    @Override
+    public List<TeacherRow> getAllTeachers() {
+        return delegate.getAllTeachers();
+    }
+
+    @Override
+    public boolean deleteTeacher(String staffNumber) {
+        return delegate.deleteTeacher(staffNumber);
+    }
+
+    @Override
+    public boolean addTeacherSubject(String teacherId, String subject, int form, int term) {
+        return delegate.addTeacherSubject(teacherId, subject, form, term);
+    }
+
+    @Override
+    public List<TeacherSubjectRow> getTeacherSubjects(String teacherId) {
+        return delegate.getTeacherSubjects(teacherId);
+    }
+
+    @Override
+    public List<String> getSubjectsForTeacher(String teacherId) {
+        return delegate.getSubjectsForTeacher(teacherId);
+    }
+
+    @Override
+    public boolean deleteTeacherSubject(int id) {
+        return delegate.deleteTeacherSubject(id);
+    }
+
+    // -----------------------------------------
+    // Subjects
+    // -----------------------------------------
+
+    @Override
+    public List<String> getAllSubjectNames() {
+        return delegate.getAllSubjectNames();
+    }
+
+    @Override
+    public List<SubjectRow> getAllSubjects() {
+        return delegate.getAllSubjects();
+    }
+
+    @Override
+    public List<SubjectRow> searchSubjectsByName(String query) {
+        return delegate.searchSubjectsByName(query);
+    }
+
+    @Override
+    public SubjectRow addSubject(String name, String code, String description) {
+        return delegate.addSubject(name, code, description);
+    }
+
+    @Override
+    public void updateSubject(int id, String name, String code, String description) {
+        delegate.updateSubject(id, name, code, description);
+    }
+
+    @Override
+    public SubjectDictionary getSubjectDictionary() {
+        return delegate.getSubjectDictionary();
+    }
+
+    @Override
+    public boolean deleteSubject(int id) {
+        return delegate.deleteSubject(id);
+    }
+
+    // -----------------------------------------
+    // Results
+    // -----------------------------------------
+
+    @Override
+    public List<ResultRow> getIndividualResults(int admno) {
+        return delegate.getIndividualResults(admno);
+    }
+
+    @Override
+    public List<GroupResultRow> getGroupResults(int form, int term, int year, String subject) {
+        return delegate.getGroupResults(form, term, year, subject);
+    }
+
+    @Override
+    public List<CohortResultRow> getResultsPage(int form, int term, int year, int afterAdmno, int afterSubjectId, int limit) {
+        return delegate.getResultsPage(form, term, year, afterAdmno, afterSubjectId, limit);
+    }
+
+    @Override
+    public int streamResults(int form, int term, int year, Consumer<CohortResultRow> consumer) {
+        return delegate.streamResults(form, term, year, consumer);
+    }
+
+    @Override
+    public List<ResultRow> getResultsForStudent(int admno, int form, int term, int year) {
+        return delegate.getResultsForStudent(admno, form, term, year);
+    }
+
+    @Override
+    public Integer getNewestResultYear(int admno, int form, int term) {
+        return delegate.getNewestResultYear(admno, form, term);
+    }
+
+    @Override
+    public List<StudentRow> getStudentsForSubject(int subjectId, int term) {
+        return delegate.getStudentsForSubject(subjectId, term);
+    }
+
+    @Override
+    public List<MarkRow> getMarksForSubject(int subjectId, int form, int term, int year) {
+        return delegate.getMarksForSubject(subjectId, form, term, year);
+    }
+
+    @Override
+    public boolean saveMarks(List<MarkRow> marks) {
+        return delegate.saveMarks(marks);
+    }
+
+    @Override
+    public List<Integer> getYearsFromDatabase() {
+        return delegate.getYearsFromDatabase();
+    }
+
+    // -----------------------------------------
+    // Rankings
+    // -----------------------------------------
+
+    @Override
+    public boolean saveRankings(int form, int term, int year, List<RankRow> rankings) {
+        return delegate.saveRankings(form, term, year, rankings);
+    }
+
+    @Override
+    public List<RankRow> getRankings(int form, int term, int year) {
+        return delegate.getRankings(form, term, year);
+    }
+
+    @Override
+    public List<RankRow> getStudentRankings(int admno, int form, int term, int year) {
+        return delegate.getStudentRankings(admno, form, term, year);
+    }
+
+    // -----------------------------------------
+    // Term outcomes
+    // -----------------------------------------
+
+    @Override
+    public boolean saveTermOutcomes(int form, int term, int year, List<TermOutcome> outcomes) {
+        return delegate.saveTermOutcomes(form, term, year, outcomes);
+    }
+
+    @Override
+    public TermOutcome getTermOutcome(int admno, int form, int term, int year) {
+        return delegate.getTermOutcome(admno, form, term, year);
+    }
+
+    @Override
+    public List<TermOutcome> getTermOutcomes(int form, int term, int year) {
+        return delegate.getTermOutcomes(form, term, year);
+    }
+
+    // -----------------------------------------
+    // Term aggregates
+    // -----------------------------------------
+
+    @Override
+    public List<TermAggregate> getTermAggregates(int form, int term, int year) {
+        return delegate.getTermAggregates(form, term, year);
+    }
+
+    @Override
+    public TermAggregate getTermAggregate(int admno, int form, int term, int year) {
+        return delegate.getTermAggregate(admno, form, term, year);
+    }
+}
@@ -0,0 +1,43 @@
+import java.util.List;
+
+/**
+ * Grade boundaries shared by the dashboards and reports.
+ */
+public final class Grading {
+
+    /**
+     * Letter grades from best to worst.
+     */
+    public static final List<String> GRADES = List.of("A", "B", "C", "D", "E", "F");
+
+    /**
+     * Lowest mark that is not an F.
+     */
+    public static final int PASS_MARK = 40;
+
+    // Promotion decisions recorded when a term is closed
+    public static final String PROCEED = "Proceed to Next Term";
+    public static final String REPEAT = "Repeat Current Term";
+
+    private Grading() {
+    }
+
+    /**
+     * Returns the letter grade for a mark or average out of 100.
+     */
+    public static String gradeFor(int score) {
+        if (score >= 80) return "A";
+        if (score >= 70) return "B";
+        if (score >= 60) return "C";
+        if (score >= 50) return "D";
+        if (score >= PASS_MARK) return "E";
+        return "F";
+    }
+
+    /**
+     * Returns the promotion decision for an overall grade: an F repeats the term.
+     */
+    public static String promotionFor(String overallGrade) {
+        return "F".equals(overallGrade) ? REPEAT : PROCEED;
+    }
+}
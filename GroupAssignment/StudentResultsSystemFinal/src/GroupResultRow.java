@@ -0,0 +1,5 @@
+/**
+ * One student's mark in a group (form/term/year/subject) report.
+ */
+public record GroupResultRow(int admno, String studentName, int total) {
+}
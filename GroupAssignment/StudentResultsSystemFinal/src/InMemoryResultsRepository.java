@@ -0,0 +1,598 @@
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * {@link ResultsRepository} kept entirely in Java collections. Nothing is persisted;
+ * it exists for unit tests, demos and measuring the UI without any database cost.
+ *
+ * Behaves like the SQL implementations: ids are assigned from 1 upwards, deleting a
+ * student or subject removes its results, and results are unique per
+ * (admno, form, term, year, subjectId). Every method holds the repository lock, so
+ * callers from the background workers see consistent data.
+ */
+public class InMemoryResultsRepository implements ResultsRepository {
+
+    private final TreeMap<Integer, StoredStudent> students = new TreeMap<>();
+    private final Map<String, TeacherRow> teachers = new LinkedHashMap<>();
+    private final Map<Integer, SubjectRow> subjects = new TreeMap<>();
+    private final Map<Integer, StoredAssignment> teacherSubjects = new TreeMap<>();
+    // Ordered like uk_results_entry
+    private final TreeMap<ResultKey, MarkRow> results = new TreeMap<>();
+    // Each cohort's positions, ordered like getRankings returns them
+    private final Map<CohortKey, List<RankRow>> rankings = new LinkedHashMap<>();
+    private final Map<CohortKey, Map<Integer, TermOutcome>> termOutcomes = new LinkedHashMap<>();
+    // Each cohort's per-student totals by admno, adjusted by every results write
+    private final Map<CohortKey, TreeMap<Integer, TermAggregate>> aggregates = new LinkedHashMap<>();
+
+    private int nextAdmno = 1;
+    private int nextSubjectId = 1;
+    private int nextTeacherSubjectId = 1;
+
+    /**
+     * A student row plus the columns only written by saveTermOutcomes.
+     */
+    private static class StoredStudent {
+        final StudentRow row;
+        String overallGrade;
+        String promotionStatus;
+
+        StoredStudent(StudentRow row) {
+            this.row = row;
+        }
+    }
+
+    private record StoredAssignment(String teacherId, TeacherSubjectRow row) {
+    }
+
+    private record ResultKey(int admno, int form, int term, int year, int subjectId) implements Comparable<ResultKey> {
+        private static final Comparator<ResultKey> ORDER = Comparator.comparingInt(ResultKey::admno)
+                .thenComparingInt(ResultKey::form)
+                .thenComparingInt(ResultKey::term)
+                .thenComparingInt(ResultKey::year)
+                .thenComparingInt(ResultKey::subjectId);
+
+        @Override
+        public int compareTo(ResultKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private record CohortKey(int form, int term, int year) {
+    }
+
+    private static final Comparator<RankRow> RANKING_ORDER = Comparator.comparingInt(RankRow::subjectId)
+            .thenComparingInt(RankRow::position)
+            .thenComparingInt(RankRow::admno);
+
+    /**
+     * Adds {@code markDelta} and {@code countDelta} to a student's term totals,
+     * dropping them once no results remain.
+     */
+    private void adjustAggregate(int admno, int form, int term, int year, int markDelta, int countDelta) {
+        TreeMap<Integer, TermAggregate> cohort = aggregates.computeIfAbsent(new CohortKey(form, term, year), key -> new TreeMap<>());
+        TermAggregate current = cohort.getOrDefault(admno, new TermAggregate(admno, form, term, year, 0, 0));
+        TermAggregate updated = new TermAggregate(admno, form, term, year,
+                current.markSum() + markDelta, current.subjectCount() + countDelta);
+        if (updated.subjectCount() <= 0) {
+            cohort.remove(admno);
+        } else {
+            cohort.put(admno, updated);
+        }
+    }
+
+    private static boolean containsIgnoreCase(String value, String query) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(query.toLowerCase(Locale.ROOT));
+    }
+
+    private String subjectName(int subjectId) {
+        SubjectRow subject = subjects.get(subjectId);
+        return subject == null ? null : subject.name();
+    }
+
+    private String studentName(int admno) {
+        StoredStudent student = students.get(admno);
+        return student == null ? null : student.row.name();
+    }
+
+    // -----------------------------------------
+    // Students
+    // -----------------------------------------
+
+    @Override
+    public synchronized StudentRow addStudent(String name, String gender, int form, int term, int year) {
+        List<Integer> admissionNumbers = addStudents(List.of(new StudentRow(0, name, gender, form, term, year)));
+        return admissionNumbers.isEmpty() ? null : students.get(admissionNumbers.get(0)).row;
+    }
+
+    @Override
+    public synchronized List<Integer> addStudents(List<StudentRow> rows) {
+        for (StudentRow row : rows) {
+            if (row.name() == null || row.gender() == null) {
+                return new ArrayList<>();
+            }
+        }
+        List<Integer> admissionNumbers = new ArrayList<>(rows.size());
+        for (StudentRow row : rows) {
+            int admno = nextAdmno++;
+            students.put(admno, new StoredStudent(
+                    new StudentRow(admno, row.name(), row.gender(), row.form(), row.term(), row.year())));
+            admissionNumbers.add(admno);
+        }
+        return admissionNumbers;
+    }
+
+    @Override
+    public synchronized List<StudentRow> getAllStudents() {
+        List<StudentRow> rows = new ArrayList<>(students.size());
+        for (StoredStudent student : students.values()) {
+            rows.add(student.row);
+        }
+        return rows;
+    }
+
+    @Override
+    public synchronized List<StudentRow> getStudentsPage(int afterAdmno, int limit) {
+        List<StudentRow> rows = new ArrayList<>(limit);
+        for (StoredStudent student : students.tailMap(afterAdmno, false).values()) {
+            if (rows.size() == limit) {
+                break;
+            }
+            rows.add(student.row);
+        }
+        return rows;
+    }
+
+    @Override
+    public synchronized List<StudentRow> getStudentsSorted(StudentSort sort, boolean descending, StudentRow after,
+                                                           int skip, int limit) {
+        Comparator<StudentRow> order = sort.comparator(descending);
+        List<StudentRow> rows = new ArrayList<>();
+        for (StoredStudent student : students.values()) {
+            if (after == null || order.compare(student.row, after) > 0) {
+                rows.add(student.row);
+            }
+        }
+        rows.sort(order);
+        int from = Math.min(skip, rows.size());
+        return new ArrayList<>(rows.subList(from, Math.min(rows.size(), from + limit)));
+    }
+
+    @Override
+    public synchronized int countStudents() {
+        return students.size();
+    }
+
+    @Override
+    public synchronized int streamStudents(Consumer<StudentRow> consumer) {
+        int count = 0;
+        for (StoredStudent student : students.values()) {
+            consumer.accept(student.row);
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public synchronized boolean deleteStudent(int admno) {
+        if (students.remove(admno) == null) {
+            return false;
+        }
+        results.keySet().removeIf(key -> key.admno() == admno);
+        rankings.values().forEach(rows -> rows.removeIf(row -> row.admno() == admno));
+        termOutcomes.values().forEach(outcomes -> outcomes.remove(admno));
+        aggregates.values().forEach(cohort -> cohort.remove(admno));
+        return true;
+    }
+
+    @Override
+    public synchronized String getStudentNameByAdmNo(int admno) {
+        return studentName(admno);
+    }
+
+    @Override
+    public synchronized List<StudentRow> searchStudentsByName(String query) {
+        List<StudentRow> rows = new ArrayList<>();
+        for (StoredStudent student : students.values()) {
+            if (containsIgnoreCase(student.row.name(), query)) {
+                rows.add(student.row);
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    public synchronized List<StudentRow> getStudentsByFormAndTerm(int form, int term) {
+        List<StudentRow> rows = new ArrayList<>();
+        for (StoredStudent student : students.values()) {
+            if (student.row.form() == form && student.row.term() == term) {
+                rows.add(student.row);
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    public synchronized List<Integer> getStudentYears(int form, int term) {
+        TreeSet<Integer> years = new TreeSet<>();
+        for (StoredStudent student : students.values()) {
+            if (student.row.form() == form && student.row.term() == term) {
+                years.add(student.row.year());
+            }
+        }
+        return new ArrayList<>(years);
+    }
+
+    // -----------------------------------------
+    // Teachers
+    // -----------------------------------------
+
+    @Override
+    public synchronized TeacherRow addTeacher(String name, String staffNumber, String idPassport) {
+        if (staffNumber == null || name == null || idPassport == null || teachers.containsKey(staffNumber)) {
+            return null;
+        }
+        TeacherRow teacher = new TeacherRow(staffNumber, name, idPassport);
+        teachers.put(staffNumber, teacher);
+        return teacher;
+    }
+
+    @Override
+    public synchronized List<TeacherRow> getAllTeachers() {
+        return new ArrayList<>(teachers.values());
+    }
+
+    @Override
+    public synchronized boolean deleteTeacher(String staffNumber) {
+        return teachers.remove(staffNumber) != null;
+    }
+
+    @Override
+    public synchronized boolean addTeacherSubject(String teacherId, String subject, int form, int term) {
+        if (teacherId == null || subject == null) {
+            return false;
+        }
+        int id = nextTeacherSubjectId++;
+        teacherSubjects.put(id, new StoredAssignment(teacherId, new TeacherSubjectRow(id, subject, form, term)));
+        return true;
+    }
+
+    @Override
+    public synchronized List<TeacherSubjectRow> getTeacherSubjects(String teacherId) {
+        List<TeacherSubjectRow> rows = new ArrayList<>();
+        for (StoredAssignment assignment : teacherSubjects.values()) {
+            if (assignment.teacherId().equals(teacherId)) {
+                rows.add(assignment.row());
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    public synchronized List<String> getSubjectsForTeacher(String teacherId) {
+        List<String> names = new ArrayList<>();
+        for (TeacherSubjectRow row : getTeacherSubjects(teacherId)) {
+            names.add(row.subject());
+        }
+        return names;
+    }
+
+    @Override
+    public synchronized boolean deleteTeacherSubject(int id) {
+        teacherSubjects.remove(id);
+        return true;
+    }
+
+    // -----------------------------------------
+    // Subjects
+    // -----------------------------------------
+
+    @Override
+    public synchronized List<String> getAllSubjectNames() {
+        List<String> names = new ArrayList<>(subjects.size());
+        for (SubjectRow subject : subjects.values()) {
+            names.add(subject.name());
+        }
+        return names;
+    }
+
+    @Override
+    public synchronized List<SubjectRow> getAllSubjects() {
+        return new ArrayList<>(subjects.values());
+    }
+
+    @Override
+    public synchronized List<SubjectRow> searchSubjectsByName(String query) {
+        List<SubjectRow> rows = new ArrayList<>();
+        for (SubjectRow subject : subjects.values()) {
+            if (containsIgnoreCase(subject.name(), query)) {
+                rows.add(subject);
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    public synchronized SubjectRow addSubject(String name, String code, String description) {
+        if (name == null || isCodeTaken(code, 0)) {
+            return null;
+        }
+        int id = nextSubjectId++;
+        SubjectRow subject = new SubjectRow(id, name, code, description);
+        subjects.put(id, subject);
+        return subject;
+    }
+
+    @Override
+    public synchronized void updateSubject(int id, String name, String code, String description) {
+        if (name != null && subjects.containsKey(id) && !isCodeTaken(code, id)) {
+            subjects.put(id, new SubjectRow(id, name, code, description));
+        }
+    }
+
+    // Mirrors uk_subjects_code: codes are unique, NULLs are not compared
+    private boolean isCodeTaken(String code, int exceptId) {
+        if (code == null) {
+            return false;
+        }
+        for (SubjectRow subject : subjects.values()) {
+            if (subject.id() != exceptId && code.equalsIgnoreCase(subject.code())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized boolean deleteSubject(int id) {
+        if (subjects.remove(id) == null) {
+            return false;
+        }
+        results.entrySet().removeIf(entry -> {
+            ResultKey key = entry.getKey();
+            if (key.subjectId() != id) {
+                return false;
+            }
+            adjustAggregate(key.admno(), key.form(), key.term(), key.year(), -entry.getValue().total(), -1);
+            // As in saveMarks, the cohort's positions and outcomes are now stale
+            rankings.remove(new CohortKey(key.form(), key.term(), key.year()));
+            termOutcomes.remove(new CohortKey(key.form(), key.term(), key.year()));
+            return true;
+        });
+        rankings.values().forEach(rows -> rows.removeIf(row -> row.subjectId() == id));
+        return true;
+    }
+
+    // -----------------------------------------
+    // Results
+    // -----------------------------------------
+
+    @Override
+    public synchronized List<ResultRow> getIndividualResults(int admno) {
+        List<ResultRow> rows = new ArrayList<>();
+        for (MarkRow mark : results.values()) {
+            if (mark.admno() == admno) {
+                rows.add(new ResultRow(subjectName(mark.subjectId()), mark.total(), mark.grade()));
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    public synchronized List<GroupResultRow> getGroupResults(int form, int term, int year, String subject) {
+        List<GroupResultRow> rows = new ArrayList<>();
+        for (MarkRow mark : results.values()) {
+            if (mark.form() == form && mark.term() == term && mark.year() == year
+                    && subject != null && subject.equals(subjectName(mark.subjectId()))) {
+                rows.add(new GroupResultRow(mark.admno(), studentName(mark.admno()), mark.total()));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Results of one cohort in (admno, subjectId) order, the order the SQL implementations page in.
+     */
+    private List<CohortResultRow> cohort(int form, int term, int year, int afterAdmno, int afterSubjectId, int limit) {
+        List<CohortResultRow> rows = new ArrayList<>();
+        for (MarkRow mark : results.values()) {
+            if (mark.form() != form || mark.term() != term || mark.year() != year) {
+                continue;
+            }
+            if (mark.admno() < afterAdmno || (mark.admno() == afterAdmno && mark.subjectId() <= afterSubjectId)) {
+                continue;
+            }
+            rows.add(new CohortResultRow(mark.admno(), studentName(mark.admno()), mark.subjectId(),
+                    subjectName(mark.subjectId()), mark.total(), mark.grade()));
+        }
+        // Within one cohort the key order is already (admno, subjectId); sorting keeps that explicit
+        rows.sort(Comparator.comparingInt(CohortResultRow::admno).thenComparingInt(CohortResultRow::subjectId));
+        return rows.size() > limit ? new ArrayList<>(rows.subList(0, limit)) : rows;
+    }
+
+    @Override
+    public synchronized List<CohortResultRow> getResultsPage(int form, int term, int year, int afterAdmno, int afterSubjectId, int limit) {
+        return cohort(form, term, year, afterAdmno, afterSubjectId, limit);
+    }
+
+    @Override
+    public synchronized int streamResults(int form, int term, int year, Consumer<CohortResultRow> consumer) {
+        List<CohortResultRow> rows = cohort(form, term, year, 0, 0, Integer.MAX_VALUE);
+        rows.forEach(consumer);
+        return rows.size();
+    }
+
+    @Override
+    public synchronized List<ResultRow> getResultsForStudent(int admno, int form, int term, int year) {
+        List<ResultRow> rows = new ArrayList<>();
+        for (MarkRow mark : results.values()) {
+            if (mark.admno() == admno && mark.form() == form && mark.term() == term && mark.year() == year) {
+                rows.add(new ResultRow(subjectName(mark.subjectId()), mark.total(), mark.grade()));
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    public synchronized Integer getNewestResultYear(int admno, int form, int term) {
+        Integer newest = null;
+        for (ResultKey key : results.keySet()) {
+            if (key.admno() == admno && key.form() == form && key.term() == term
+                    && (newest == null || key.year() > newest)) {
+                newest = key.year();
+            }
+        }
+        return newest;
+    }
+
+    @Override
+    public synchronized List<StudentRow> getStudentsForSubject(int subjectId, int term) {
+        List<StudentRow> rows = new ArrayList<>();
+        for (MarkRow mark : results.values()) {
+            if (mark.subjectId() == subjectId && mark.term() == term) {
+                rows.add(students.get(mark.admno()).row);
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    public synchronized List<MarkRow> getMarksForSubject(int subjectId, int form, int term, int year) {
+        List<MarkRow> rows = new ArrayList<>();
+        for (StoredStudent student : students.values()) {
+            StudentRow row = student.row;
+            if (row.form() != form || row.term() != term || row.year() != year) {
+                continue;
+            }
+            MarkRow mark = results.get(new ResultKey(row.admno(), form, term, year, subjectId));
+            rows.add(mark != null ? mark : new MarkRow(row.admno(), row.name(), subjectId, form, term, year, 0, 0, 0, 0, 0));
+        }
+        return rows;
+    }
+
+    /**
+     * Upserts every row, or none of them if any refers to an unknown student or subject.
+     */
+    @Override
+    public synchronized boolean saveMarks(List<MarkRow> marks) {
+        for (MarkRow mark : marks) {
+            if (!students.containsKey(mark.admno()) || !subjects.containsKey(mark.subjectId())) {
+                return false;
+            }
+        }
+        for (MarkRow mark : marks) {
+            ResultKey key = new ResultKey(mark.admno(), mark.form(), mark.term(), mark.year(), mark.subjectId());
+            MarkRow previous = results.put(key, new MarkRow(mark.admno(), studentName(mark.admno()), mark.subjectId(),
+                    mark.form(), mark.term(), mark.year(),
+                    mark.cat1(), mark.cat2(), mark.cat3(), mark.cat4(), mark.exam()));
+            adjustAggregate(mark.admno(), mark.form(), mark.term(), mark.year(),
+                    mark.total() - (previous == null ? 0 : previous.total()), previous == null ? 1 : 0);
+            rankings.remove(new CohortKey(mark.form(), mark.term(), mark.year()));
+            termOutcomes.remove(new CohortKey(mark.form(), mark.term(), mark.year()));
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized List<Integer> getYearsFromDatabase() {
+        int currentYear = Year.now().getValue();
+        TreeSet<Integer> years = new TreeSet<>();
+        for (ResultKey key : results.keySet()) {
+            if (key.year() <= currentYear) {
+                years.add(key.year());
+            }
+        }
+        return new ArrayList<>(years);
+    }
+
+    // -----------------------------------------
+    // Rankings
+    // -----------------------------------------
+
+    @Override
+    public synchronized boolean saveRankings(int form, int term, int year, List<RankRow> rows) {
+        for (RankRow row : rows) {
+            if (!students.containsKey(row.admno())) {
+                return false;
+            }
+        }
+        List<RankRow> stored = new ArrayList<>(rows.size());
+        for (RankRow row : rows) {
+            stored.add(new RankRow(form, term, year, row.subjectId(), row.admno(), row.score(), row.position(), row.outOf()));
+        }
+        stored.sort(RANKING_ORDER);
+        rankings.put(new CohortKey(form, term, year), stored);
+        return true;
+    }
+
+    @Override
+    public synchronized List<RankRow> getRankings(int form, int term, int year) {
+        return new ArrayList<>(rankings.getOrDefault(new CohortKey(form, term, year), List.of()));
+    }
+
+    @Override
+    public synchronized List<RankRow> getStudentRankings(int admno, int form, int term, int year) {
+        List<RankRow> rows = new ArrayList<>();
+        for (RankRow row : rankings.getOrDefault(new CohortKey(form, term, year), List.of())) {
+            if (row.admno() == admno) {
+                rows.add(row);
+            }
+        }
+        rows.sort(Comparator.comparingInt(RankRow::subjectId));
+        return rows;
+    }
+
+    // -----------------------------------------
+    // Term outcomes
+    // -----------------------------------------
+
+    @Override
+    public synchronized boolean saveTermOutcomes(int form, int term, int year, List<TermOutcome> outcomes) {
+        for (TermOutcome outcome : outcomes) {
+            if (!students.containsKey(outcome.admno())) {
+                return false;
+            }
+        }
+        Map<Integer, TermOutcome> stored = new TreeMap<>();
+        for (TermOutcome outcome : outcomes) {
+            stored.put(outcome.admno(), new TermOutcome(outcome.admno(), form, term, year, outcome.subjectCount(),
+                    outcome.totalMarks(), outcome.average(), outcome.overallGrade(), outcome.promotionStatus()));
+            StoredStudent student = students.get(outcome.admno());
+            student.overallGrade = outcome.overallGrade();
+            student.promotionStatus = outcome.promotionStatus();
+        }
+        termOutcomes.put(new CohortKey(form, term, year), stored);
+        return true;
+    }
+
+    @Override
+    public synchronized TermOutcome getTermOutcome(int admno, int form, int term, int year) {
+        return termOutcomes.getOrDefault(new CohortKey(form, term, year), Map.of()).get(admno);
+    }
+
+    @Override
+    public synchronized List<TermOutcome> getTermOutcomes(int form, int term, int year) {
+        return new ArrayList<>(termOutcomes.getOrDefault(new CohortKey(form, term, year), Map.of()).values());
+    }
+
+    // -----------------------------------------
+    // Term aggregates
+    // -----------------------------------------
+
+    @Override
+    public synchronized List<TermAggregate> getTermAggregates(int form, int term, int year) {
+        return new ArrayList<>(aggregates.getOrDefault(new CohortKey(form, term, year), new TreeMap<>()).values());
+    }
+
+    @Override
+    public synchronized TermAggregate getTermAggregate(int admno, int form, int term, int year) {
+        return aggregates.getOrDefault(new CohortKey(form, term, year), new TreeMap<>()).get(admno);
+    }
+}
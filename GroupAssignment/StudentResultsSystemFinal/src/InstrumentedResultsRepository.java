@@ -0,0 +1,106 @@
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+
+/**
+ * Wraps a {@link ResultsRepository} so every call is timed and recorded in
+ * {@link QueryMetrics}, logged when slower than the slow-query threshold, and
+ * emitted as a {@link RepositoryCallEvent} for Flight Recorder.
+ *
+ * Method arguments are the statement's bind parameters, so they are what the
+ * slow-query log prints. For the stream* methods the time includes the consumer.
+ */
+public final class InstrumentedResultsRepository implements InvocationHandler {
+
+    private final ResultsRepository target;
+    private final QueryMetrics metrics;
+
+    private InstrumentedResultsRepository(ResultsRepository target, QueryMetrics metrics) {
+        this.target = target;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns a repository that delegates to {@code target} and records every call in {@code metrics}.
+     */
+    public static ResultsRepository wrap(ResultsRepository target, QueryMetrics metrics) {
+        return (ResultsRepository) Proxy.newProxyInstance(ResultsRepository.class.getClassLoader(),
+                new Class<?>[]{ResultsRepository.class}, new InstrumentedResultsRepository(target, metrics));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return method.invoke(target, args);
+        }
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        event.begin();
+        QueryMetrics.beginCall();
+        long start = System.nanoTime();
+        Object result = null;
+        boolean failed = true;
+        try {
+            result = method.invoke(target, args);
+            failed = QueryMetrics.callFailed();
+            return result;
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        } finally {
+            long elapsedNanos = System.nanoTime() - start;
+            int rows = rowCount(method, result);
+            metrics.record(method.getName(), elapsedNanos, rows, failed);
+
+            long elapsedMillis = elapsedNanos / 1_000_000;
+            if (elapsedMillis >= metrics.getSlowQueryThresholdMillis()) {
+                System.err.printf("Slow query: %s(%s) took %d ms, %d rows%s%n", method.getName(),
+                        describeArguments(args), elapsedMillis, rows, failed ? ", failed" : "");
+            }
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = method.getName();
+                event.arguments = describeArguments(args);
+                event.rows = rows;
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    private static int rowCount(Method method, Object result) {
+        if (result instanceof Collection<?> rows) {
+            return rows.size();
+        }
+        // stream* methods return how many rows they passed to the consumer
+        if (result instanceof Integer count && method.getName().startsWith("stream")) {
+            return Math.max(count, 0);
+        }
+        return result instanceof String ? 1 : 0;
+    }
+
+    /**
+     * Formats the call's arguments, showing collections by their size and callbacks as &lt;consumer&gt;.
+     */
+    private static String describeArguments(Object[] args) {
+        if (args == null) {
+            return "";
+        }
+        StringJoiner joiner = new StringJoiner(", ");
+        for (Object arg : args) {
+            if (arg instanceof Collection<?> collection) {
+                joiner.add("[" + collection.size() + " rows]");
+            } else if (arg instanceof String text) {
+                joiner.add("'" + text + "'");
+            } else if (arg instanceof Consumer<?>) {
+                joiner.add("<consumer>");
+            } else {
+                joiner.add(String.valueOf(arg));
+            }
+        }
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,18 @@
+import javafx.scene.Parent;
+
+/**
+ * A screen of the exam officer dashboard. It is built once and kept for the session,
+ * and reloads its data in place when asked.
+ */
+public interface ManagementView {
+
+    /**
+     * Builds the screen and starts loading its data. Called once.
+     */
+    Parent getView();
+
+    /**
+     * Reloads the data shown without rebuilding the screen, e.g. after another screen changed it.
+     */
+    void refresh();
+}
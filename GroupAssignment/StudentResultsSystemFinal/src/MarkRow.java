@@ -0,0 +1,15 @@
+/**
+ * A student's CAT and exam marks in one subject for a given form, term and year.
+ * (admno, subjectId, form, term, year) identifies the row in the results table.
+ */
+public record MarkRow(int admno, String studentName, int subjectId, int form, int term, int year,
+                      int cat1, int cat2, int cat3, int cat4, int exam) {
+
+    public int total() {
+        return cat1 + cat2 + cat3 + cat4 + exam;
+    }
+
+    public String grade() {
+        return Grading.gradeFor(total());
+    }
+}
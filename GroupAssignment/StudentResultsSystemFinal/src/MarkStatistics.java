@@ -0,0 +1,165 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Summary statistics of a set of marks out of 100: mean, median, standard
+ * deviation, highest, lowest, pass rate and the count per grade.
+ *
+ * Marks are bounded, so they are tallied in a 101-slot counting array in one
+ * pass; the median and grade counts are read from the tally instead of sorting.
+ * Memory use is the same for ten marks or a whole school's.
+ */
+public record MarkStatistics(int count, double mean, double median, double standardDeviation,
+                             int highest, int lowest, int passed, Map<String, Integer> gradeCounts) {
+
+    public static final int MAX_MARK = 100;
+
+    public MarkStatistics {
+        gradeCounts = Map.copyOf(gradeCounts);
+    }
+
+    /**
+     * Computes the statistics of the given marks.
+     */
+    public static MarkStatistics of(int... marks) {
+        Accumulator accumulator = new Accumulator();
+        for (int mark : marks) {
+            accumulator.add(mark);
+        }
+        return accumulator.result();
+    }
+
+    /**
+     * Computes per-subject statistics for a whole form/term/year cohort by streaming
+     * its results once; no result rows are kept in memory.
+     *
+     * @return statistics keyed by subject name, in name order, or null if the results could not be read.
+     */
+    public static Map<String, MarkStatistics> bySubject(ResultsRepository repository, int form, int term, int year) {
+        Map<String, Accumulator> accumulators = new TreeMap<>();
+        int streamed = repository.streamResults(form, term, year,
+                row -> accumulators.computeIfAbsent(row.subject(), subject -> new Accumulator()).add(row.total()));
+        if (streamed < 0) {
+            return null;
+        }
+        Map<String, MarkStatistics> statistics = new LinkedHashMap<>();
+        accumulators.forEach((subject, accumulator) -> statistics.put(subject, accumulator.result()));
+        return statistics;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Share of marks at or above {@link Grading#PASS_MARK}, from 0 to 1.
+     */
+    public double passRate() {
+        return count == 0 ? 0 : (double) passed / count;
+    }
+
+    /**
+     * Number of marks with the given letter grade.
+     */
+    public int countFor(String grade) {
+        return gradeCounts.getOrDefault(grade, 0);
+    }
+
+    /**
+     * Statistics as label/value pairs, in the order reports show them.
+     */
+    public List<String[]> toRows() {
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[]{"Entries", String.valueOf(count)});
+        rows.add(new String[]{"Mean", String.format("%.1f", mean)});
+        rows.add(new String[]{"Median", String.format("%.1f", median)});
+        rows.add(new String[]{"Std deviation", String.format("%.1f", standardDeviation)});
+        rows.add(new String[]{"Highest", String.valueOf(highest)});
+        rows.add(new String[]{"Lowest", String.valueOf(lowest)});
+        rows.add(new String[]{"Pass rate", String.format("%.0f%%", passRate() * 100)});
+        for (String grade : Grading.GRADES) {
+            rows.add(new String[]{"Grade " + grade, String.valueOf(countFor(grade))});
+        }
+        return rows;
+    }
+
+    /**
+     * Tallies marks one at a time. Not thread-safe; use one per thread and
+     * {@link #merge(Accumulator)} them.
+     */
+    public static final class Accumulator {
+        private final int[] counts = new int[MAX_MARK + 1];
+        private int count;
+        private long sum;
+        private long sumOfSquares;
+
+        /**
+         * Adds one mark; values outside 0-100 are clamped into range.
+         */
+        public void add(int mark) {
+            int clamped = Math.max(0, Math.min(MAX_MARK, mark));
+            counts[clamped]++;
+            count++;
+            sum += clamped;
+            sumOfSquares += (long) clamped * clamped;
+        }
+
+        public void merge(Accumulator other) {
+            for (int mark = 0; mark <= MAX_MARK; mark++) {
+                counts[mark] += other.counts[mark];
+            }
+            count += other.count;
+            sum += other.sum;
+            sumOfSquares += other.sumOfSquares;
+        }
+
+        public MarkStatistics result() {
+            if (count == 0) {
+                return new MarkStatistics(0, 0, 0, 0, 0, 0, 0, Map.of());
+            }
+            double mean = (double) sum / count;
+            // Population variance from the running sums
+            double variance = Math.max(0, (double) sumOfSquares / count - mean * mean);
+
+            int lowest = -1;
+            int highest = 0;
+            int passed = 0;
+            Map<String, Integer> gradeCounts = new LinkedHashMap<>();
+            for (String grade : Grading.GRADES) {
+                gradeCounts.put(grade, 0);
+            }
+            for (int mark = 0; mark <= MAX_MARK; mark++) {
+                if (counts[mark] == 0) {
+                    continue;
+                }
+                if (lowest < 0) {
+                    lowest = mark;
+                }
+                highest = mark;
+                if (mark >= Grading.PASS_MARK) {
+                    passed += counts[mark];
+                }
+                gradeCounts.merge(Grading.gradeFor(mark), counts[mark], Integer::sum);
+            }
+            double median = (markAtRank((count - 1) / 2) + markAtRank(count / 2)) / 2.0;
+            return new MarkStatistics(count, mean, median, Math.sqrt(variance), highest, lowest, passed, gradeCounts);
+        }
+
+        /**
+         * Returns the mark at a zero-based rank in ascending order.
+         */
+        private int markAtRank(int rank) {
+            int seen = 0;
+            for (int mark = 0; mark <= MAX_MARK; mark++) {
+                seen += counts[mark];
+                if (seen > rank) {
+                    return mark;
+                }
+            }
+            return MAX_MARK;
+        }
+    }
+}
@@ -0,0 +1,302 @@
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * A read-only list of every row of a large table for a TableView, holding only the
+ * pages around what is on screen.
+ *
+ * The list reports the table's full size, so the scroll bar is right from the start.
+ * {@link #get(int)} returns null for a row whose page is not loaded yet and loads
+ * that page in the background; when it arrives the rows are announced as replaced
+ * and the table redraws them. Pages are fetched by keyset: the last row of every
+ * page loaded so far is remembered, and a page is read after the nearest one of
+ * those before it (skipping the pages in between after a long jump of the scroll
+ * bar). Pages far from the last one asked for are dropped once there are more than
+ * {@code maxPages}, so memory stays bounded however far the user scrolls.
+ *
+ * After a single row is written, {@link #rowInserted} and {@link #rowDeleted} patch
+ * the loaded pages instead of reloading them.
+ *
+ * Use from the FX thread only.
+ *
+ * @param <T> the row type
+ */
+public final class PagedList<T> extends ObservableListBase<T> {
+
+    /**
+     * Where the rows come from, in list order. {@link #count} and {@link #page} are
+     * called on a background thread.
+     */
+    public interface Source<T> {
+
+        int count(ResultsRepository repository);
+
+        /**
+         * Up to {@code limit} rows following {@code after} (null for the top), skipping {@code skip} rows first.
+         */
+        List<T> page(ResultsRepository repository, T after, int skip, int limit);
+
+        /**
+         * The order {@link #page} returns rows in; places an inserted row.
+         */
+        Comparator<T> order();
+    }
+
+    private final AsyncDatabaseOperations asyncOps;
+    private final int pageSize;
+    private final int maxPages;
+
+    private Source<T> source;
+    private int size;
+    private boolean counted; // False until the size of the current source is known
+    private int generation;  // Bumped by reset and by patches; pages loaded for older positions are dropped
+
+    private final Map<Integer, List<T>> pages = new HashMap<>();
+    private final Set<Integer> loading = new HashSet<>();
+    private final TreeMap<Integer, T> lastRows = new TreeMap<>(); // Page -> its last row, kept after eviction
+    private int lastRequested;
+
+    public PagedList(AsyncDatabaseOperations asyncOps, int pageSize, int maxPages) {
+        this.asyncOps = asyncOps;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+    }
+
+    /**
+     * Replaces the contents with {@code source}'s rows, e.g. in a new sort order.
+     *
+     * @return completes once the new size has been announced.
+     */
+    public CompletableFuture<Void> reset(Source<T> source) {
+        this.source = source;
+        int resetGeneration = ++generation;
+        pages.clear();
+        loading.clear();
+        lastRows.clear();
+        lastRequested = 0;
+        counted = false;
+        request(0); // Usually what is shown first, so fetch it alongside the count
+        return asyncOps.callAsync(ops -> source.count(ops), count -> {
+            if (resetGeneration != generation) {
+                return;
+            }
+            int oldSize = size;
+            size = count;
+            counted = true;
+            beginChange();
+            if (oldSize > 0) {
+                nextRemove(0, Collections.nCopies(oldSize, null));
+            }
+            if (count > 0) {
+                nextAdd(0, count);
+            }
+            endChange();
+        });
+    }
+
+    /**
+     * Reloads from the current source, e.g. after rows were added or deleted.
+     */
+    public CompletableFuture<Void> refresh() {
+        return reset(source);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the row, or null while its page is loading.
+     */
+    @Override
+    public T get(int index) {
+        Objects.checkIndex(index, size);
+        int page = index / pageSize;
+        int offset = index % pageSize;
+        lastRequested = page;
+        List<T> rows = pages.get(page);
+        if (rows == null) {
+            request(page);
+            return null;
+        }
+        // Fetch the neighbour before the user scrolls onto it
+        if (offset >= pageSize * 3 / 4) {
+            request(page + 1);
+        } else if (offset < pageSize / 4 && page > 0) {
+            request(page - 1);
+        }
+        return offset < rows.size() ? rows.get(offset) : null;
+    }
+
+    // -----------------------------------------
+    // Patching after a write
+    // -----------------------------------------
+
+    /**
+     * Adds a row just written to the source where the source's order puts it, without
+     * reloading. If that place is inside a run of pages that are not loaded, the add is
+     * announced at the start of the run and the row shows once its page is read.
+     */
+    public void rowInserted(T row) {
+        if (!counted) {
+            refresh(); // The count in flight may or may not include the row
+            return;
+        }
+        Comparator<T> order = source.order();
+        int index = -1;   // Where the row goes, if the loaded pages tell
+        int gapStart = 0; // Otherwise, the first row not loaded after the rows that sort before it
+        for (Map.Entry<Integer, List<T>> entry : new TreeMap<>(pages).entrySet()) {
+            int page = entry.getKey();
+            List<T> rows = entry.getValue();
+            if (rows.isEmpty()) {
+                continue;
+            }
+            if (order.compare(row, rows.get(rows.size() - 1)) > 0) {
+                gapStart = page * pageSize + rows.size();
+                continue;
+            }
+            if (page == 0 || pages.containsKey(page - 1) || order.compare(row, rows.get(0)) > 0) {
+                int position = Collections.binarySearch(rows, row, order);
+                index = page * pageSize + (position < 0 ? -position - 1 : position);
+            }
+            break;
+        }
+        if (index < 0 && gapStart == size) {
+            index = size; // After the last row
+        }
+
+        int added = index < 0 ? gapStart : index;
+        shift(added, 1, index < 0 ? null : (rows, offset) -> rows.add(offset, row));
+        beginChange();
+        nextAdd(added, added + 1);
+        endChange();
+    }
+
+    /**
+     * Takes out a row just deleted from the source, without reloading. A row that is
+     * not loaded cannot be placed, so the list is reloaded instead.
+     */
+    public void rowDeleted(T row) {
+        int index = -1;
+        for (Map.Entry<Integer, List<T>> entry : pages.entrySet()) {
+            int offset = entry.getValue().indexOf(row);
+            if (offset >= 0) {
+                index = entry.getKey() * pageSize + offset;
+                break;
+            }
+        }
+        if (!counted || index < 0) {
+            refresh();
+            return;
+        }
+        shift(index, -1, (rows, offset) -> rows.remove(offset));
+        beginChange();
+        nextRemove(index, row);
+        endChange();
+    }
+
+    /**
+     * Moves the rows from {@code index} on by {@code delta} places. The loaded pages
+     * running on without a gap from index's page are joined, edited and cut into pages
+     * again; a cut that comes up short of rows never loaded is dropped with everything
+     * after it, as are the anchors from index's page on.
+     *
+     * @param edit applied to the joined rows with index's offset in them; null to only shift
+     */
+    private void shift(int index, int delta, ObjIntConsumer<List<T>> edit) {
+        int firstPage = index / pageSize;
+        List<T> joined = new ArrayList<>();
+        for (int page = firstPage; pages.containsKey(page); page++) {
+            joined.addAll(pages.get(page));
+        }
+        if (edit != null) {
+            edit.accept(joined, index - firstPage * pageSize);
+        }
+        size += delta;
+
+        pages.keySet().removeIf(page -> page >= firstPage);
+        lastRows.tailMap(firstPage).clear();
+        for (int start = 0; start < joined.size(); start += pageSize) {
+            int page = firstPage + start / pageSize;
+            List<T> rows = new ArrayList<>(joined.subList(start, Math.min(joined.size(), start + pageSize)));
+            if (rows.size() < pageSize && page * pageSize + rows.size() != size) {
+                break;
+            }
+            pages.put(page, rows);
+            lastRows.put(page, rows.get(rows.size() - 1));
+        }
+
+        // Pages still loading were asked for at the old positions
+        generation++;
+        loading.clear();
+        evictFarPages();
+    }
+
+    /**
+     * Pages currently held in memory.
+     */
+    public int loadedPages() {
+        return pages.size();
+    }
+
+    private void request(int page) {
+        if (source == null || pages.containsKey(page) || !loading.add(page)) {
+            return;
+        }
+        int requestGeneration = generation;
+        Source<T> requestSource = source;
+        Map.Entry<Integer, T> anchor = lastRows.lowerEntry(page);
+        T after = anchor == null ? null : anchor.getValue();
+        int skip = (page - (anchor == null ? 0 : anchor.getKey() + 1)) * pageSize;
+        asyncOps.callAsync(ops -> requestSource.page(ops, after, skip, pageSize),
+                rows -> loaded(requestGeneration, page, rows));
+    }
+
+    private void loaded(int loadGeneration, int page, List<T> rows) {
+        if (loadGeneration != generation) {
+            return;
+        }
+        loading.remove(page);
+        pages.put(page, rows);
+        if (!rows.isEmpty()) {
+            lastRows.put(page, rows.get(rows.size() - 1));
+        }
+        evictFarPages();
+
+        int first = page * pageSize;
+        int last = Math.min(size, first + rows.size());
+        if (first < last) {
+            beginChange();
+            for (int index = first; index < last; index++) {
+                nextSet(index, null);
+            }
+            endChange();
+        }
+    }
+
+    // Not announced: a dropped row reads as "loading" again and is reloaded if it comes back into view
+    private void evictFarPages() {
+        while (pages.size() > maxPages) {
+            int farthest = -1;
+            for (int page : pages.keySet()) {
+                if (farthest < 0 || Math.abs(page - lastRequested) > Math.abs(farthest - lastRequested)) {
+                    farthest = page;
+                }
+            }
+            pages.remove(farthest);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call counts, errors, rows and latency percentiles per repository operation.
+ * Filled in by {@link InstrumentedResultsRepository}; read with {@link #snapshot()}
+ * or {@link #report()}.
+ *
+ * Calls slower than the slow-query threshold are logged with their arguments.
+ * The threshold defaults to 500 ms and can be set with -Dresults.slowQueryMillis
+ * or {@link #setSlowQueryThresholdMillis(long)}.
+ */
+public final class QueryMetrics {
+
+    public static final String SLOW_QUERY_PROPERTY = "results.slowQueryMillis";
+    private static final long DEFAULT_SLOW_QUERY_MILLIS = 500;
+
+    private static final QueryMetrics GLOBAL = new QueryMetrics(Long.getLong(SLOW_QUERY_PROPERTY, DEFAULT_SLOW_QUERY_MILLIS));
+
+    // Set by DatabaseOperations when it swallows an SQLException, read back by the proxy
+    private static final ThreadLocal<boolean[]> CALL_FAILED = ThreadLocal.withInitial(() -> new boolean[1]);
+
+    private final ConcurrentHashMap<String, Operation> operations = new ConcurrentHashMap<>();
+    private volatile long slowQueryThresholdMillis;
+
+    public QueryMetrics(long slowQueryThresholdMillis) {
+        this.slowQueryThresholdMillis = slowQueryThresholdMillis;
+    }
+
+    /**
+     * Returns the metrics shared by the application's repository.
+     */
+    public static QueryMetrics global() {
+        return GLOBAL;
+    }
+
+    public long getSlowQueryThresholdMillis() {
+        return slowQueryThresholdMillis;
+    }
+
+    public void setSlowQueryThresholdMillis(long slowQueryThresholdMillis) {
+        this.slowQueryThresholdMillis = slowQueryThresholdMillis;
+    }
+
+    /**
+     * Marks the repository call running on this thread as failed. Used by
+     * implementations that log errors instead of throwing them.
+     */
+    public static void markFailed() {
+        CALL_FAILED.get()[0] = true;
+    }
+
+    static void beginCall() {
+        CALL_FAILED.get()[0] = false;
+    }
+
+    static boolean callFailed() {
+        return CALL_FAILED.get()[0];
+    }
+
+    /**
+     * Records one completed call.
+     */
+    public void record(String operation, long elapsedNanos, int rows, boolean failed) {
+        Operation stats = operations.computeIfAbsent(operation, name -> new Operation());
+        stats.calls.increment();
+        if (failed) {
+            stats.errors.increment();
+        }
+        stats.rows.add(rows);
+        stats.totalNanos.add(elapsedNanos);
+        stats.maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+        stats.histogram.record(elapsedNanos / 1_000);
+    }
+
+    /**
+     * Returns the statistics of one operation, or null if it has not been called.
+     */
+    public QueryStats get(String operation) {
+        Operation stats = operations.get(operation);
+        return stats == null ? null : stats.snapshot(operation);
+    }
+
+    /**
+     * Returns the statistics of every operation, the most total time first.
+     */
+    public List<QueryStats> snapshot() {
+        List<QueryStats> snapshot = new ArrayList<>(operations.size());
+        operations.forEach((name, stats) -> snapshot.add(stats.snapshot(name)));
+        snapshot.sort(Comparator.comparingDouble(QueryStats::totalMillis).reversed());
+        return snapshot;
+    }
+
+    public void reset() {
+        operations.clear();
+    }
+
+    /**
+     * Formats {@link #snapshot()} as a fixed-width table.
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder(String.format("%-36s %8s %6s %10s %9s %9s %9s %9s %9s%n",
+                "operation", "calls", "errors", "rows", "mean ms", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (QueryStats stats : snapshot()) {
+            report.append(String.format("%-36s %8d %6d %10d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    stats.operation(), stats.calls(), stats.errors(), stats.rows(), stats.meanMillis(),
+                    stats.p50Millis(), stats.p95Millis(), stats.p99Millis(), stats.maxMillis()));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Point-in-time statistics for one operation. Percentiles are accurate to within 12.5%.
+     */
+    public record QueryStats(String operation, long calls, long errors, long rows, double totalMillis,
+                             double meanMillis, double p50Millis, double p95Millis, double p99Millis,
+                             double maxMillis) {
+    }
+
+    private static final class Operation {
+        final LongAdder calls = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        QueryStats snapshot(String name) {
+            long callCount = calls.sum();
+            double totalMillis = totalNanos.sum() / 1e6;
+            double maxMillis = maxNanos.get() / 1e6;
+            return new QueryStats(name, callCount, errors.sum(), rows.sum(), totalMillis,
+                    callCount == 0 ? 0 : totalMillis / callCount,
+                    Math.min(histogram.percentileMicros(0.50) / 1e3, maxMillis),
+                    Math.min(histogram.percentileMicros(0.95) / 1e3, maxMillis),
+                    Math.min(histogram.percentileMicros(0.99) / 1e3, maxMillis),
+                    maxMillis);
+        }
+    }
+
+    /**
+     * Log-linear histogram of microsecond latencies: every power of two is split
+     * into eight equal buckets, so a bucket's upper bound is within 12.5% of any
+     * value in it. Recording is lock-free.
+     */
+    static final class LatencyHistogram {
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        // Covers up to 2^40 microseconds (about 12 days)
+        private static final int BUCKETS = SUB_BUCKETS + (40 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+        void record(long micros) {
+            counts.incrementAndGet(Math.min(bucketOf(Math.max(micros, 0)), BUCKETS - 1));
+        }
+
+        /**
+         * Returns the upper bound of the bucket holding the given percentile (0..1).
+         */
+        long percentileMicros(double percentile) {
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                total += counts.get(i);
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(percentile * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts.get(i);
+                if (seen >= target) {
+                    return upperBoundOf(i);
+                }
+            }
+            return upperBoundOf(BUCKETS - 1);
+        }
+
+        static int bucketOf(long micros) {
+            if (micros < SUB_BUCKETS) {
+                return (int) micros;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(micros);
+            int shift = exponent - SUB_BUCKET_BITS;
+            int subBucket = (int) (micros >>> shift) & (SUB_BUCKETS - 1);
+            return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+        }
+
+        static long upperBoundOf(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+            int subBucket = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+            return ((long) (SUB_BUCKETS + subBucket + 1) << shift) - 1;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+/**
+ * A student's position in a form/term/year cohort, either overall (subjectId
+ * {@link #OVERALL}) or in one subject. Ties share a position and the next
+ * position is skipped, so two students tied first are followed by 3rd.
+ *
+ * @param score    the mark ranked: the subject total, or the sum of all subject totals overall
+ * @param position 1 for the top score
+ * @param outOf    the number of students ranked
+ */
+public record RankRow(int form, int term, int year, int subjectId, int admno, int score, int position, int outOf) {
+
+    public static final int OVERALL = 0;
+
+    public boolean isOverall() {
+        return subjectId == OVERALL;
+    }
+
+    /**
+     * The position as printed on result slips, e.g. "3 out of 187".
+     */
+    public String label() {
+        return position + " out of " + outOf;
+    }
+}
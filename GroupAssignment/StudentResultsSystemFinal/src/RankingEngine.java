@@ -0,0 +1,148 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Computes the merit list of a form/term/year cohort: every student's overall
+ * position (by the sum of their subject totals) and their position in each subject.
+ *
+ * Ties use standard competition ranking ("1224"). Scores are bounded (0-100 in a
+ * subject, 100 per subject overall), so positions come from a counting pass over
+ * the score range rather than a comparison sort: O(students + range) per list.
+ */
+public final class RankingEngine {
+
+    private RankingEngine() {
+    }
+
+    /**
+     * Returns the stored positions of a cohort, or ranks it without storing anything
+     * if there are none (marks saved since the last ranking clear them). Only
+     * {@link #rankAndSave} stores positions: a read that stored them could race a
+     * marks save and put back positions it had just cleared.
+     */
+    public static Rankings load(ResultsRepository repository, int form, int term, int year) {
+        List<RankRow> stored = repository.getRankings(form, term, year);
+        if (!stored.isEmpty()) {
+            return Rankings.of(stored);
+        }
+        List<RankRow> rows = rank(repository, form, term, year);
+        if (rows == null) {
+            System.err.println("Could not read results for Form " + form + ", Term " + term + ", " + year);
+            return Rankings.empty();
+        }
+        return Rankings.of(rows);
+    }
+
+    /**
+     * Ranks a cohort and replaces its stored positions with the result.
+     */
+    public static Rankings rankAndSave(ResultsRepository repository, int form, int term, int year) {
+        List<RankRow> rows = rank(repository, form, term, year);
+        if (rows == null) {
+            // Saving a partial read would replace good positions with wrong ones
+            System.err.println("Could not read results for Form " + form + ", Term " + term + ", " + year);
+            return Rankings.empty();
+        }
+        if (!rows.isEmpty() && !repository.saveRankings(form, term, year, rows)) {
+            System.err.println("Could not store positions for Form " + form + ", Term " + term + ", " + year);
+        }
+        return Rankings.of(rows);
+    }
+
+    /**
+     * Ranks a cohort from one pass over its results, without storing anything.
+     *
+     * @return overall positions followed by each subject's, each in merit order,
+     *         or null if the results could not be read.
+     */
+    public static List<RankRow> rank(ResultsRepository repository, int form, int term, int year) {
+        ScoreList overall = new ScoreList();
+        Map<Integer, ScoreList> bySubject = new TreeMap<>();
+        int[] current = {-1, 0}; // admno being summed, and its running total
+        int streamed = repository.streamResults(form, term, year, row -> {
+            // Results arrive ordered by admno, so each student's rows are contiguous
+            if (row.admno() != current[0]) {
+                if (current[0] >= 0) {
+                    overall.add(current[0], current[1]);
+                }
+                current[0] = row.admno();
+                current[1] = 0;
+            }
+            current[1] += row.total();
+            bySubject.computeIfAbsent(row.subjectId(), id -> new ScoreList()).add(row.admno(), row.total());
+        });
+        if (streamed < 0) {
+            return null;
+        }
+        if (current[0] >= 0) {
+            overall.add(current[0], current[1]);
+        }
+
+        List<RankRow> rows = new ArrayList<>();
+        addPositions(rows, form, term, year, RankRow.OVERALL, overall);
+        bySubject.forEach((subjectId, scores) -> addPositions(rows, form, term, year, subjectId, scores));
+        return rows;
+    }
+
+    private static void addPositions(List<RankRow> rows, int form, int term, int year, int subjectId, ScoreList scores) {
+        int[] order = new int[scores.size];
+        int[] positions = competitionPositions(scores.scores, scores.size, scores.max, order);
+        for (int index : order) {
+            rows.add(new RankRow(form, term, year, subjectId, scores.admnos[index], scores.scores[index],
+                    positions[index], scores.size));
+        }
+    }
+
+    /**
+     * Counting-sort ranking of {@code scores[0..size)}, all within 0..maxScore.
+     *
+     * @param order filled with the indexes of the scores from highest to lowest,
+     *              equal scores keeping their input order
+     * @return the competition position of each score, by index
+     */
+    static int[] competitionPositions(int[] scores, int size, int maxScore, int[] order) {
+        int[] counts = new int[maxScore + 1];
+        for (int i = 0; i < size; i++) {
+            counts[Math.max(0, scores[i])]++;
+        }
+        // firstSlot[s] = how many scores are above s = (position of s) - 1
+        int[] firstSlot = new int[maxScore + 1];
+        int above = 0;
+        for (int score = maxScore; score >= 0; score--) {
+            firstSlot[score] = above;
+            above += counts[score];
+        }
+        int[] positions = new int[size];
+        int[] nextSlot = Arrays.copyOf(firstSlot, firstSlot.length);
+        for (int i = 0; i < size; i++) {
+            int score = Math.max(0, scores[i]);
+            positions[i] = firstSlot[score] + 1;
+            order[nextSlot[score]++] = i;
+        }
+        return positions;
+    }
+
+    /**
+     * Growable parallel arrays of (admno, score).
+     */
+    private static final class ScoreList {
+        int[] admnos = new int[64];
+        int[] scores = new int[64];
+        int size;
+        int max;
+
+        void add(int admno, int score) {
+            if (size == admnos.length) {
+                admnos = Arrays.copyOf(admnos, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            admnos[size] = admno;
+            scores[size] = score;
+            max = Math.max(max, score);
+            size++;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The stored positions of one cohort, indexed by (subjectId, admno) so result
+ * slips and reports look up each student's position in constant time.
+ */
+public final class Rankings {
+
+    private static final Rankings EMPTY = new Rankings(List.of());
+
+    private final List<RankRow> rows;
+    private final Map<Long, RankRow> byKey;
+
+    private Rankings(List<RankRow> rows) {
+        this.rows = List.copyOf(rows);
+        this.byKey = new HashMap<>(rows.size() * 2);
+        for (RankRow row : rows) {
+            byKey.put(key(row.subjectId(), row.admno()), row);
+        }
+    }
+
+    public static Rankings of(List<RankRow> rows) {
+        return rows.isEmpty() ? EMPTY : new Rankings(rows);
+    }
+
+    public static Rankings empty() {
+        return EMPTY;
+    }
+
+    private static long key(int subjectId, int admno) {
+        return ((long) subjectId << 32) | (admno & 0xFFFFFFFFL);
+    }
+
+    public Optional<RankRow> overall(int admno) {
+        return subject(RankRow.OVERALL, admno);
+    }
+
+    public Optional<RankRow> subject(int subjectId, int admno) {
+        return Optional.ofNullable(byKey.get(key(subjectId, admno)));
+    }
+
+    /**
+     * Every position, overall first, each list in merit order.
+     */
+    public List<RankRow> rows() {
+        return rows;
+    }
+
+    public boolean isEmpty() {
+        return rows.isEmpty();
+    }
+}
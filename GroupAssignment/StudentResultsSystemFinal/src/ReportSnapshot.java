@@ -0,0 +1,156 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The data behind one group or individual report, fetched once and shared by the
+ * report table, the bar chart and the PDF export so all three always agree.
+ * Statistics are computed when the snapshot is built.
+ *
+ * @param subjectStatistics a group report's statistics for every subject of its
+ *                          form/term/year, by subject name; empty for individual reports
+ */
+public record ReportSnapshot(Kind kind, String title, List<Line> lines, MarkStatistics statistics,
+                             Map<String, MarkStatistics> subjectStatistics) {
+
+    /**
+     * Column headers of {@link #subjectStatisticsRows()}.
+     */
+    public static final List<String> SUBJECT_STATISTICS_HEADERS =
+            List.of("Subject", "Entries", "Mean", "Median", "Std dev", "Highest", "Lowest", "Pass rate");
+
+    /**
+     * What a report is about, with the labels its table, chart and PDF use.
+     */
+    public enum Kind {
+        GROUP("Student", "Students", "Group Marks", "Group_Report.pdf"),
+        INDIVIDUAL("Subject", "Subjects", "Subject Marks", "Individual_Report.pdf");
+
+        private final String labelHeader;
+        private final String axisLabel;
+        private final String chartTitle;
+        private final String fileName;
+
+        Kind(String labelHeader, String axisLabel, String chartTitle, String fileName) {
+            this.labelHeader = labelHeader;
+            this.axisLabel = axisLabel;
+            this.chartTitle = chartTitle;
+            this.fileName = fileName;
+        }
+
+        public String labelHeader() { return labelHeader; }
+        public String axisLabel() { return axisLabel; }
+        public String chartTitle() { return chartTitle; }
+        public String fileName() { return fileName; }
+    }
+
+    /**
+     * One row of a report: a student (group report) or a subject (individual report).
+     *
+     * @param position the student's stored subject position, or 0 if not ranked
+     */
+    public record Line(String label, int total, String grade, int position) {
+
+        public boolean isRanked() {
+            return position > 0;
+        }
+    }
+
+    public ReportSnapshot {
+        lines = List.copyOf(lines);
+        subjectStatistics = Collections.unmodifiableMap(new LinkedHashMap<>(subjectStatistics));
+    }
+
+    /**
+     * Builds the report for one subject across a form/term/year cohort, with each
+     * student's position in that subject taken from {@code rankings}.
+     *
+     * @param subjectStatistics every subject of the cohort, from {@link MarkStatistics#bySubject}
+     */
+    public static ReportSnapshot forGroup(int form, int term, int year, String subject, List<GroupResultRow> rows,
+                                          Rankings rankings, int subjectId, Map<String, MarkStatistics> subjectStatistics) {
+        List<Line> lines = new ArrayList<>(rows.size());
+        for (GroupResultRow row : rows) {
+            int position = rankings.subject(subjectId, row.admno()).map(RankRow::position).orElse(0);
+            lines.add(new Line(row.studentName(), row.total(), Grading.gradeFor(row.total()), position));
+        }
+        return of(Kind.GROUP, subject + " - Form " + form + ", Term " + term + ", " + year, lines, subjectStatistics);
+    }
+
+    /**
+     * Builds the report of every subject one student has results for.
+     */
+    public static ReportSnapshot forStudent(int admno, List<ResultRow> rows) {
+        List<Line> lines = new ArrayList<>(rows.size());
+        for (ResultRow row : rows) {
+            lines.add(new Line(row.subject(), row.total(), row.grade(), 0));
+        }
+        return of(Kind.INDIVIDUAL, "Individual Report for Admission No: " + admno, lines, Map.of());
+    }
+
+    private static ReportSnapshot of(Kind kind, String title, List<Line> lines,
+                                     Map<String, MarkStatistics> subjectStatistics) {
+        MarkStatistics.Accumulator accumulator = new MarkStatistics.Accumulator();
+        for (Line line : lines) {
+            accumulator.add(line.total());
+        }
+        return new ReportSnapshot(kind, title, lines, accumulator.result(), subjectStatistics);
+    }
+
+    public boolean isEmpty() {
+        return lines.isEmpty();
+    }
+
+    /**
+     * The report's bar chart, for drawing off-screen with {@link ChartRenderer}.
+     */
+    public ChartRenderer.Spec chartSpec() {
+        List<String> labels = new ArrayList<>(lines.size());
+        List<Integer> totals = new ArrayList<>(lines.size());
+        for (Line line : lines) {
+            labels.add(line.label());
+            totals.add(line.total());
+        }
+        return new ChartRenderer.Spec(kind.chartTitle(), kind.axisLabel(), labels, totals);
+    }
+
+    public boolean hasPositions() {
+        return lines.stream().anyMatch(Line::isRanked);
+    }
+
+    /**
+     * One row per subject of the cohort, in {@link #SUBJECT_STATISTICS_HEADERS} order.
+     */
+    public List<String[]> subjectStatisticsRows() {
+        List<String[]> rows = new ArrayList<>(subjectStatistics.size());
+        subjectStatistics.forEach((subject, statistics) -> rows.add(new String[]{
+                subject,
+                String.valueOf(statistics.count()),
+                String.format("%.1f", statistics.mean()),
+                String.format("%.1f", statistics.median()),
+                String.format("%.1f", statistics.standardDeviation()),
+                String.valueOf(statistics.highest()),
+                String.valueOf(statistics.lowest()),
+                String.format("%.0f%%", statistics.passRate() * 100)}));
+        return rows;
+    }
+
+    /**
+     * Summary of the statistics, shown under the report title: the figures on the
+     * first line, the count per grade on the second.
+     */
+    public String summary() {
+        if (isEmpty()) {
+            return "No results";
+        }
+        StringBuilder grades = new StringBuilder();
+        for (String grade : Grading.GRADES) {
+            grades.append(grade).append(": ").append(statistics.countFor(grade)).append("   ");
+        }
+        return String.format("Entries: %d   Mean: %.1f   Median: %.1f   Std dev: %.1f   Highest: %d   Lowest: %d   Pass rate: %.0f%%%n%s",
+                statistics.count(), statistics.mean(), statistics.median(), statistics.standardDeviation(),
+                statistics.highest(), statistics.lowest(), statistics.passRate() * 100, grades.toString().trim());
+    }
+}
@@ -0,0 +1,101 @@
+import javafx.application.Platform;
+import javafx.scene.control.Alert;
+
+import java.util.Locale;
+
+/**
+ * Chooses the {@link ResultsRepository} the application runs against.
+ *
+ * The backend is read once from the {@code results.backend} system property:
+ * <ul>
+ *     <li>{@code mysql} (default) - {@link DatabaseOperations}</li>
+ *     <li>{@code embedded} - {@link EmbeddedDatabaseOperations}, no server required</li>
+ *     <li>{@code memory} - {@link InMemoryResultsRepository}, nothing persisted</li>
+ * </ul>
+ * e.g. {@code java -Dresults.backend=embedded Main}
+ *
+ * The shared repository counts its writes in a {@link VersionedResultsRepository} and
+ * keeps reference data in a {@link CachingResultsRepository}. The backend inside them
+ * is wrapped by {@link InstrumentedResultsRepository}, so {@link QueryMetrics#global()}
+ * records the calls that reach the store and not those the cache answers.
+ */
+public final class Repositories {
+
+    public static final String BACKEND_PROPERTY = "results.backend";
+
+    private Repositories() {
+    }
+
+    /**
+     * Holder for the shared repository, created on first use.
+     */
+    private static class Holder {
+        private static final CachingResultsRepository CACHE = new CachingResultsRepository(
+                InstrumentedResultsRepository.wrap(create(System.getProperty(BACKEND_PROPERTY, "mysql")), QueryMetrics.global()));
+        private static final VersionedResultsRepository VERSIONS = new VersionedResultsRepository(CACHE);
+    }
+
+    /**
+     * Returns the repository shared by every view.
+     */
+    public static ResultsRepository get() {
+        return Holder.VERSIONS;
+    }
+
+    /**
+     * Creates the shared repository, migrating the database schema, before any screen
+     * is built. Call it from main() before launch(): if it fails the error is shown in
+     * a dialog and false is returned, and the application should not start.
+     */
+    public static boolean openOrShowError() {
+        try {
+            get();
+            return true;
+        } catch (RuntimeException | ExceptionInInitializerError e) {
+            Throwable cause = e instanceof ExceptionInInitializerError && e.getCause() != null ? e.getCause() : e;
+            cause.printStackTrace();
+            Platform.startup(() -> {
+                Alert alert = new Alert(Alert.AlertType.ERROR);
+                alert.setTitle("Database Error");
+                alert.setHeaderText("The results database could not be opened.");
+                alert.setContentText(cause.getMessage());
+                alert.showAndWait();
+                Platform.exit();
+            });
+            return false;
+        }
+    }
+
+    /**
+     * Returns the reference-data cache inside {@link #get()}, for its statistics.
+     */
+    public static CachingResultsRepository cache() {
+        return Holder.CACHE;
+    }
+
+    /**
+     * Returns the write versions inside {@link #get()}, to tell which screens are out of date.
+     */
+    public static VersionedResultsRepository versions() {
+        return Holder.VERSIONS;
+    }
+
+    /**
+     * Creates a new repository for the named backend.
+     *
+     * @throws IllegalArgumentException if the name is not mysql, embedded or memory.
+     */
+    public static ResultsRepository create(String backend) {
+        switch (backend.trim().toLowerCase(Locale.ROOT)) {
+            case "mysql":
+                return new DatabaseOperations();
+            case "embedded":
+                return new EmbeddedDatabaseOperations();
+            case "memory":
+                return new InMemoryResultsRepository();
+            default:
+                throw new IllegalArgumentException("Unknown " + BACKEND_PROPERTY + ": " + backend
+                        + " (expected mysql, embedded or memory)");
+        }
+    }
+}
@@ -0,0 +1,31 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event emitted for every {@link ResultsRepository} call made
+ * through {@link InstrumentedResultsRepository}. Record with e.g.
+ * {@code -XX:StartFlightRecording=filename=results.jfr} and filter on
+ * "results.RepositoryCall" in JDK Mission Control. The event's stack trace
+ * shows which view issued the call.
+ */
+@Name("results.RepositoryCall")
+@Label("Repository Call")
+@Category({"Results System", "Database"})
+@Description("A ResultsRepository method call with its arguments and row count")
+public class RepositoryCallEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Arguments")
+    String arguments;
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Failed")
+    boolean failed;
+}
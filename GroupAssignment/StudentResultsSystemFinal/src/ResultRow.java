@@ -0,0 +1,5 @@
+/**
+ * One student's result in one subject.
+ */
+public record ResultRow(String subject, int total, String grade) {
+}
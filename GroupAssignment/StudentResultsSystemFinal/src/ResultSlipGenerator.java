@@ -0,0 +1,396 @@
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.WriterProperties;
+import com.itextpdf.kernel.utils.PdfMerger;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.AreaBreak;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.property.UnitValue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes a result slip for every student of a form/term/year, for printing at term end.
+ *
+ * The cohort is prefetched up front (its results in one streamed query, plus the
+ * stored outcomes and positions), then slips are rendered in parallel: each worker
+ * thread builds its own iText document, and the parsed font program and a
+ * {@link ChartRenderer} are shared by all of them, so identical charts are drawn
+ * once. Output is either one merged PDF, a ZIP stream or a directory with one PDF
+ * per student.
+ *
+ * One generator serves one run. {@link #cancel()} may be called from any thread;
+ * the run stops after the slips in progress and reports itself cancelled.
+ */
+public class ResultSlipGenerator {
+
+    /**
+     * What a run produced.
+     *
+     * @param slips     slips written (all of them unless cancelled)
+     * @param cancelled true if {@link #cancel()} stopped the run; the output is incomplete
+     */
+    public record Summary(int slips, long millis, boolean cancelled) {
+    }
+
+    /**
+     * Everything one slip shows, read before rendering starts.
+     */
+    private record Slip(int admno, String studentName, List<CohortResultRow> results, TermOutcome outcome) {
+    }
+
+    // Standard Type 1 fonts need no file; parsed once and shared by every document
+    private static final FontProgram REGULAR = loadFont(StandardFonts.HELVETICA);
+    private static final FontProgram BOLD = loadFont(StandardFonts.HELVETICA_BOLD);
+
+    private static final float[] RESULT_COLUMNS = {4, 2, 2, 3};
+
+    private final ResultsRepository repository;
+    private final int form;
+    private final int term;
+    private final int year;
+    private final int threads;
+    private final ChartRenderer charts = new ChartRenderer();
+    private volatile boolean cancelled;
+    private Rankings rankings = Rankings.empty(); // The cohort's positions, loaded by prefetch()
+    private BiConsumer<Integer, Integer> progressListener = (done, total) -> { };
+
+    public ResultSlipGenerator(ResultsRepository repository, int form, int term, int year) {
+        this(repository, form, term, year, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ResultSlipGenerator(ResultsRepository repository, int form, int term, int year, int threads) {
+        this.repository = repository;
+        this.form = form;
+        this.term = term;
+        this.year = year;
+        this.threads = Math.max(1, threads);
+    }
+
+    private static FontProgram loadFont(String name) {
+        try {
+            return FontProgramFactory.createFont(name);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Called with (slips done, total slips) from the worker threads as slips are rendered.
+     */
+    public void setProgressListener(BiConsumer<Integer, Integer> progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    // -----------------------------------------
+    // Output
+    // -----------------------------------------
+
+    /**
+     * Writes every slip, one per page, into a single PDF in admno order.
+     * The cohort is split into one contiguous chunk per worker; the chunks are merged in order.
+     * Nothing is written to {@code out} if the run is cancelled.
+     */
+    public Summary writeMergedPdf(OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        List<Slip> slips = prefetch();
+        AtomicInteger done = new AtomicInteger();
+        int chunkSize = Math.max(1, (slips.size() + threads - 1) / threads);
+        List<byte[]> chunks;
+        ExecutorService workers = newWorkers();
+        try {
+            chunks = render(workers, slips, chunkSize, chunk -> renderDocument(chunk, done, slips.size()));
+        } finally {
+            workers.shutdownNow();
+        }
+        if (cancelled) {
+            return new Summary(done.get(), millisSince(start), true);
+        }
+        // Smart mode writes identical objects once, so chunks that embedded the same chart share it
+        try (PdfDocument merged = new PdfDocument(new PdfWriter(out, new WriterProperties().useSmartMode()))) {
+            PdfMerger merger = new PdfMerger(merged);
+            for (byte[] chunk : chunks) {
+                try (PdfDocument source = new PdfDocument(new PdfReader(new ByteArrayInputStream(chunk)))) {
+                    merger.merge(source, 1, source.getNumberOfPages());
+                }
+            }
+            if (slips.isEmpty()) {
+                // A PDF needs at least one page
+                new Document(merged).add(new Paragraph("No results for " + cohortLabel()));
+            }
+        }
+        return new Summary(slips.size(), millisSince(start), false);
+    }
+
+    /**
+     * Writes one PDF per student into a ZIP stream, named Slip_&lt;admno&gt;.pdf.
+     * {@code out} is finished but not closed.
+     */
+    public Summary writeZip(OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        List<Slip> slips = prefetch();
+        AtomicInteger done = new AtomicInteger();
+        ZipOutputStream zip = new ZipOutputStream(out);
+        int written = writeEach(slips, done, (slip, pdf) -> {
+            zip.putNextEntry(new ZipEntry(fileName(slip)));
+            zip.write(pdf);
+            zip.closeEntry();
+        });
+        zip.finish();
+        return new Summary(written, millisSince(start), cancelled);
+    }
+
+    /**
+     * Writes one PDF per student into {@code directory}, creating it if needed.
+     */
+    public Summary writeDirectory(Path directory) throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+        List<Slip> slips = prefetch();
+        AtomicInteger done = new AtomicInteger();
+        int written = writeEach(slips, done, (slip, pdf) -> Files.write(directory.resolve(fileName(slip)), pdf));
+        return new Summary(written, millisSince(start), cancelled);
+    }
+
+    private interface SlipSink {
+        void accept(Slip slip, byte[] pdf) throws IOException;
+    }
+
+    /**
+     * Renders slips on the workers a batch at a time and hands them to {@code sink}
+     * on the calling thread, in admno order, so at most one batch is held in memory.
+     */
+    private int writeEach(List<Slip> slips, AtomicInteger done, SlipSink sink) throws IOException {
+        int batchSize = threads * 8;
+        int written = 0;
+        ExecutorService workers = newWorkers();
+        try {
+            for (int from = 0; from < slips.size() && !cancelled; from += batchSize) {
+                List<Slip> batch = slips.subList(from, Math.min(slips.size(), from + batchSize));
+                List<byte[]> pdfs = render(workers, batch, 1, one -> renderDocument(one, done, slips.size()));
+                for (int i = 0; i < pdfs.size() && pdfs.get(i) != null; i++) {
+                    sink.accept(batch.get(i), pdfs.get(i));
+                    written++;
+                }
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        return written;
+    }
+
+    private String fileName(Slip slip) {
+        return "Slip_" + slip.admno() + ".pdf";
+    }
+
+    private String cohortLabel() {
+        return "Form " + form + ", Term " + term + ", " + year;
+    }
+
+    private static long millisSince(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    // -----------------------------------------
+    // Prefetch
+    // -----------------------------------------
+
+    /**
+     * Reads the whole cohort: its stored outcomes, its positions (computed if none are
+     * stored, see {@link RankingEngine#load}) and its results in one streamed query.
+     *
+     * @throws IOException if the results could not be read; no slip is written
+     */
+    private List<Slip> prefetch() throws IOException {
+        Map<Integer, TermOutcome> outcomes = new HashMap<>();
+        for (TermOutcome outcome : repository.getTermOutcomes(form, term, year)) {
+            outcomes.put(outcome.admno(), outcome);
+        }
+        rankings = RankingEngine.load(repository, form, term, year);
+
+        List<Slip> slips = new ArrayList<>();
+        List<CohortResultRow> current = new ArrayList<>();
+        Runnable finishStudent = () -> {
+            CohortResultRow first = current.get(0);
+            slips.add(new Slip(first.admno(), first.studentName(), List.copyOf(current), outcomes.get(first.admno())));
+            current.clear();
+        };
+        // Results arrive ordered by admno, so each student's rows are contiguous
+        int streamed = repository.streamResults(form, term, year, row -> {
+            if (!current.isEmpty() && current.get(0).admno() != row.admno()) {
+                finishStudent.run();
+            }
+            current.add(row);
+        });
+        if (streamed < 0) {
+            throw new IOException("Could not read the results of " + cohortLabel());
+        }
+        if (!current.isEmpty()) {
+            finishStudent.run();
+        }
+        return slips;
+    }
+
+    // -----------------------------------------
+    // Rendering
+    // -----------------------------------------
+
+    private interface ChunkRenderer {
+        byte[] render(List<Slip> chunk) throws IOException;
+    }
+
+    private ExecutorService newWorkers() {
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "result-slips");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Renders {@code slips} in chunks on {@code workers} and waits for all of them.
+     *
+     * @return one PDF per chunk in order; chunks skipped after cancellation are null
+     */
+    private List<byte[]> render(ExecutorService workers, List<Slip> slips, int chunkSize, ChunkRenderer renderer)
+            throws IOException {
+        try {
+            List<Future<byte[]>> futures = new ArrayList<>();
+            for (int from = 0; from < slips.size(); from += chunkSize) {
+                List<Slip> chunk = slips.subList(from, Math.min(slips.size(), from + chunkSize));
+                futures.add(workers.submit(() -> renderer.render(chunk)));
+            }
+            List<byte[]> pdfs = new ArrayList<>(futures.size());
+            for (Future<byte[]> future : futures) {
+                pdfs.add(future.get());
+            }
+            return pdfs;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelled = true;
+            throw new CancellationException("Interrupted while rendering result slips");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IllegalStateException("Rendering result slips failed", e.getCause());
+        }
+    }
+
+    /**
+     * Renders the given slips, one per page, into a new in-memory PDF.
+     *
+     * @return the PDF, or null if the run was cancelled before it started
+     */
+    private byte[] renderDocument(List<Slip> chunk, AtomicInteger done, int total) {
+        if (cancelled) {
+            return null;
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(chunk.size() * 4096);
+        try (PdfDocument pdf = new PdfDocument(new PdfWriter(buffer));
+             Document document = new Document(pdf)) {
+            // PdfFont objects belong to one document; the font programs behind them are shared
+            PdfFont regular = PdfFontFactory.createFont(REGULAR, PdfEncodings.WINANSI);
+            PdfFont bold = PdfFontFactory.createFont(BOLD, PdfEncodings.WINANSI);
+            document.setFont(regular);
+            ChartRenderer.DocumentCharts documentCharts = charts.forDocument();
+            for (int i = 0; i < chunk.size(); i++) {
+                if (i > 0) {
+                    if (cancelled) {
+                        break; // Keep the pages already rendered; an empty PDF cannot be closed
+                    }
+                    document.add(new AreaBreak());
+                }
+                addSlip(document, bold, documentCharts, chunk.get(i));
+                progressListener.accept(done.incrementAndGet(), total);
+            }
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Charts drawn for this run, and how many slips reused an identical one.
+     */
+    public int chartsRendered() {
+        return charts.renderedCount();
+    }
+
+    public int chartsReused() {
+        return charts.reusedCount();
+    }
+
+    private void addSlip(Document document, PdfFont bold, ChartRenderer.DocumentCharts documentCharts, Slip slip) {
+        document.add(new Paragraph("RESULT SLIP").setFont(bold).setFontSize(18));
+        document.add(new Paragraph("Name: " + slip.studentName() + "\n"
+                + "AdmNo: " + slip.admno() + "\n"
+                + cohortLabel()));
+
+        Table table = new Table(UnitValue.createPercentArray(RESULT_COLUMNS)).useAllAvailableWidth();
+        for (String header : new String[]{"Subject", "Total", "Grade", "Position"}) {
+            table.addHeaderCell(new Paragraph(header).setFont(bold));
+        }
+        for (CohortResultRow result : slip.results()) {
+            table.addCell(result.subject());
+            table.addCell(String.valueOf(result.total()));
+            table.addCell(result.grade() == null ? Grading.gradeFor(result.total()) : result.grade());
+            table.addCell(rankings.subject(result.subjectId(), slip.admno()).map(RankRow::label).orElse("-"));
+        }
+        document.add(table);
+
+        List<String> subjects = new ArrayList<>(slip.results().size());
+        List<Integer> totals = new ArrayList<>(slip.results().size());
+        for (CohortResultRow result : slip.results()) {
+            subjects.add(result.subject());
+            totals.add(result.total());
+        }
+        document.add(documentCharts.image(new ChartRenderer.Spec("Subject Marks", "Subjects", subjects, totals))
+                .setMaxHeight(220));
+
+        // Grade and promotion are decided when the term is closed (TermCloseJob), not here
+        TermOutcome outcome = slip.outcome();
+        if (outcome != null) {
+            document.add(new Paragraph(String.format("Total Marks: %d   Average: %.1f   Overall Grade: %s",
+                    outcome.totalMarks(), outcome.average(), outcome.overallGrade())).setFont(bold));
+        } else {
+            document.add(new Paragraph("Overall Grade: Pending").setFont(bold));
+        }
+        document.add(new Paragraph("Overall Position: "
+                + rankings.overall(slip.admno()).map(RankRow::label).orElse("Not yet ranked")));
+        document.add(new Paragraph(outcome != null ? outcome.promotionStatus() : "Promotion: Pending").setFont(bold));
+    }
+}
@@ -0,0 +1,235 @@
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Persistence operations used by the dashboards and management views.
+ *
+ * Implementations:
+ * <ul>
+ *     <li>{@link DatabaseOperations} - MySQL through the shared connection pool</li>
+ *     <li>{@link EmbeddedDatabaseOperations} - a file-backed H2 database in MySQL mode</li>
+ *     <li>{@link InMemoryResultsRepository} - plain Java collections, no database</li>
+ * </ul>
+ * Use {@link Repositories#get()} to obtain the configured one.
+ *
+ * Reads return an empty list (or null) and writes return false when the
+ * underlying store fails; writes that return the stored row return null.
+ * Errors are logged, not thrown.
+ */
+public interface ResultsRepository {
+
+    // -----------------------------------------
+    // Students
+    // -----------------------------------------
+
+    /**
+     * @return the stored student with its new admission number, or null if nothing was inserted.
+     */
+    StudentRow addStudent(String name, String gender, int form, int term, int year);
+
+    /**
+     * Inserts students atomically; the admno of each input row is ignored.
+     *
+     * @return the assigned admission numbers in input order, or an empty list if nothing was inserted.
+     */
+    List<Integer> addStudents(List<StudentRow> students);
+
+    List<StudentRow> getAllStudents();
+
+    /**
+     * Returns up to {@code limit} students with an admno greater than {@code afterAdmno}, in admno order.
+     */
+    List<StudentRow> getStudentsPage(int afterAdmno, int limit);
+
+    /**
+     * Returns up to {@code limit} students in {@code sort} order, admno breaking ties.
+     * The page starts after {@code after} (a row from an earlier page in the same order)
+     * or at the top if it is null, and then skips {@code skip} rows.
+     */
+    List<StudentRow> getStudentsSorted(StudentSort sort, boolean descending, StudentRow after, int skip, int limit);
+
+    int countStudents();
+
+    /**
+     * Passes every student, in admno order, to {@code consumer}.
+     *
+     * @return the number of rows streamed, or -1 on failure.
+     */
+    int streamStudents(Consumer<StudentRow> consumer);
+
+    /**
+     * @return true if a student was deleted.
+     */
+    boolean deleteStudent(int admno);
+
+    String getStudentNameByAdmNo(int admno);
+
+    List<StudentRow> searchStudentsByName(String query);
+
+    List<StudentRow> getStudentsByFormAndTerm(int form, int term);
+
+    /**
+     * Returns the distinct years of the students in a form and term, ascending.
+     */
+    List<Integer> getStudentYears(int form, int term);
+
+    // -----------------------------------------
+    // Teachers
+    // -----------------------------------------
+
+    /**
+     * @return the stored teacher, or null if nothing was inserted (e.g. the staff number is taken).
+     */
+    TeacherRow addTeacher(String name, String staffNumber, String idPassport);
+
+    List<TeacherRow> getAllTeachers();
+
+    /**
+     * @return true if a teacher was deleted.
+     */
+    boolean deleteTeacher(String staffNumber);
+
+    boolean addTeacherSubject(String teacherId, String subject, int form, int term);
+
+    List<TeacherSubjectRow> getTeacherSubjects(String teacherId);
+
+    List<String> getSubjectsForTeacher(String teacherId);
+
+    boolean deleteTeacherSubject(int id);
+
+    // -----------------------------------------
+    // Subjects
+    // -----------------------------------------
+
+    List<String> getAllSubjectNames();
+
+    List<SubjectRow> getAllSubjects();
+
+    List<SubjectRow> searchSubjectsByName(String query);
+
+    /**
+     * @param code optional short code such as "MAT"; null when not used.
+     * @return the stored subject with its new id, or null if nothing was inserted (e.g. the code is taken).
+     */
+    SubjectRow addSubject(String name, String code, String description);
+
+    void updateSubject(int id, String name, String code, String description);
+
+    /**
+     * Returns an index of the current subjects by name, code and id.
+     * Implementations that cache subjects return the same instance until subjects change.
+     */
+    default SubjectDictionary getSubjectDictionary() {
+        return SubjectDictionary.of(getAllSubjects());
+    }
+
+    /**
+     * Deletes a subject with its results, taking them out of the term aggregates.
+     *
+     * @return true if a subject was deleted.
+     */
+    boolean deleteSubject(int id);
+
+    // -----------------------------------------
+    // Results
+    // -----------------------------------------
+
+    List<ResultRow> getIndividualResults(int admno);
+
+    List<GroupResultRow> getGroupResults(int form, int term, int year, String subject);
+
+    /**
+     * Returns the next page of a form/term/year cohort's results, ordered by (admno, subjectId).
+     */
+    List<CohortResultRow> getResultsPage(int form, int term, int year, int afterAdmno, int afterSubjectId, int limit);
+
+    /**
+     * Passes every result of a form/term/year cohort, ordered by (admno, subjectId), to {@code consumer}.
+     *
+     * @return the number of rows streamed, or -1 on failure.
+     */
+    int streamResults(int form, int term, int year, Consumer<CohortResultRow> consumer);
+
+    /**
+     * Returns a student's results for a form/term/year.
+     */
+    List<ResultRow> getResultsForStudent(int admno, int form, int term, int year);
+
+    /**
+     * Returns the newest year a student has results for in a form and term, or null if none.
+     */
+    Integer getNewestResultYear(int admno, int form, int term);
+
+    List<StudentRow> getStudentsForSubject(int subjectId, int term);
+
+    /**
+     * Returns the class list of a form/term/year, in admno order, with each student's marks
+     * in the subject; students with no results row yet have zero marks.
+     */
+    List<MarkRow> getMarksForSubject(int subjectId, int form, int term, int year);
+
+    /**
+     * Inserts or updates marks keyed by (admno, subjectId, form, term, year), all or nothing.
+     * In the same transaction the students' {@link TermAggregate}s are updated and the
+     * stored positions and term outcomes of the cohorts touched are cleared.
+     */
+    boolean saveMarks(List<MarkRow> marks);
+
+    /**
+     * Returns the distinct result years up to the current year, ascending.
+     */
+    List<Integer> getYearsFromDatabase();
+
+    // -----------------------------------------
+    // Rankings
+    // -----------------------------------------
+
+    /**
+     * Replaces the stored positions of a form/term/year cohort, all or nothing.
+     */
+    boolean saveRankings(int form, int term, int year, List<RankRow> rankings);
+
+    /**
+     * Returns the stored positions of a cohort: overall first, then by subject id, each in merit order.
+     */
+    List<RankRow> getRankings(int form, int term, int year);
+
+    /**
+     * Returns one student's stored positions for a form/term/year: overall first, then by subject id.
+     */
+    List<RankRow> getStudentRankings(int admno, int form, int term, int year);
+
+    // -----------------------------------------
+    // Term outcomes
+    // -----------------------------------------
+
+    /**
+     * Replaces the outcomes of a closed form/term/year and copies each student's grade and
+     * promotion status onto the students table, in one transaction.
+     */
+    boolean saveTermOutcomes(int form, int term, int year, List<TermOutcome> outcomes);
+
+    /**
+     * Returns a student's outcome for a form/term/year, or null if that term is not closed.
+     */
+    TermOutcome getTermOutcome(int admno, int form, int term, int year);
+
+    /**
+     * Returns the stored outcomes of a form/term/year cohort in admno order; empty if it is not closed.
+     */
+    List<TermOutcome> getTermOutcomes(int form, int term, int year);
+
+    // -----------------------------------------
+    // Term aggregates
+    // -----------------------------------------
+
+    /**
+     * Returns the result totals of every student in a form/term/year cohort, in admno order.
+     */
+    List<TermAggregate> getTermAggregates(int form, int term, int year);
+
+    /**
+     * Returns a student's result totals for a form/term/year, or null if they have no results.
+     */
+    TermAggregate getTermAggregate(int admno, int form, int term, int year);
+}
@@ -0,0 +1,180 @@
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Brings a database up to the current schema by applying the numbered scripts
+ * under src/db/migration in order. Applied versions are recorded in the
+ * schema_version table, so each script runs once per database.
+ *
+ * To change the schema, add a new V&lt;n&gt;__description.sql file and list it in
+ * {@link #MIGRATIONS}; never edit a script that has already been released.
+ * A change that depends on what the database already holds is written as a
+ * {@link JavaMigration} instead, listed by name without the .sql extension.
+ */
+public final class SchemaMigrator {
+
+    private static final String MIGRATION_DIRECTORY = "/db/migration/";
+
+    // In version order. Classpath directories cannot be listed reliably inside a jar.
+    private static final String[] MIGRATIONS = {
+            "V1__baseline.sql",
+            "V2__report_indexes.sql",
+            "V3__subject_codes.sql",
+            "V4__rankings.sql",
+            "V5__term_outcomes.sql",
+            "V6__student_term_aggregates.sql",
+            "V7__student_sort_indexes.sql",
+            "V8__results_entry_key",
+    };
+
+    /**
+     * A migration step written in Java, run on the migrating connection.
+     */
+    private interface JavaMigration {
+        void apply(Connection connection) throws SQLException;
+    }
+
+    // The entries of MIGRATIONS that have no .sql script
+    private static final Map<String, JavaMigration> JAVA_MIGRATIONS = Map.of(
+            "V8__results_entry_key", SchemaMigrator::addResultsEntryKey);
+
+    private static final List<String> RESULTS_ENTRY_COLUMNS = List.of("admno", "form", "term", "year", "subject_id");
+
+    private SchemaMigrator() {
+    }
+
+    /**
+     * Applies every migration newer than the database's current version.
+     *
+     * @return the versions applied by this call, in order (empty if already up to date).
+     */
+    public static List<Integer> migrate(ConnectionPool pool) throws SQLException, IOException {
+        List<Integer> applied = new ArrayList<>();
+        try (Connection connection = pool.getConnection()) {
+            createVersionTable(connection);
+            int current = currentVersion(connection);
+            for (String script : MIGRATIONS) {
+                int version = versionOf(script);
+                if (version <= current) {
+                    continue;
+                }
+                long start = System.nanoTime();
+                // MySQL commits DDL implicitly, so a failed script can be left half applied;
+                // the version row is only written once every statement has succeeded.
+                if (script.endsWith(".sql")) {
+                    SqlScript.run(connection, MIGRATION_DIRECTORY + script);
+                } else {
+                    JAVA_MIGRATIONS.get(script).apply(connection);
+                }
+                recordVersion(connection, version, script, (System.nanoTime() - start) / 1_000_000);
+                System.out.println("Applied schema migration " + script);
+                applied.add(version);
+            }
+        }
+        return applied;
+    }
+
+    private static void createVersionTable(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                    "version INT PRIMARY KEY, " +
+                    "script VARCHAR(200) NOT NULL, " +
+                    "execution_ms BIGINT NOT NULL, " +
+                    "installed_on TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+        }
+    }
+
+    private static int currentVersion(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT MAX(version) FROM schema_version")) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    private static void recordVersion(Connection connection, int version, String script, long executionMillis) throws SQLException {
+        String query = "INSERT INTO schema_version (version, script, execution_ms) VALUES (?, ?, ?)";
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setInt(1, version);
+            statement.setString(2, script);
+            statement.setLong(3, executionMillis);
+            statement.executeUpdate();
+        }
+    }
+
+    // -----------------------------------------
+    // V8: uk_results_entry
+    // -----------------------------------------
+
+    /**
+     * Adds uk_results_entry to a results table made before V1 declared it; V1 only creates
+     * the table when it is missing. Does nothing if a unique key on the entry columns exists.
+     * Duplicate entries are never resolved here: the migration fails and lists them, so
+     * someone can decide which marks are right before the key is added.
+     */
+    private static void addResultsEntryKey(Connection connection) throws SQLException {
+        if (hasUniqueKey(connection, "results", RESULTS_ENTRY_COLUMNS)) {
+            return;
+        }
+        String columns = String.join(", ", RESULTS_ENTRY_COLUMNS);
+        String query = "SELECT " + columns + ", COUNT(*) AS copies FROM results GROUP BY " + columns +
+                " HAVING COUNT(*) > 1 ORDER BY " + columns;
+        List<String> duplicates = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            while (resultSet.next()) {
+                duplicates.add(String.format("admno %d, form %d, term %d, year %d, subject %d (%d rows)",
+                        resultSet.getInt("admno"), resultSet.getInt("form"), resultSet.getInt("term"),
+                        resultSet.getInt("year"), resultSet.getInt("subject_id"), resultSet.getInt("copies")));
+            }
+        }
+        if (!duplicates.isEmpty()) {
+            throw new SQLException("Cannot add uk_results_entry: " + duplicates.size()
+                    + " result entries are stored more than once. Delete the wrong rows and restart. "
+                    + "First ones: " + String.join("; ", duplicates.subList(0, Math.min(10, duplicates.size()))));
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE results ADD CONSTRAINT uk_results_entry UNIQUE (" + columns + ")");
+            // V6 summed whatever results held then, including rows deleted since to clear duplicates
+            statement.execute("DELETE FROM student_term_aggregates");
+            statement.execute("INSERT INTO student_term_aggregates (admno, form, term, year, mark_sum, subject_count) " +
+                    "SELECT admno, form, term, year, SUM(total), COUNT(*) FROM results GROUP BY admno, form, term, year");
+        }
+    }
+
+    /**
+     * True if {@code table} has a unique index on exactly {@code columns}, in any order.
+     */
+    private static boolean hasUniqueKey(Connection connection, String table, List<String> columns) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        Map<String, Set<String>> indexColumns = new HashMap<>();
+        try (ResultSet resultSet = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), table, true, false)) {
+            while (resultSet.next()) {
+                String column = resultSet.getString("COLUMN_NAME");
+                if (column != null) {
+                    indexColumns.computeIfAbsent(resultSet.getString("INDEX_NAME"), name -> new HashSet<>())
+                            .add(column.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return indexColumns.containsValue(new HashSet<>(columns));
+    }
+
+    /**
+     * Parses the version number from a name like "V12__add_rankings.sql".
+     */
+    private static int versionOf(String script) {
+        return Integer.parseInt(script.substring(1, script.indexOf("__")));
+    }
+}
@@ -0,0 +1,265 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * In-memory substring search over rows such as students, teachers or subjects,
+ * so search boxes can filter on every keystroke without a database query.
+ *
+ * Every search term of a row (name, admission number, staff number, ...) is cut into
+ * all its 1-, 2- and 3-character grams, and each gram keeps a posting list of the rows
+ * containing it. A query of up to three characters is a single posting list; a longer
+ * one intersects the lists of its trigrams and confirms the few candidates with
+ * {@code contains}. Rows are added, replaced and removed one at a time; removed rows
+ * stay in the posting lists as tombstones until enough have piled up to rebuild.
+ *
+ * Matching ignores case and repeated whitespace. All methods are synchronized, so
+ * the index can be filled on a background thread and searched from the FX thread.
+ *
+ * @param <K> the row's key, e.g. admission number
+ * @param <T> the row type
+ */
+public final class SearchIndex<K, T> {
+
+    // Rebuild once this many removed rows are still in the posting lists (and they outnumber live ones)
+    private static final int COMPACT_THRESHOLD = 1024;
+
+    private final Function<T, K> keyOf;
+    private final Function<T, List<String>> termsOf;
+    private final Comparator<T> order;
+
+    // Document ids are assigned in increasing order, so every posting list stays sorted
+    private final Map<K, Integer> documentOf = new HashMap<>();
+    private final List<T> rows = new ArrayList<>();          // document id -> row, null once removed
+    private final List<String[]> terms = new ArrayList<>();  // document id -> normalized terms
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private int removed;
+
+    /**
+     * @param keyOf   identifies a row; putting a row with an existing key replaces it
+     * @param termsOf the texts a row is found by
+     * @param order   the order results are returned in
+     */
+    public SearchIndex(Function<T, K> keyOf, Function<T, List<String>> termsOf, Comparator<T> order) {
+        this.keyOf = keyOf;
+        this.termsOf = termsOf;
+        this.order = order;
+    }
+
+    /**
+     * Adds a row, or replaces the row with the same key.
+     */
+    public synchronized void put(T row) {
+        remove(keyOf.apply(row));
+        int document = rows.size();
+        String[] normalized = termsOf.apply(row).stream()
+                .filter(term -> term != null)
+                .map(SearchIndex::normalize)
+                .toArray(String[]::new);
+        rows.add(row);
+        terms.add(normalized);
+        documentOf.put(keyOf.apply(row), document);
+
+        for (String term : normalized) {
+            for (int i = 0; i < term.length(); i++) {
+                for (int length = 1; length <= 3 && i + length <= term.length(); length++) {
+                    postings.computeIfAbsent(gram(term, i, length), ignored -> new Postings()).add(document);
+                }
+            }
+        }
+    }
+
+    public synchronized void putAll(Collection<? extends T> newRows) {
+        for (T row : newRows) {
+            put(row);
+        }
+    }
+
+    /**
+     * Removes the row with this key, if present.
+     *
+     * @return true if a row was removed.
+     */
+    public synchronized boolean remove(K key) {
+        Integer document = documentOf.remove(key);
+        if (document == null) {
+            return false;
+        }
+        rows.set(document, null);
+        terms.set(document, null);
+        removed++;
+        if (removed >= COMPACT_THRESHOLD && removed > documentOf.size()) {
+            compact();
+        }
+        return true;
+    }
+
+    /**
+     * Drops every row.
+     */
+    public synchronized void clear() {
+        documentOf.clear();
+        rows.clear();
+        terms.clear();
+        postings.clear();
+        removed = 0;
+    }
+
+    public synchronized int size() {
+        return documentOf.size();
+    }
+
+    /**
+     * Every row, in result order.
+     */
+    public synchronized List<T> all() {
+        List<T> all = new ArrayList<>(documentOf.size());
+        for (T row : rows) {
+            if (row != null) {
+                all.add(row);
+            }
+        }
+        all.sort(order);
+        return all;
+    }
+
+    /**
+     * Rows with a term containing {@code query}; a blank query returns {@link #all()}.
+     */
+    public synchronized List<T> search(String query) {
+        String needle = normalize(query);
+        if (needle.isEmpty()) {
+            return all();
+        }
+
+        // The trigrams of the query (or the whole query if shorter), rarest first
+        int gramLength = Math.min(3, needle.length());
+        List<Postings> lists = new ArrayList<>();
+        for (int i = 0; i + gramLength <= needle.length(); i++) {
+            Postings list = postings.get(gram(needle, i, gramLength));
+            if (list == null) {
+                return List.of();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+
+        Postings rarest = lists.get(0);
+        List<T> matches = new ArrayList<>();
+        candidates:
+        for (int i = 0; i < rarest.size; i++) {
+            int document = rarest.documents[i];
+            T row = rows.get(document);
+            if (row == null) {
+                continue;
+            }
+            for (int j = 1; j < lists.size(); j++) {
+                if (!lists.get(j).contains(document)) {
+                    continue candidates;
+                }
+            }
+            // Sharing every trigram does not make the query a substring, so check the text
+            if (needle.length() > 3 && !anyContains(terms.get(document), needle)) {
+                continue;
+            }
+            matches.add(row);
+        }
+        matches.sort(order);
+        return matches;
+    }
+
+    /**
+     * Whether {@code row} would be among the results of {@code query}, e.g. to decide
+     * if a row just added belongs in the results on screen.
+     */
+    public boolean matches(T row, String query) {
+        String needle = normalize(query);
+        if (needle.isEmpty()) {
+            return true;
+        }
+        for (String term : termsOf.apply(row)) {
+            if (term != null && normalize(term).contains(needle)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean anyContains(String[] documentTerms, String needle) {
+        for (String term : documentTerms) {
+            if (term.contains(needle)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void compact() {
+        List<T> live = new ArrayList<>(documentOf.size());
+        for (T row : rows) {
+            if (row != null) {
+                live.add(row);
+            }
+        }
+        clear();
+        putAll(live);
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = normalized.length() > 0;
+            } else {
+                if (space) {
+                    normalized.append(' ');
+                    space = false;
+                }
+                normalized.append(c);
+            }
+        }
+        return normalized.toString().toLowerCase(Locale.ROOT);
+    }
+
+    // Up to three chars packed 16 bits each; the unused positions stay 0
+    private static long gram(String text, int start, int length) {
+        long gram = 0;
+        for (int i = 0; i < 3; i++) {
+            gram = (gram << 16) | (i < length ? text.charAt(start + i) : 0);
+        }
+        return gram;
+    }
+
+    /**
+     * A growable, sorted array of document ids.
+     */
+    private static final class Postings {
+        int[] documents = new int[4];
+        int size;
+
+        void add(int document) {
+            if (size > 0 && documents[size - 1] == document) {
+                return; // The gram occurs more than once in this row
+            }
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+            }
+            documents[size++] = document;
+        }
+
+        boolean contains(int document) {
+            return Arrays.binarySearch(documents, 0, size, document) >= 0;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs a search box's queries in the background and shows only the newest result.
+ *
+ * {@link #submit(String)} waits for typing to pause before searching, so a burst of
+ * keystrokes becomes one search. A new query cancels the pending and in-flight
+ * searches of older ones, and a result is only handed to the FX thread if no newer
+ * query was made while it ran. Counts are kept per pipeline name in {@link #stats()}.
+ *
+ * Call {@link #submit}, {@link #searchNow} and {@link #cancel} from the FX thread.
+ *
+ * @param <R> the search result, e.g. the rows to show
+ */
+public final class SearchPipeline<R> {
+
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 150;
+
+    private static final ScheduledExecutorService DEBOUNCE = Executors.newSingleThreadScheduledExecutor(
+            daemonThreads("search-debounce"));
+    private static final ExecutorService SEARCHES = Executors.newCachedThreadPool(daemonThreads("search-worker"));
+    private static final ConcurrentHashMap<String, Counters> COUNTERS = new ConcurrentHashMap<>();
+
+    private final Function<String, R> search;
+    private final Consumer<R> publish;
+    private final long debounceMillis;
+    private final Counters counters;
+
+    private final AtomicLong latest = new AtomicLong(); // Generation of the newest query
+    private ScheduledFuture<?> pending;                 // Guarded by this
+    private Future<?> running;                          // Guarded by this
+
+    /**
+     * @param name    groups the counters in {@link #stats()}, e.g. "students"
+     * @param search  runs on a background thread; may be interrupted once superseded
+     * @param publish shows a result, on the FX thread
+     */
+    public SearchPipeline(String name, Function<String, R> search, Consumer<R> publish) {
+        this(name, search, publish, DEFAULT_DEBOUNCE_MILLIS);
+    }
+
+    public SearchPipeline(String name, Function<String, R> search, Consumer<R> publish, long debounceMillis) {
+        this.search = search;
+        this.publish = publish;
+        this.debounceMillis = debounceMillis;
+        this.counters = COUNTERS.computeIfAbsent(name, Counters::new);
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Searches for {@code query} once no newer query has arrived for the debounce delay.
+     */
+    public void submit(String query) {
+        schedule(query, debounceMillis);
+    }
+
+    /**
+     * Searches for {@code query} straight away, e.g. to refresh after a write.
+     */
+    public void searchNow(String query) {
+        schedule(query, 0);
+    }
+
+    /**
+     * Drops the pending and in-flight searches; nothing is published until the next query.
+     */
+    public synchronized void cancel() {
+        latest.incrementAndGet();
+        supersede();
+    }
+
+    private synchronized void schedule(String query, long delayMillis) {
+        long generation = latest.incrementAndGet();
+        counters.submitted.increment();
+        supersede();
+        pending = DEBOUNCE.schedule(() -> start(generation, query), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Caller holds the lock
+    private void supersede() {
+        if (pending != null && pending.cancel(false)) {
+            counters.coalesced.increment();
+        }
+        pending = null;
+        if (running != null && running.cancel(true)) {
+            counters.cancelled.increment();
+        }
+        running = null;
+    }
+
+    private synchronized void start(long generation, String query) {
+        if (generation != latest.get()) {
+            counters.coalesced.increment(); // Superseded after the timer fired, too late to cancel
+            return;
+        }
+        pending = null;
+        counters.executed.increment();
+        running = SEARCHES.submit(() -> {
+            R result;
+            try {
+                result = search.apply(query);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                return;
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            AsyncDatabaseOperations.FX_THREAD.execute(() -> {
+                if (generation == latest.get()) {
+                    counters.published.increment();
+                    publish.accept(result);
+                } else {
+                    counters.stale.increment();
+                }
+            });
+        });
+    }
+
+    // -----------------------------------------
+    // Metrics
+    // -----------------------------------------
+
+    /**
+     * Counts for one pipeline name, summed over every view that used it.
+     *
+     * @param submitted queries made, typed or programmatic
+     * @param coalesced queries replaced by a newer one before their search started
+     * @param executed  searches started
+     * @param cancelled searches interrupted because a newer query arrived
+     * @param stale     results finished but dropped because a newer query arrived first
+     * @param published results shown
+     */
+    public record Stats(String name, long submitted, long coalesced, long executed, long cancelled, long stale,
+                        long published) {
+
+        /**
+         * Fraction of queries that never ran a search.
+         */
+        public double coalescedRatio() {
+            return submitted == 0 ? 0 : (double) coalesced / submitted;
+        }
+    }
+
+    /**
+     * Counts for every pipeline name, by name.
+     */
+    public static List<Stats> stats() {
+        List<Stats> stats = new ArrayList<>();
+        COUNTERS.values().forEach(counters -> stats.add(counters.stats()));
+        stats.sort(Comparator.comparing(Stats::name));
+        return stats;
+    }
+
+    private static final class Counters {
+        final String name;
+        final LongAdder submitted = new LongAdder();
+        final LongAdder coalesced = new LongAdder();
+        final LongAdder executed = new LongAdder();
+        final LongAdder cancelled = new LongAdder();
+        final LongAdder stale = new LongAdder();
+        final LongAdder published = new LongAdder();
+
+        Counters(String name) {
+            this.name = name;
+        }
+
+        Stats stats() {
+            return new Stats(name, submitted.sum(), coalesced.sum(), executed.sum(), cancelled.sum(), stale.sum(),
+                    published.sum());
+        }
+    }
+}
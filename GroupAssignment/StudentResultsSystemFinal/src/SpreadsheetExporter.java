@@ -0,0 +1,120 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills a {@link SpreadsheetWriter} with results: a cohort or a whole year from the
+ * streamed {@link Broadsheet}, or a group or individual report already on screen.
+ */
+public final class SpreadsheetExporter {
+
+    // The forms and terms the results screens offer
+    private static final int FORMS = 4;
+    private static final int TERMS = 3;
+
+    private SpreadsheetExporter() {
+    }
+
+    /**
+     * One row per student in a form/term/year with a column per subject.
+     *
+     * @return the number of students, or -1 if reading the results failed.
+     */
+    public static int writeBroadsheet(Broadsheet broadsheet, SpreadsheetWriter writer) throws IOException {
+        writer.row(header(broadsheet, false));
+        return writeRows(broadsheet, writer, null);
+    }
+
+    /**
+     * Every cohort of {@code year} in one sheet, form by form and term by term, with
+     * Form and Term columns in front. Each cohort is streamed in turn.
+     *
+     * @return the number of rows written, or -1 if reading the results failed.
+     */
+    public static int writeYear(ResultsRepository repository, int year, SpreadsheetWriter writer) throws IOException {
+        int written = 0;
+        boolean headerWritten = false;
+        for (int form = 1; form <= FORMS; form++) {
+            for (int term = 1; term <= TERMS; term++) {
+                Broadsheet broadsheet = new Broadsheet(repository, form, term, year);
+                if (!headerWritten) {
+                    writer.row(header(broadsheet, true));
+                    headerWritten = true;
+                }
+                int students = writeRows(broadsheet, writer, new Object[] {form, term});
+                if (students < 0) {
+                    return -1;
+                }
+                written += students;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * The rows of a group or individual report as shown in its table.
+     */
+    public static int writeReport(ReportSnapshot snapshot, SpreadsheetWriter writer) throws IOException {
+        boolean positions = snapshot.hasPositions();
+        List<Object> header = new ArrayList<>(List.of(snapshot.kind().labelHeader(), "Marks", "Grade"));
+        if (positions) {
+            header.add("Position");
+        }
+        writer.row(header.toArray());
+        for (ReportSnapshot.Line line : snapshot.lines()) {
+            if (positions) {
+                writer.row(line.label(), line.total(), line.grade(), line.isRanked() ? line.position() : null);
+            } else {
+                writer.row(line.label(), line.total(), line.grade());
+            }
+        }
+        return snapshot.lines().size();
+    }
+
+    private static Object[] header(Broadsheet broadsheet, boolean withCohort) {
+        List<Object> header = new ArrayList<>();
+        if (withCohort) {
+            header.add("Form");
+            header.add("Term");
+        }
+        header.add("AdmNo");
+        header.add("Name");
+        for (SubjectRow subject : broadsheet.subjects()) {
+            header.add(Broadsheet.heading(subject));
+        }
+        header.add("Total");
+        header.add("Mean");
+        header.add("Grade");
+        return header.toArray();
+    }
+
+    private static int writeRows(Broadsheet broadsheet, SpreadsheetWriter writer, Object[] prefix) throws IOException {
+        int prefixLength = prefix == null ? 0 : prefix.length;
+        int subjects = broadsheet.subjects().size();
+        Object[] cells = new Object[prefixLength + subjects + 5];
+        if (prefix != null) {
+            System.arraycopy(prefix, 0, cells, 0, prefixLength);
+        }
+        try {
+            return broadsheet.forEach(row -> {
+                int column = prefixLength;
+                cells[column++] = row.admno();
+                cells[column++] = row.studentName();
+                for (int mark : row.marks()) {
+                    cells[column++] = mark == Broadsheet.NO_MARK ? null : mark;
+                }
+                cells[column++] = row.total();
+                cells[column++] = Math.round(row.mean() * 10) / 10.0;
+                cells[column] = row.grade();
+                try {
+                    writer.row(cells);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
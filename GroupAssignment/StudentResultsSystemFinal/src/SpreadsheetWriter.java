@@ -0,0 +1,210 @@
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes a table one row at a time as CSV or as an Excel workbook with a single sheet.
+ *
+ * Rows go straight to the output stream and are not kept, so a writer fed from a
+ * results cursor exports any number of rows in constant memory. Numbers are written
+ * as numeric cells, null as an empty cell and anything else as text.
+ */
+public abstract class SpreadsheetWriter implements Closeable {
+
+    public enum Format {
+        CSV(".csv"),
+        XLSX(".xlsx");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String extension() { return extension; }
+    }
+
+    private int rows;
+
+    public static SpreadsheetWriter open(Format format, OutputStream out, String sheetName) throws IOException {
+        return format == Format.CSV ? new Csv(out) : new Xlsx(out, sheetName);
+    }
+
+    public final void row(Object... cells) throws IOException {
+        writeRow(cells);
+        rows++;
+    }
+
+    /**
+     * Rows written so far, including headers.
+     */
+    public int rowCount() {
+        return rows;
+    }
+
+    protected abstract void writeRow(Object[] cells) throws IOException;
+
+    // -----------------------------------------
+    // CSV
+    // -----------------------------------------
+
+    /**
+     * RFC 4180: comma separated, CRLF line endings, quoted only where needed. A UTF-8
+     * byte order mark is written first so Excel reads names with accents correctly.
+     */
+    private static final class Csv extends SpreadsheetWriter {
+        private final Writer writer;
+
+        Csv(OutputStream out) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+            writer.write('\uFEFF');
+        }
+
+        @Override
+        protected void writeRow(Object[] cells) throws IOException {
+            for (int i = 0; i < cells.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object cell = cells[i];
+                if (cell != null) {
+                    writer.write(quote(cell.toString()));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private static String quote(String text) {
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                return text;
+            }
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    // -----------------------------------------
+    // XLSX
+    // -----------------------------------------
+
+    /**
+     * The smallest workbook Excel and LibreOffice open: the package parts are fixed
+     * text and the sheet XML is written while rows arrive. Text uses inline strings
+     * rather than a shared string table, which would have to be held until the end.
+     */
+    private static final class Xlsx extends SpreadsheetWriter {
+        private static final String CONTENT_TYPES = """
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <Types xmlns="http://schemas.openxmlformats.org/package/2006/content-types">\
+                <Default Extension="rels" ContentType="application/vnd.openxmlformats-package.relationships+xml"/>\
+                <Default Extension="xml" ContentType="application/xml"/>\
+                <Override PartName="/xl/workbook.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml"/>\
+                <Override PartName="/xl/worksheets/sheet1.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml"/>\
+                </Types>""";
+        private static final String ROOT_RELS = """
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">\
+                <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument" Target="xl/workbook.xml"/>\
+                </Relationships>""";
+        private static final String WORKBOOK_RELS = """
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">\
+                <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet" Target="worksheets/sheet1.xml"/>\
+                </Relationships>""";
+
+        private final ZipOutputStream zip;
+        private final Writer writer;
+
+        Xlsx(OutputStream out, String sheetName) throws IOException {
+            zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+            writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), 1 << 16);
+            part("[Content_Types].xml", CONTENT_TYPES);
+            part("_rels/.rels", ROOT_RELS);
+            part("xl/_rels/workbook.xml.rels", WORKBOOK_RELS);
+            part("xl/workbook.xml", """
+                    <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                    <workbook xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main" \
+                    xmlns:r="http://schemas.openxmlformats.org/officeDocument/2006/relationships">\
+                    <sheets><sheet name="%s" sheetId="1" r:id="rId1"/></sheets></workbook>"""
+                    .formatted(escape(sheetName(sheetName))));
+
+            zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                    + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>");
+        }
+
+        private void part(String name, String xml) throws IOException {
+            zip.putNextEntry(new ZipEntry(name));
+            writer.write(xml);
+            writer.flush();
+            zip.closeEntry();
+        }
+
+        @Override
+        protected void writeRow(Object[] cells) throws IOException {
+            writer.write("<row>");
+            for (Object cell : cells) {
+                if (cell == null) {
+                    writer.write("<c/>");
+                } else if (cell instanceof Number number) {
+                    writer.write("<c><v>");
+                    writer.write(number.toString());
+                    writer.write("</v></c>");
+                } else {
+                    writer.write("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+                    writer.write(escape(cell.toString()));
+                    writer.write("</t></is></c>");
+                }
+            }
+            writer.write("</row>");
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.write("</sheetData></worksheet>");
+            writer.flush();
+            zip.closeEntry();
+            zip.close();
+        }
+
+        // Excel limits sheet names to 31 characters and rejects : \ / ? * [ ]
+        private static String sheetName(String name) {
+            String cleaned = name == null ? "" : name.replaceAll("[:\\\\/?*\\[\\]]", " ").trim();
+            if (cleaned.isEmpty()) {
+                return "Sheet1";
+            }
+            return cleaned.length() <= 31 ? cleaned : cleaned.substring(0, 31);
+        }
+
+        private static String escape(String text) {
+            StringBuilder escaped = null;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                String replacement = switch (c) {
+                    case '&' -> "&amp;";
+                    case '<' -> "&lt;";
+                    case '>' -> "&gt;";
+                    case '"' -> "&quot;";
+                    default -> c < 0x20 && c != '\t' && c != '\n' && c != '\r' ? "" : null; // Not allowed in XML 1.0
+                };
+                if (replacement != null && escaped == null) {
+                    escaped = new StringBuilder(text.length() + 16).append(text, 0, i);
+                }
+                if (escaped != null) {
+                    escaped.append(replacement != null ? replacement : String.valueOf(c));
+                }
+            }
+            return escaped == null ? text : escaped.toString();
+        }
+    }
+}
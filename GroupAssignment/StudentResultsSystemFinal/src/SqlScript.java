@@ -0,0 +1,62 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs .sql scripts kept on the classpath (under src/db).
+ * Statements are separated by a semicolon at the end of a line; lines starting
+ * with "--" are comments.
+ */
+public final class SqlScript {
+
+    private SqlScript() {
+    }
+
+    /**
+     * Reads the statements from a classpath resource such as "/db/migration/V1__baseline.sql".
+     */
+    public static List<String> load(String resource) throws IOException {
+        InputStream input = SqlScript.class.getResourceAsStream(resource);
+        if (input == null) {
+            throw new IOException("SQL script not found on classpath: " + resource);
+        }
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                    continue;
+                }
+                current.append(line).append('\n');
+                if (trimmed.endsWith(";")) {
+                    statements.add(current.substring(0, current.lastIndexOf(";")).trim());
+                    current.setLength(0);
+                }
+            }
+        }
+        if (!current.toString().isBlank()) {
+            statements.add(current.toString().trim());
+        }
+        return statements;
+    }
+
+    /**
+     * Executes each statement of the script on the given connection.
+     */
+    public static void run(Connection connection, String resource) throws IOException, SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : load(resource)) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
@@ -14,14 +14,26 @@ import java.util.List;
 public class StudentDashboard extends Application {
 
     private VBox mainContainer;
-    private DatabaseOperations dbOps;
+    private VBox resultDisplayContainer;
+    private ResultsRepository dbOps;
+    private AsyncDatabaseOperations asyncOps;
     private String studentAdmNo; // Dynamically retrieved
+    private int admno;
     private String studentName;  // Dynamically retrieved
 
+    /**
+     * What a result slip shows, all for one year (0 when the student has no results): the marks,
+     * the running totals, plus the stored positions and outcome (null until the term is closed).
+     */
+    private record ResultSlip(int year, List<ResultRow> results, Rankings rankings, SubjectDictionary subjects,
+                              TermAggregate totals, TermOutcome outcome) {
+    }
+
     public StudentDashboard(String studentAdmNo) {
         this.studentAdmNo = studentAdmNo;
-        dbOps = new DatabaseOperations();
-        this.studentName = dbOps.getStudentNameByAdmNo(studentAdmNo); // Retrieve student name dynamically
+        this.admno = Integer.parseInt(studentAdmNo.trim());
+        dbOps = Repositories.get();
+        asyncOps = new AsyncDatabaseOperations(dbOps);
     }
 
     @Override
@@ -38,7 +50,7 @@ public class StudentDashboard extends Application {
         VBox filterContainer = createFilterOptions();
 
         // Result Display Area
-        VBox resultDisplayContainer = new VBox(20);
+        resultDisplayContainer = new VBox(20);
         resultDisplayContainer.setAlignment(Pos.TOP_CENTER);
         resultDisplayContainer.setPadding(new Insets(10));
         resultDisplayContainer.setStyle("-fx-background-color: #f5f5f5; -fx-border-color: #cccccc;");
@@ -49,6 +61,12 @@ public class StudentDashboard extends Application {
         primaryStage.setTitle("Student Dashboard");
         primaryStage.setScene(scene);
         primaryStage.show();
+
+        // Retrieve student name dynamically
+        asyncOps.callAsync(ops -> ops.getStudentNameByAdmNo(admno), name -> {
+            studentName = name;
+            title.setText("Student Dashboard - " + name);
+        });
     }
 
     private VBox createFilterOptions() {
@@ -91,20 +109,31 @@ public class StudentDashboard extends Application {
     }
 
     private void generateResultSlip(int form, int term) {
-        mainContainer.getChildren().removeIf(node -> node instanceof VBox && node != mainContainer.getChildren().get(0));
+        resultDisplayContainer.getChildren().setAll(new ProgressIndicator());
 
+        // Fetch results and positions from the database, all from the newest year the student sat this form and term
+        asyncOps.callAsync(ops -> {
+            Integer year = ops.getNewestResultYear(admno, form, term);
+            if (year == null) {
+                return new ResultSlip(0, List.of(), Rankings.empty(), ops.getSubjectDictionary(), null, null);
+            }
+            return new ResultSlip(year, ops.getResultsForStudent(admno, form, term, year),
+                    Rankings.of(ops.getStudentRankings(admno, form, term, year)), ops.getSubjectDictionary(),
+                    ops.getTermAggregate(admno, form, term, year), ops.getTermOutcome(admno, form, term, year));
+        }, slip -> showResultSlip(form, term, slip));
+    }
+
+    private void showResultSlip(int form, int term, ResultSlip slip) {
+        List<ResultRow> results = slip.results();
         VBox resultSlipContainer = new VBox(20);
         resultSlipContainer.setAlignment(Pos.TOP_CENTER);
         resultSlipContainer.setPadding(new Insets(20));
         resultSlipContainer.setStyle("-fx-border-color: black; -fx-border-width: 2px; -fx-padding: 20px;");
 
-        // Fetch results from the database
-        List<String[]> results = dbOps.getResultsForStudent(studentAdmNo, form, term);
-
         // Student Information
         Text studentInfo = new Text("RESULT SLIP FOR: " + studentName + "\n" +
                 "AdmNo: " + studentAdmNo + "\n" +
-                "Form: " + form + ", Term: " + term);
+                "Form: " + form + ", Term: " + term + (slip.year() == 0 ? "" : ", Year: " + slip.year()));
         studentInfo.setFont(Font.font("Arial", FontWeight.BOLD, 16));
 
         // Table for Results
@@ -116,58 +145,52 @@ public class StudentDashboard extends Application {
         resultsTable.add(new Text("SUBJECT"), 0, 0);
         resultsTable.add(new Text("TOTAL"), 1, 0);
         resultsTable.add(new Text("GRADE"), 2, 0);
+        resultsTable.add(new Text("POSITION"), 3, 0);
 
         int row = 1;
-        int totalScore = 0;
-        int subjectCount = 0;
-        for (String[] result : results) {
-            String subject = result[0];
-            int total = Integer.parseInt(result[1]);
-            String grade = result[2];
-
-            totalScore += total;
-            subjectCount++;
+        for (ResultRow result : results) {
+            String subject = result.subject();
+            int total = result.total();
+            String grade = result.grade();
 
             resultsTable.add(new Text(subject), 0, row);
             resultsTable.add(new Text(String.valueOf(total)), 1, row);
             resultsTable.add(new Text(grade), 2, row);
+            // Position lookups are O(1) against the stored merit list
+            String position = slip.subjects().find(subject)
+                    .flatMap(found -> slip.rankings().subject(found.id(), admno))
+                    .map(RankRow::label)
+                    .orElse("-");
+            resultsTable.add(new Text(position), 3, row);
             row++;
         }
 
-        int average = subjectCount > 0 ? totalScore / subjectCount : 0;
-        String overallGrade = getGradeFromAverage(average);
-
-        // Calculate overall grade and promotion status
-        dbOps.saveOverallGradeAndPromotionStatus(
-                studentAdmNo,        // Admission number
-                overallGrade,        // Overall grade (e.g., A, B, C, etc.)
-                form,                // Current form
-                term,                // Current term
-                overallGrade.equals("F") ? "Repeat Current Term" : "Proceed to Next Term" // Promotion status
-        );
-
-        Text overallGradeText = new Text("Overall Grade: " + overallGrade);
+        // Overall grade and promotion status are decided when the term is closed; this view only reads them
+        TermOutcome outcome = slip.outcome();
+        TermAggregate totals = slip.totals();
+        Text overallGradeText = new Text(outcome == null
+                ? (totals == null ? "Overall Grade: Pending" : String.format("Average so far: %.1f (overall grade pending)", totals.average()))
+                : String.format("Overall Grade: %s (average %.1f)", outcome.overallGrade(), outcome.average()));
         overallGradeText.setFont(Font.font("Arial", FontWeight.BOLD, 14));
 
-        Text promotionStatus = new Text(overallGrade.equals("F") ? "Repeat Current Term" : "Proceed to Next Term");
-        promotionStatus.setFont(Font.font("Arial", FontWeight.BOLD, 14));
-        promotionStatus.setStyle("-fx-text-fill: " + (overallGrade.equals("F") ? "red" : "green") + ";");
+        Text overallPosition = new Text("Overall Position: "
+                + slip.rankings().overall(admno).map(RankRow::label).orElse("Not yet ranked"));
+        overallPosition.setFont(Font.font("Arial", FontWeight.BOLD, 14));
 
-        resultSlipContainer.getChildren().addAll(studentInfo, resultsTable, overallGradeText, promotionStatus);
+        Text promotionStatus = new Text(outcome == null ? "Term not yet closed" : outcome.promotionStatus());
+        promotionStatus.setFont(Font.font("Arial", FontWeight.BOLD, 14));
+        if (outcome != null) {
+            promotionStatus.setStyle("-fx-text-fill: " + (outcome.isPromoted() ? "green" : "red") + ";");
+        }
 
-        mainContainer.getChildren().add(resultSlipContainer);
-    }
+        resultSlipContainer.getChildren().addAll(studentInfo, resultsTable, overallGradeText, overallPosition, promotionStatus);
 
-    private String getGradeFromAverage(int average) {
-        if (average >= 80) return "A";
-        if (average >= 70) return "B";
-        if (average >= 60) return "C";
-        if (average >= 50) return "D";
-        if (average >= 40) return "E";
-        return "F";
+        resultDisplayContainer.getChildren().setAll(resultSlipContainer);
     }
 
     public static void main(String[] args) {
-        launch(args);
+        if (Repositories.openOrShowError()) {
+            launch(args);
+        }
     }
 }
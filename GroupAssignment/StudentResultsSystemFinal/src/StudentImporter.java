@@ -0,0 +1,259 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Admits students in bulk from a CSV or TSV file.
+ * The file is read line by line and inserted in chunks, each chunk in its own
+ * transaction, so a whole Form 1 intake never has to sit in memory at once.
+ *
+ * Expected header (any order, case-insensitive): name, gender, form, term, year.
+ * The year column is optional and defaults to the current year.
+ */
+public class StudentImporter {
+
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+
+    private final ResultsRepository dbOps;
+    private final int chunkSize;
+
+    public StudentImporter(ResultsRepository dbOps) {
+        this(dbOps, DEFAULT_CHUNK_SIZE);
+    }
+
+    public StudentImporter(ResultsRepository dbOps, int chunkSize) {
+        this.dbOps = dbOps;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports a file, using tabs as the delimiter for .tsv/.tab files and commas otherwise.
+     */
+    public ImportReport importFile(Path file) throws IOException {
+        String fileName = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        char delimiter = fileName.endsWith(".tsv") || fileName.endsWith(".tab") ? '\t' : ',';
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importFrom(reader, delimiter);
+        }
+    }
+
+    /**
+     * Streams rows from the reader, validating each one and inserting valid rows in chunks.
+     */
+    public ImportReport importFrom(Reader source, char delimiter) throws IOException {
+        long start = System.nanoTime();
+        BufferedReader reader = source instanceof BufferedReader buffered ? buffered : new BufferedReader(source);
+        ImportReport report = new ImportReport();
+        try {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                report.errors.add(new RowError(1, "File is empty"));
+                return report;
+            }
+            Map<String, Integer> columns = readHeader(headerLine, delimiter);
+            for (String required : new String[]{"name", "gender", "form", "term"}) {
+                if (!columns.containsKey(required)) {
+                    report.errors.add(new RowError(1, "Missing required column: " + required));
+                }
+            }
+            if (!report.errors.isEmpty()) {
+                return report;
+            }
+
+            int defaultYear = Year.now().getValue();
+            List<StudentRow> chunk = new ArrayList<>(chunkSize);
+            List<Integer> chunkLines = new ArrayList<>(chunkSize);
+            String line;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                report.rowsRead++;
+                try {
+                    chunk.add(parseRow(splitLine(line, delimiter), columns, defaultYear));
+                    chunkLines.add(lineNumber);
+                } catch (IllegalArgumentException e) {
+                    report.errors.add(new RowError(lineNumber, e.getMessage()));
+                }
+                if (chunk.size() == chunkSize) {
+                    flush(chunk, chunkLines, report);
+                }
+            }
+            flush(chunk, chunkLines, report);
+            return report;
+        } finally {
+            report.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        }
+    }
+
+    /**
+     * Inserts one chunk as a single batch. If the batch is rejected, the rows are
+     * retried one at a time so a single bad row does not fail its neighbours. If the
+     * first retry is rejected too the database is taken to be refusing every insert,
+     * and the rest of the chunk is reported as not imported instead of being tried.
+     */
+    private void flush(List<StudentRow> chunk, List<Integer> chunkLines, ImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Integer> admissionNumbers = dbOps.addStudents(chunk);
+        if (admissionNumbers.size() == chunk.size()) {
+            for (int i = 0; i < chunk.size(); i++) {
+                report.admitted.add(new Admission(chunkLines.get(i), admissionNumbers.get(i), chunk.get(i).name()));
+            }
+        } else {
+            boolean anyAdmitted = false;
+            for (int i = 0; i < chunk.size(); i++) {
+                List<Integer> single = dbOps.addStudents(List.of(chunk.get(i)));
+                if (single.size() == 1) {
+                    report.admitted.add(new Admission(chunkLines.get(i), single.get(0), chunk.get(i).name()));
+                    anyAdmitted = true;
+                } else {
+                    report.errors.add(new RowError(chunkLines.get(i), "Rejected by the database"));
+                    if (!anyAdmitted) {
+                        for (int rest = i + 1; rest < chunk.size(); rest++) {
+                            report.errors.add(new RowError(chunkLines.get(rest), "Not imported: the database rejected the batch"));
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        chunk.clear();
+        chunkLines.clear();
+    }
+
+    private Map<String, Integer> readHeader(String headerLine, char delimiter) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitLine(headerLine, delimiter);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT), i);
+        }
+        return columns;
+    }
+
+    private StudentRow parseRow(List<String> fields, Map<String, Integer> columns, int defaultYear) {
+        String name = field(fields, columns, "name");
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("Name is required");
+        }
+        String gender = normalizeGender(field(fields, columns, "gender"));
+        int form = parseNumber(field(fields, columns, "form"), "Form", 1, 4);
+        int term = parseNumber(field(fields, columns, "term"), "Term", 1, 3);
+        String yearText = field(fields, columns, "year");
+        int year = yearText.isEmpty() ? defaultYear : parseNumber(yearText, "Year", 2000, defaultYear + 1);
+        return new StudentRow(0, name, gender, form, term, year);
+    }
+
+    private String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return "";
+        }
+        return fields.get(index).trim();
+    }
+
+    private String normalizeGender(String value) {
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "m":
+            case "male":
+                return "Male";
+            case "f":
+            case "female":
+                return "Female";
+            default:
+                throw new IllegalArgumentException("Gender must be Male or Female, got '" + value + "'");
+        }
+    }
+
+    private int parseNumber(String value, String label, int min, int max) {
+        int number;
+        try {
+            number = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(label + " must be a number, got '" + value + "'");
+        }
+        if (number < min || number > max) {
+            throw new IllegalArgumentException(label + " must be between " + min + " and " + max + ", got " + number);
+        }
+        return number;
+    }
+
+    /**
+     * Splits one line on the delimiter, honouring double-quoted fields ("a, b" and "" escapes).
+     */
+    private static List<String> splitLine(String line, char delimiter) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    /**
+     * A student admitted by the import, with the line it came from.
+     */
+    public record Admission(int lineNumber, int admno, String name) {
+    }
+
+    /**
+     * A row that could not be imported.
+     */
+    public record RowError(int lineNumber, String message) {
+    }
+
+    /**
+     * Outcome of an import: admitted students, rejected rows and timing.
+     */
+    public static class ImportReport {
+        private final List<Admission> admitted = new ArrayList<>();
+        private final List<RowError> errors = new ArrayList<>();
+        private int rowsRead;
+        private long elapsedMillis;
+
+        public List<Admission> getAdmitted() { return admitted; }
+        public List<RowError> getErrors() { return errors; }
+        public int getRowsRead() { return rowsRead; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        public double getRowsPerSecond() {
+            return elapsedMillis == 0 ? admitted.size() : admitted.size() * 1000.0 / elapsedMillis;
+        }
+
+        public String getSummary() {
+            return String.format("Read %d rows, admitted %d, rejected %d in %d ms (%.0f rows/s)",
+                    rowsRead, admitted.size(), errors.size(), elapsedMillis, getRowsPerSecond());
+        }
+    }
+}
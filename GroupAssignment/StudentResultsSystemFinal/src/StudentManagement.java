@@ -1,24 +1,52 @@
-import javafx.beans.property.SimpleIntegerProperty;
-import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.FXCollections;
 import javafx.geometry.Pos;
 import javafx.scene.Parent;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Year;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
-public class StudentManagement {
+public class StudentManagement implements ManagementView {
 
-    private final DatabaseOperations dbOps = new DatabaseOperations();
-    private TableView<Student> studentTable;
+    private final ResultsRepository dbOps = Repositories.get();
+    private final AsyncDatabaseOperations asyncOps = new AsyncDatabaseOperations(dbOps);
+    private static final int PAGE_SIZE = 200;
+    // Pages kept around the visible rows; at most 2,000 students are held in memory
+    private static final int MAX_PAGES = 10;
+
+    private TableView<StudentRow> studentTable;
+    private TextField searchField;
+
+    // The table's rows when not searching: paged in from the database as they scroll into view
+    private final PagedList<StudentRow> studentPages = new PagedList<>(asyncOps, PAGE_SIZE, MAX_PAGES);
+    private StudentSort pagedSort = StudentSort.ADMNO;
+    private boolean pagedDescending;
+
+    // Searched on every keystroke instead of the database; filled once, then kept in step with writes
+    private final SearchIndex<Integer, StudentRow> searchIndex = new SearchIndex<>(StudentRow::admno,
+            row -> List.of(row.name(), String.valueOf(row.admno())), Comparator.comparingInt(StudentRow::admno));
+    private final AtomicInteger indexedUpTo = new AtomicInteger(); // Highest admno in the index
+    private boolean searchIndexReady;
+
+    // Typing is debounced and searched off the FX thread; only the newest query's rows are shown
+    private final SearchPipeline<List<StudentRow>> searchPipeline =
+            new SearchPipeline<>("students", searchIndex::search, this::showSearchResults);
 
     /**
      * Returns the Student Management UI as a Parent object.
      * This can be dynamically added to any layout.
      */
+    @Override
     public Parent getView() {
         VBox studentView = new VBox(20);
         studentView.setAlignment(Pos.TOP_CENTER);
@@ -32,111 +60,207 @@ public class StudentManagement {
         setupStudentTable();
 
         // Search field
-        TextField searchField = new TextField();
-        searchField.setPromptText("Search for a student...");
+        searchField = new TextField();
+        searchField.setPromptText("Search by name or admission number...");
         searchField.setPrefWidth(300);
 
         // Add new student button
         Button addStudentButton = new Button("Add New Student");
         addStudentButton.setStyle("-fx-font-size: 14px;");
 
+        // Bulk admission from a CSV/TSV file
+        Button importStudentsButton = new Button("Import Students");
+        importStudentsButton.setStyle("-fx-font-size: 14px;");
+
         // Delete selected student button
         Button deleteStudentButton = new Button("Delete Selected Student");
         deleteStudentButton.setStyle("-fx-font-size: 14px;");
 
         // Add action listeners
         addStudentButton.setOnAction(event -> showAddStudentDialog());
+        importStudentsButton.setOnAction(event -> importStudents());
         deleteStudentButton.setOnAction(event -> deleteSelectedStudent());
 
         // Search functionality
-        searchField.textProperty().addListener((observable, oldValue, newValue) -> filterStudents(newValue));
+        searchField.textProperty().addListener((observable, oldValue, newValue) -> filterStudents(newValue, false));
 
         // Buttons container
         HBox buttonContainer = new HBox(10);
         buttonContainer.setAlignment(Pos.CENTER);
-        buttonContainer.getChildren().addAll(addStudentButton, deleteStudentButton);
+        buttonContainer.getChildren().addAll(addStudentButton, importStudentsButton, deleteStudentButton);
 
         // Add components to the view
         studentView.getChildren().addAll(heading, searchField, studentTable, buttonContainer);
 
         // Load students into the table
         loadStudents();
+        buildSearchIndex();
 
         return studentView;
     }
 
     /**
-     * Set up the student table with columns.
+     * Reloads the students and the search index, keeping the search and sort order.
      */
-    private void setupStudentTable() {
-        TableColumn<Student, Integer> admnoColumn = new TableColumn<>("Adm No");
-        admnoColumn.setCellValueFactory(new PropertyValueFactory<>("admno"));
-
-        TableColumn<Student, String> nameColumn = new TableColumn<>("Name");
-        nameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
-
-        TableColumn<Student, String> genderColumn = new TableColumn<>("Gender");
-        genderColumn.setCellValueFactory(new PropertyValueFactory<>("gender"));
+    @Override
+    public void refresh() {
+        searchIndexReady = false;
+        searchIndex.clear();
+        indexedUpTo.set(0);
+        buildSearchIndex();
+        refreshStudents();
+    }
 
-        TableColumn<Student, Integer> formColumn = new TableColumn<>("Form");
-        formColumn.setCellValueFactory(new PropertyValueFactory<>("form"));
+    /**
+     * Set up the student table with columns. Each column's user data is the order the
+     * database sorts by when that column's header is clicked.
+     */
+    private void setupStudentTable() {
+        studentTable.getColumns().addAll(
+                column("Adm No", StudentSort.ADMNO, StudentRow::admno),
+                column("Name", StudentSort.NAME, StudentRow::name),
+                column("Gender", StudentSort.GENDER, StudentRow::gender),
+                column("Form", StudentSort.FORM, StudentRow::form),
+                column("Term", StudentSort.TERM, StudentRow::term),
+                column("Year", StudentSort.YEAR, StudentRow::year));
+        studentTable.setPrefHeight(400); // Adjust as needed
 
-        TableColumn<Student, Integer> termColumn = new TableColumn<>("Term");
-        termColumn.setCellValueFactory(new PropertyValueFactory<>("term"));
+        // Paged rows are sorted by the database; search results are in memory and sorted here
+        studentTable.setSortPolicy(table -> {
+            if (table.getItems() != studentPages) {
+                return TableView.DEFAULT_SORT_POLICY.call(table);
+            }
+            if (readSortOrder()) {
+                loadStudents();
+            }
+            return true;
+        });
+    }
 
-        TableColumn<Student, Integer> yearColumn = new TableColumn<>("Year");
-        yearColumn.setCellValueFactory(new PropertyValueFactory<>("year"));
+    /**
+     * Takes the order for the paged rows from the first sorted column, admno if none.
+     *
+     * @return true if it changed.
+     */
+    private boolean readSortOrder() {
+        List<TableColumn<StudentRow, ?>> sortOrder = studentTable.getSortOrder();
+        TableColumn<StudentRow, ?> sortColumn = sortOrder.isEmpty() ? null : sortOrder.get(0);
+        StudentSort sort = sortColumn == null ? StudentSort.ADMNO : (StudentSort) sortColumn.getUserData();
+        boolean descending = sortColumn != null && sortColumn.getSortType() == TableColumn.SortType.DESCENDING;
+        boolean changed = sort != pagedSort || descending != pagedDescending;
+        pagedSort = sort;
+        pagedDescending = descending;
+        return changed;
+    }
 
-        studentTable.getColumns().addAll(admnoColumn, nameColumn, genderColumn, formColumn, termColumn, yearColumn);
-        studentTable.setPrefHeight(400); // Adjust as needed
+    // Cells read the row directly; no per-row property objects are kept
+    private static <V> TableColumn<StudentRow, V> column(String title, StudentSort sort, Function<StudentRow, V> value) {
+        TableColumn<StudentRow, V> column = new TableColumn<>(title);
+        column.setUserData(sort);
+        column.setCellValueFactory(cell ->
+                new ReadOnlyObjectWrapper<>(cell.getValue() == null ? null : value.apply(cell.getValue())));
+        return column;
     }
 
     /**
-     * Load students from the database into the table.
+     * Show every student, paged in from the database in the table's sort order.
      */
     private void loadStudents() {
-        studentTable.getItems().clear();
-        List<String[]> students = dbOps.getAllStudents();
-        for (String[] studentData : students) {
-            Student student = new Student(
-                    Integer.parseInt(studentData[0]), // Admno
-                    studentData[1], // Name
-                    studentData[2], // Gender
-                    Integer.parseInt(studentData[3]), // Form
-                    Integer.parseInt(studentData[4]), // Term
-                    Integer.parseInt(studentData[5])  // Year
-            );
-            studentTable.getItems().add(student);
-        }
+        readSortOrder();
+        StudentSort sort = pagedSort;
+        boolean descending = pagedDescending;
+        studentTable.setItems(studentPages);
+        AsyncDatabaseOperations.setLoading(studentTable, true, "No students found");
+        studentPages.reset(new PagedList.Source<>() {
+            @Override
+            public int count(ResultsRepository repository) {
+                return repository.countStudents();
+            }
+
+            @Override
+            public List<StudentRow> page(ResultsRepository repository, StudentRow after, int skip, int limit) {
+                return repository.getStudentsSorted(sort, descending, after, skip, limit);
+            }
+
+            @Override
+            public Comparator<StudentRow> order() {
+                return sort.comparator(descending);
+            }
+        }).thenRun(() -> AsyncDatabaseOperations.setLoading(studentTable, false, "No students found"));
     }
 
     /**
      * Filter students in the table based on the search query.
      *
-     * @param query The search query.
+     * @param query       The search query.
+     * @param immediately Search without waiting for typing to pause.
      */
-    private void filterStudents(String query) {
-        if (query == null || query.isEmpty()) {
+    private void filterStudents(String query, boolean immediately) {
+        if (query == null || query.isBlank()) {
+            searchPipeline.cancel();
             loadStudents();
+            return;
+        }
+        if (!searchIndexReady) {
+            // buildSearchIndex runs the search once the index is filled
+            searchPipeline.cancel();
+            studentTable.setItems(FXCollections.observableArrayList());
+            AsyncDatabaseOperations.setLoading(studentTable, true, "No students found");
+        } else if (immediately) {
+            searchPipeline.searchNow(query);
         } else {
-            studentTable.getItems().clear();
-            List<String[]> students = dbOps.getAllStudents();
-            for (String[] studentData : students) {
-                if (studentData[1].toLowerCase().contains(query.toLowerCase())) {
-                    Student student = new Student(
-                            Integer.parseInt(studentData[0]), // Admno
-                            studentData[1], // Name
-                            studentData[2], // Gender
-                            Integer.parseInt(studentData[3]), // Form
-                            Integer.parseInt(studentData[4]), // Term
-                            Integer.parseInt(studentData[5])  // Year
-                    );
-                    studentTable.getItems().add(student);
-                }
-            }
+            searchPipeline.submit(query);
         }
     }
 
+    private void showSearchResults(List<StudentRow> students) {
+        studentTable.setItems(FXCollections.observableArrayList(students));
+        studentTable.sort();
+        AsyncDatabaseOperations.setLoading(studentTable, false, "No students found");
+    }
+
+    /**
+     * Shows the current search again, or the first page if there is none.
+     */
+    private void refreshStudents() {
+        filterStudents(searchField.getText(), true);
+    }
+
+    /**
+     * Fills the search index with every student, in the background.
+     */
+    private void buildSearchIndex() {
+        asyncOps.callAsync(ops -> {
+            List<StudentRow> students = ops.getAllStudents();
+            searchIndex.putAll(students);
+            students.forEach(row -> indexedUpTo.accumulateAndGet(row.admno(), Math::max));
+            return students.size();
+        }, count -> {
+            searchIndexReady = true;
+            if (!searchField.getText().isBlank()) {
+                refreshStudents();
+            }
+        });
+    }
+
+    /**
+     * Adds students admitted since the index was last filled, e.g. by an import:
+     * admission numbers only grow, so they are the rows after the highest one indexed.
+     */
+    private void catchUpSearchIndex() {
+        asyncOps.callAsync(ops -> {
+            int added = 0;
+            List<StudentRow> page;
+            do {
+                page = ops.getStudentsPage(indexedUpTo.get(), PAGE_SIZE);
+                searchIndex.putAll(page);
+                page.forEach(row -> indexedUpTo.accumulateAndGet(row.admno(), Math::max));
+                added += page.size();
+            } while (page.size() == PAGE_SIZE);
+            return added;
+        }, count -> refreshStudents());
+    }
+
     /**
      * Show a dialog to add a new student.
      */
@@ -179,8 +303,8 @@ public class StudentManagement {
                 Integer year = Integer.parseInt(yearField.getText());
 
                 if (name != null && !name.isEmpty() && gender != null && form != null && term != null) {
-                    dbOps.addStudent(name, gender, form, term, year); // Dynamically store the year in DB
-                    loadStudents(); // Refresh the table
+                    // Dynamically store the year in DB, then add the stored row to the table
+                    asyncOps.callAsync(ops -> ops.addStudent(name, gender, form, term, year), this::studentAdded);
                 } else {
                     Alert alert = new Alert(Alert.AlertType.ERROR);
                     alert.setContentText("All fields are required.");
@@ -193,14 +317,87 @@ public class StudentManagement {
         dialog.showAndWait();
     }
 
+    /**
+     * Puts a student just added into the search index and into the table where it belongs.
+     */
+    private void studentAdded(StudentRow student) {
+        if (student == null) {
+            return;
+        }
+        searchIndex.put(student);
+        indexedUpTo.accumulateAndGet(student.admno(), Math::max);
+        if (studentTable.getItems() == studentPages) {
+            studentPages.rowInserted(student);
+        } else if (searchIndexReady && searchIndex.matches(student, searchField.getText())) {
+            AsyncDatabaseOperations.insertSorted(studentTable, student, Comparator.comparingInt(StudentRow::admno));
+        }
+    }
+
+    /**
+     * Admit a whole intake from a CSV or TSV file and report the outcome.
+     */
+    private void importStudents() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Import Students");
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV or TSV files", "*.csv", "*.tsv", "*.tab", "*.txt"),
+                new FileChooser.ExtensionFilter("All files", "*.*"));
+        File file = fileChooser.showOpenDialog(studentTable.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        AsyncDatabaseOperations.setLoading(studentTable, true, "No students found");
+        asyncOps.callAsync(ops -> {
+            try {
+                return new StudentImporter(ops).importFile(file.toPath());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read file: " + file.getName(), e);
+            }
+        }, report -> {
+            catchUpSearchIndex(); // Refreshes the table once the new students are indexed
+            showImportReport(report);
+        });
+    }
+
+    private void showImportReport(StudentImporter.ImportReport report) {
+        StringBuilder details = new StringBuilder();
+        for (StudentImporter.RowError error : report.getErrors()) {
+            details.append("Line ").append(error.lineNumber()).append(": ").append(error.message()).append('\n');
+        }
+        for (StudentImporter.Admission admission : report.getAdmitted()) {
+            details.append("Line ").append(admission.lineNumber()).append(": ")
+                    .append(admission.name()).append(" -> AdmNo ").append(admission.admno()).append('\n');
+        }
+        TextArea detailsArea = new TextArea(details.toString());
+        detailsArea.setEditable(false);
+
+        Alert alert = new Alert(report.getErrors().isEmpty() ? Alert.AlertType.INFORMATION : Alert.AlertType.WARNING);
+        alert.setTitle("Import Students");
+        alert.setHeaderText(null);
+        alert.setContentText(report.getSummary());
+        alert.getDialogPane().setExpandableContent(detailsArea);
+        alert.showAndWait();
+    }
+
     /**
      * Delete the selected student from the database.
      */
     private void deleteSelectedStudent() {
-        Student selectedStudent = studentTable.getSelectionModel().getSelectedItem();
+        StudentRow selectedStudent = studentTable.getSelectionModel().getSelectedItem();
         if (selectedStudent != null) {
-            dbOps.deleteStudent(selectedStudent.getAdmno());
-            loadStudents(); // Refresh the table
+            int admno = selectedStudent.admno();
+            asyncOps.callAsync(ops -> ops.deleteStudent(admno), deleted -> {
+                if (!deleted) {
+                    return;
+                }
+                searchIndex.remove(admno);
+                if (studentTable.getItems() == studentPages) {
+                    studentPages.rowDeleted(selectedStudent);
+                } else {
+                    studentTable.getItems().remove(selectedStudent);
+                }
+            });
         } else {
             Alert alert = new Alert(Alert.AlertType.WARNING);
             alert.setTitle("Delete Student");
@@ -209,32 +406,4 @@ public class StudentManagement {
             alert.showAndWait();
         }
     }
-
-    /**
-     * Model class representing a Student.
-     */
-    public static class Student {
-        private final SimpleIntegerProperty admno;
-        private final SimpleStringProperty name;
-        private final SimpleStringProperty gender;
-        private final SimpleIntegerProperty form;
-        private final SimpleIntegerProperty term;
-        private final SimpleIntegerProperty year;
-
-        public Student(int admno, String name, String gender, int form, int term, int year) {
-            this.admno = new SimpleIntegerProperty(admno);
-            this.name = new SimpleStringProperty(name);
-            this.gender = new SimpleStringProperty(gender);
-            this.form = new SimpleIntegerProperty(form);
-            this.term = new SimpleIntegerProperty(term);
-            this.year = new SimpleIntegerProperty(year);
-        }
-
-        public int getAdmno() { return admno.get(); }
-        public String getName() { return name.get(); }
-        public String getGender() { return gender.get(); }
-        public int getForm() { return form.get(); }
-        public int getTerm() { return term.get(); }
-        public int getYear() { return year.get(); }
-    }
 }
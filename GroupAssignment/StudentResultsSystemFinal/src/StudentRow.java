@@ -0,0 +1,5 @@
+/**
+ * A row from the students table.
+ */
+public record StudentRow(int admno, String name, String gender, int form, int term, int year) {
+}
@@ -0,0 +1,57 @@
+import java.util.Comparator;
+import java.util.function.Function;
+
+/**
+ * The columns students can be listed in order of. Every order ends with admno, which
+ * makes it total, so a page can continue after the last row of the previous one.
+ */
+public enum StudentSort {
+    ADMNO("admno", StudentRow::admno),
+    NAME("name", StudentRow::name),
+    GENDER("gender", StudentRow::gender),
+    FORM("form", StudentRow::form),
+    TERM("term", StudentRow::term),
+    YEAR("year", StudentRow::year);
+
+    private final String column;
+    private final Function<StudentRow, Comparable<?>> key;
+
+    StudentSort(String column, Function<StudentRow, Comparable<?>> key) {
+        this.column = column;
+        this.key = key;
+    }
+
+    /**
+     * The students table column; safe to put into SQL.
+     */
+    public String column() {
+        return column;
+    }
+
+    /**
+     * The sorted column's value in {@code row}.
+     */
+    public Object keyOf(StudentRow row) {
+        return key.apply(row);
+    }
+
+    /**
+     * The same order as the SQL query, admno breaking ties. Text compares without case,
+     * like the database collation.
+     */
+    public Comparator<StudentRow> comparator(boolean descending) {
+        Comparator<StudentRow> order = (first, second) -> compareKeys(key.apply(first), key.apply(second));
+        if (this != ADMNO) {
+            order = order.thenComparingInt(StudentRow::admno);
+        }
+        return descending ? order.reversed() : order;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareKeys(Comparable first, Comparable second) {
+        if (first instanceof String text) {
+            return text.compareToIgnoreCase((String) second);
+        }
+        return first.compareTo(second);
+    }
+}
@@ -0,0 +1,14 @@
+/**
+ * A teacher_subjects row resolved against the subjects table.
+ * The subjectId is 0 when the assigned subject no longer exists.
+ */
+public record SubjectAssignment(int assignmentId, int subjectId, String subject, int form, int term) {
+
+    public boolean isResolved() {
+        return subjectId > 0;
+    }
+
+    public String label() {
+        return subject + " - Form " + form + ", Term " + term;
+    }
+}
@@ -0,0 +1,89 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable lookup of subjects by name, code or id, built from the subjects table.
+ *
+ * Names and codes are matched after {@link #normalize(String) normalizing}, so
+ * "Mathematics", " mathematics " and "MATHEMATICS" find the same subject, and a
+ * teacher assignment stored as "MAT" finds it by code. Obtain the current
+ * instance from {@link ResultsRepository#getSubjectDictionary()}.
+ */
+public final class SubjectDictionary {
+
+    private final List<SubjectRow> source;
+    private final Map<String, SubjectRow> byName;
+    private final Map<String, SubjectRow> byCode;
+    private final Map<Integer, SubjectRow> byId;
+
+    private SubjectDictionary(List<SubjectRow> source) {
+        this.source = source;
+        Map<String, SubjectRow> names = new HashMap<>();
+        Map<String, SubjectRow> codes = new HashMap<>();
+        Map<Integer, SubjectRow> ids = new HashMap<>();
+        for (SubjectRow subject : source) {
+            ids.put(subject.id(), subject);
+            // With duplicate names or codes the first subject listed wins
+            names.putIfAbsent(normalize(subject.name()), subject);
+            if (subject.code() != null && !subject.code().isBlank()) {
+                codes.putIfAbsent(normalize(subject.code()), subject);
+            }
+        }
+        this.byName = Map.copyOf(names);
+        this.byCode = Map.copyOf(codes);
+        this.byId = Map.copyOf(ids);
+    }
+
+    public static SubjectDictionary of(List<SubjectRow> subjects) {
+        return new SubjectDictionary(subjects);
+    }
+
+    /**
+     * Trims, collapses inner whitespace and lower-cases a subject name or code.
+     */
+    public static String normalize(String value) {
+        return value == null ? "" : value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Finds a subject by name, or by code if no name matches.
+     */
+    public Optional<SubjectRow> find(String nameOrCode) {
+        String key = normalize(nameOrCode);
+        SubjectRow subject = byName.get(key);
+        return Optional.ofNullable(subject != null ? subject : byCode.get(key));
+    }
+
+    public Optional<SubjectRow> findById(int id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    /**
+     * Resolves a teacher's assignments to subject ids. Assignments whose subject no
+     * longer exists are returned with a subject id of 0.
+     */
+    public List<SubjectAssignment> resolve(List<TeacherSubjectRow> assignments) {
+        List<SubjectAssignment> resolved = new ArrayList<>(assignments.size());
+        for (TeacherSubjectRow row : assignments) {
+            Optional<SubjectRow> subject = find(row.subject());
+            resolved.add(new SubjectAssignment(row.id(), subject.map(SubjectRow::id).orElse(0),
+                    subject.map(SubjectRow::name).orElse(row.subject()), row.form(), row.term()));
+        }
+        return resolved;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * True if this dictionary was built from exactly this list instance.
+     */
+    boolean isBuiltFrom(List<SubjectRow> subjects) {
+        return source == subjects;
+    }
+}
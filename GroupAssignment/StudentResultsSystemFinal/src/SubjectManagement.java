@@ -5,16 +5,30 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 
-public class SubjectManagement {
+public class SubjectManagement implements ManagementView {
 
-    private final DatabaseOperations dbOps = new DatabaseOperations();
+    private final ResultsRepository dbOps = Repositories.get();
+    private final AsyncDatabaseOperations asyncOps = new AsyncDatabaseOperations(dbOps);
     private TableView<Subject> subjectTable;
+    private TextField searchField;
+
+    // Searched by name or code as the user types; refilled whenever the subjects are reloaded
+    private final SearchIndex<Integer, SubjectRow> searchIndex = new SearchIndex<>(SubjectRow::id,
+            row -> List.of(row.name(), row.code() == null ? "" : row.code()), Comparator.comparingInt(SubjectRow::id));
+    private boolean searchIndexReady;
+
+    // Debounced, off the FX thread, newest query wins
+    private final SearchPipeline<List<SubjectRow>> searchPipeline =
+            new SearchPipeline<>("subjects", searchIndex::search, this::showSubjects);
 
     /**
      * Returns the Subject Management UI as a Parent object.
      */
+    @Override
     public Parent getView() {
         VBox subjectView = new VBox(20);
         subjectView.setAlignment(Pos.TOP_CENTER);
@@ -28,8 +42,8 @@ public class SubjectManagement {
         setupSubjectTable();
 
         // Search field
-        TextField searchField = new TextField();
-        searchField.setPromptText("Search for a subject...");
+        searchField = new TextField();
+        searchField.setPromptText("Search by name or code...");
         searchField.setPrefWidth(300);
 
         // Add new subject button
@@ -50,7 +64,11 @@ public class SubjectManagement {
         deleteSubjectButton.setOnAction(event -> deleteSelectedSubject());
 
         // Search functionality
-        searchField.textProperty().addListener((observable, oldValue, newValue) -> filterSubjects(newValue));
+        searchField.textProperty().addListener((observable, oldValue, newValue) -> {
+            if (searchIndexReady) {
+                searchPipeline.submit(newValue); // Otherwise loadSubjects searches when it finishes
+            }
+        });
 
         // Buttons container
         HBox buttonContainer = new HBox(10);
@@ -66,6 +84,14 @@ public class SubjectManagement {
         return subjectView;
     }
 
+    /**
+     * Reloads the subjects, keeping the search.
+     */
+    @Override
+    public void refresh() {
+        loadSubjects();
+    }
+
     /**
      * Set up the subject table with columns.
      */
@@ -76,27 +102,40 @@ public class SubjectManagement {
         TableColumn<Subject, String> nameColumn = new TableColumn<>("Name");
         nameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
 
+        TableColumn<Subject, String> codeColumn = new TableColumn<>("Code");
+        codeColumn.setCellValueFactory(new PropertyValueFactory<>("code"));
+
         TableColumn<Subject, String> descriptionColumn = new TableColumn<>("Description");
         descriptionColumn.setCellValueFactory(new PropertyValueFactory<>("description"));
 
-        subjectTable.getColumns().addAll(idColumn, nameColumn, descriptionColumn);
+        subjectTable.getColumns().addAll(idColumn, nameColumn, codeColumn, descriptionColumn);
         subjectTable.setPrefHeight(300);
     }
 
     /**
-     * Load subjects from the database into the table.
+     * Load subjects from the database into the search index and the table.
      */
     private void loadSubjects() {
+        searchIndexReady = false;
+        searchPipeline.cancel();
         subjectTable.getItems().clear();
-        List<String[]> subjects = dbOps.getAllSubjects();
-        for (String[] subjectData : subjects) {
-            Subject subject = new Subject(
-                    Integer.parseInt(subjectData[0]), // ID
-                    subjectData[1], // Name
-                    subjectData[2]  // Description
-            );
-            subjectTable.getItems().add(subject);
-        }
+        AsyncDatabaseOperations.setLoading(subjectTable, true, "No subjects found");
+        asyncOps.callAsync(ops -> {
+            List<SubjectRow> subjects = ops.getAllSubjects();
+            synchronized (searchIndex) {
+                searchIndex.clear();
+                searchIndex.putAll(subjects);
+            }
+            return subjects.size();
+        }, count -> {
+            searchIndexReady = true;
+            searchPipeline.searchNow(searchField.getText());
+        });
+    }
+
+    private void showSubjects(List<SubjectRow> subjects) {
+        subjectTable.getItems().setAll(subjects.stream().map(SubjectManagement::toSubject).toList());
+        AsyncDatabaseOperations.setLoading(subjectTable, false, "No subjects found");
     }
 
     /**
@@ -106,11 +145,14 @@ public class SubjectManagement {
         TextField nameField = new TextField();
         nameField.setPromptText("Subject Name");
 
+        TextField codeField = new TextField();
+        codeField.setPromptText("Code (optional, e.g. MAT)");
+
         TextField descriptionField = new TextField();
         descriptionField.setPromptText("Description");
 
         VBox dialogLayout = new VBox(10);
-        dialogLayout.getChildren().addAll(new Label("Add New Subject"), nameField, descriptionField);
+        dialogLayout.getChildren().addAll(new Label("Add New Subject"), nameField, codeField, descriptionField);
 
         Dialog<ButtonType> dialog = new Dialog<>();
         dialog.setTitle("Add New Subject");
@@ -119,8 +161,10 @@ public class SubjectManagement {
 
         dialog.setResultConverter(button -> {
             if (button == ButtonType.OK) {
-                dbOps.addSubject(nameField.getText(), descriptionField.getText());
-                loadSubjects(); // Refresh the table
+                String name = nameField.getText();
+                String code = toCode(codeField.getText());
+                String description = descriptionField.getText();
+                asyncOps.callAsync(ops -> ops.addSubject(name, code, description), this::subjectAdded);
             }
             return null;
         });
@@ -128,6 +172,27 @@ public class SubjectManagement {
         dialog.showAndWait();
     }
 
+    /**
+     * Puts a subject just added into the search index and, if the search shows it, the table.
+     */
+    private void subjectAdded(SubjectRow subject) {
+        if (subject == null) {
+            return;
+        }
+        searchIndex.put(subject);
+        showIfMatching(subject);
+    }
+
+    private void showIfMatching(SubjectRow subject) {
+        if (searchIndexReady && searchIndex.matches(subject, searchField.getText())) {
+            AsyncDatabaseOperations.insertSorted(subjectTable, toSubject(subject), Comparator.comparingInt(Subject::getId));
+        }
+    }
+
+    private static Subject toSubject(SubjectRow row) {
+        return new Subject(row.id(), row.name(), row.code(), row.description());
+    }
+
     /**
      * Show a dialog to edit the selected subject.
      */
@@ -141,11 +206,14 @@ public class SubjectManagement {
         TextField nameField = new TextField(selectedSubject.getName());
         nameField.setPromptText("Subject Name");
 
+        TextField codeField = new TextField(selectedSubject.getCode());
+        codeField.setPromptText("Code (optional, e.g. MAT)");
+
         TextField descriptionField = new TextField(selectedSubject.getDescription());
         descriptionField.setPromptText("Description");
 
         VBox dialogLayout = new VBox(10);
-        dialogLayout.getChildren().addAll(new Label("Edit Subject"), nameField, descriptionField);
+        dialogLayout.getChildren().addAll(new Label("Edit Subject"), nameField, codeField, descriptionField);
 
         Dialog<ButtonType> dialog = new Dialog<>();
         dialog.setTitle("Edit Subject");
@@ -154,8 +222,17 @@ public class SubjectManagement {
 
         dialog.setResultConverter(button -> {
             if (button == ButtonType.OK) {
-                dbOps.updateSubject(selectedSubject.getId(), nameField.getText(), descriptionField.getText());
-                loadSubjects(); // Refresh the table
+                String name = nameField.getText();
+                String code = toCode(codeField.getText());
+                String description = descriptionField.getText();
+                int id = selectedSubject.getId();
+                asyncOps.runAsync(ops -> ops.updateSubject(id, name, code, description), () -> {
+                    SubjectRow updated = new SubjectRow(id, name, code, description);
+                    searchIndex.put(updated);
+                    // Taken out and put back, as the edit may move it in the sort or out of the search
+                    subjectTable.getItems().remove(selectedSubject);
+                    showIfMatching(updated);
+                });
             }
             return null;
         });
@@ -163,39 +240,32 @@ public class SubjectManagement {
         dialog.showAndWait();
     }
 
+    /**
+     * Stores codes in upper case; a blank code is saved as NULL so it does not clash
+     * with other subjects that have no code.
+     */
+    private static String toCode(String text) {
+        return text == null || text.isBlank() ? null : text.trim().toUpperCase(Locale.ROOT);
+    }
+
     /**
      * Delete the selected subject.
      */
     private void deleteSelectedSubject() {
         Subject selectedSubject = subjectTable.getSelectionModel().getSelectedItem();
         if (selectedSubject != null) {
-            dbOps.deleteSubject(selectedSubject.getId());
-            loadSubjects(); // Refresh the table
+            int id = selectedSubject.getId();
+            asyncOps.callAsync(ops -> ops.deleteSubject(id), deleted -> {
+                if (deleted) {
+                    searchIndex.remove(id);
+                    subjectTable.getItems().remove(selectedSubject);
+                }
+            });
         } else {
             showAlert("No Subject Selected", "Please select a subject to delete.");
         }
     }
 
-    /**
-     * Filter subjects based on the search query.
-     */
-    private void filterSubjects(String query) {
-        subjectTable.getItems().clear();
-        if (query == null || query.isEmpty()) {
-            loadSubjects();
-        } else {
-            List<String[]> subjects = dbOps.searchSubjectsByName(query);
-            for (String[] subjectData : subjects) {
-                Subject subject = new Subject(
-                        Integer.parseInt(subjectData[0]), // ID
-                        subjectData[1], // Name
-                        subjectData[2]  // Description
-                );
-                subjectTable.getItems().add(subject);
-            }
-        }
-    }
-
     /**
      * Show an alert dialog.
      */
@@ -212,16 +282,19 @@ public class SubjectManagement {
     public static class Subject {
         private final int id;
         private final String name;
+        private final String code;
         private final String description;
 
-        public Subject(int id, String name, String description) {
+        public Subject(int id, String name, String code, String description) {
             this.id = id;
             this.name = name;
+            this.code = code;
             this.description = description;
         }
 
         public int getId() { return id; }
         public String getName() { return name; }
+        public String getCode() { return code; }
         public String getDescription() { return description; }
     }
 }
@@ -0,0 +1,5 @@
+/**
+ * A row from the subjects table. The code may be null.
+ */
+public record SubjectRow(int id, String name, String code, String description) {
+}
@@ -19,13 +19,16 @@ import java.util.stream.Collectors;
 public class TeacherDashboard extends Application {
 
     private VBox mainContainer;
-    private DatabaseOperations dbOps; // DatabaseOperations instance to fetch teacher data
-    private ObservableList<StudentRow> studentRows; // To store students' marks data
+    private ResultsRepository dbOps; // Repository used to fetch teacher data
+    private AsyncDatabaseOperations asyncOps; // Runs dbOps calls off the FX thread
+    private ObservableList<MarksRow> studentRows; // To store students' marks data
+    private int marksGeneration; // Lets a slow load for an earlier year selection be ignored
     private static String teacherId; // Static teacherId to allow passing dynamically
 
     // Default constructor for JavaFX
     public TeacherDashboard() {
-        dbOps = new DatabaseOperations();
+        dbOps = Repositories.get();
+        asyncOps = new AsyncDatabaseOperations(dbOps);
     }
 
     // Setter to provide teacherId before launching
@@ -33,27 +36,6 @@ public class TeacherDashboard extends Application {
         teacherId = id;
     }
 
-    private int getSubjectIdFromName(String subject) {
-        // Implement logic to map subject name to subject ID
-        switch (subject.split(" ")[0].toLowerCase()) {
-            case "mathematics":
-                return 1;
-            case "english":
-                return 2;
-            case "biology":
-                return 3;
-            default:
-                throw new IllegalArgumentException("Unknown subject: " + subject);
-        }
-    }
-
-    private int getTermFromSubject(String subject) {
-        if (subject.toLowerCase().contains("term 1")) return 1;
-        if (subject.toLowerCase().contains("term 2")) return 2;
-        if (subject.toLowerCase().contains("term 3")) return 3;
-        throw new IllegalArgumentException("No term found in subject string: " + subject);
-    }
-
     @Override
     public void start(Stage primaryStage) {
         if (teacherId == null) {
@@ -71,19 +53,27 @@ public class TeacherDashboard extends Application {
         Text title = new Text("Teacher Dashboard");
         title.setFont(Font.font("Arial", FontWeight.BOLD, 24));
 
-        // Fetch subjects assigned to this teacher
-        List<String> subjects = dbOps.getSubjectsForTeacher(teacherId);
-
         // Create buttons for each subject
         VBox subjectButtonsContainer = new VBox(10);
         subjectButtonsContainer.setAlignment(Pos.CENTER);
-
-        for (String subject : subjects) {
-            Button subjectButton = new Button(subject);
-            subjectButton.setStyle("-fx-font-size: 14px; -fx-pref-width: 300px;");
-            subjectButton.setOnAction(event -> showSubjectView(subject));
-            subjectButtonsContainer.getChildren().add(subjectButton);
-        }
+        subjectButtonsContainer.getChildren().add(new ProgressIndicator());
+
+        // Fetch the teacher's assignments and resolve each subject name to its id once
+        asyncOps.callAsync(ops -> ops.getSubjectDictionary().resolve(ops.getTeacherSubjects(teacherId)), assignments -> {
+            subjectButtonsContainer.getChildren().clear();
+            for (SubjectAssignment assignment : assignments) {
+                Button subjectButton = new Button(assignment.label());
+                subjectButton.setStyle("-fx-font-size: 14px; -fx-pref-width: 300px;");
+                if (assignment.isResolved()) {
+                    subjectButton.setOnAction(event -> showSubjectView(assignment));
+                } else {
+                    // The assigned subject was renamed or deleted
+                    subjectButton.setText(assignment.label() + " (unknown subject)");
+                    subjectButton.setDisable(true);
+                }
+                subjectButtonsContainer.getChildren().add(subjectButton);
+            }
+        });
 
         mainContainer.getChildren().addAll(title, subjectButtonsContainer);
 
@@ -93,56 +83,76 @@ public class TeacherDashboard extends Application {
         primaryStage.show();
     }
 
-    private void showSubjectView(String subject) {
+    private void showSubjectView(SubjectAssignment assignment) {
         mainContainer.getChildren().clear();
 
         // Title for the selected subject
-        Text subjectTitle = new Text("Managing Marks for: " + subject);
+        Text subjectTitle = new Text("Managing Marks for: " + assignment.label());
         subjectTitle.setFont(Font.font("Arial", FontWeight.BOLD, 18));
 
         // Table for managing marks
-        TableView<StudentRow> tableView = createMarksTable(subject);
+        TableView<MarksRow> tableView = createMarksTable();
+
+        // Year of the class list, defaulting to the newest year the assignment has students in
+        ComboBox<Integer> yearSelector = new ComboBox<>();
+        yearSelector.setPromptText("Loading years...");
+        yearSelector.valueProperty().addListener((observable, previous, year) -> {
+            if (year != null) {
+                loadMarks(tableView, assignment, year);
+            }
+        });
+        asyncOps.callAsync(ops -> ops.getStudentYears(assignment.form(), assignment.term()), years -> {
+            yearSelector.getItems().setAll(years);
+            yearSelector.setPromptText("Select Year");
+            if (years.isEmpty()) {
+                AsyncDatabaseOperations.setLoading(tableView, false, "No students found");
+            } else {
+                yearSelector.setValue(years.get(years.size() - 1));
+            }
+        });
+
+        HBox yearRow = new HBox(10, new Label("Year:"), yearSelector);
+        yearRow.setAlignment(Pos.CENTER);
+
+        // SAVE Button
+        Button saveButton = new Button("SAVE MARKS");
+        saveButton.setStyle("-fx-font-size: 14px; -fx-pref-width: 150px;");
+        saveButton.setOnAction(event -> saveMarks());
 
         // DONE Button
         Button doneButton = new Button("DONE");
         doneButton.setStyle("-fx-font-size: 14px; -fx-pref-width: 150px;");
-        doneButton.setOnAction(event -> showSortingOptions(subject, tableView));
+        doneButton.setOnAction(event -> showSortingOptions(assignment.label(), tableView));
+
+        HBox actionButtons = new HBox(10, saveButton, doneButton);
+        actionButtons.setAlignment(Pos.CENTER);
 
         // Add components to the main container
-        mainContainer.getChildren().addAll(subjectTitle, tableView, doneButton);
+        mainContainer.getChildren().addAll(subjectTitle, yearRow, tableView, actionButtons);
     }
 
-    private TableView<StudentRow> createMarksTable(String subject) {
-        int subjectId = getSubjectIdFromName(subject);
-        int term = getTermFromSubject(subject);
-
-        // Fetch students using subjectId and term
-        List<String[]> students = dbOps.getStudentsForSubject(subjectId, term);
-
-        // Populate student rows
-        studentRows = FXCollections.observableArrayList(
-                students.stream().map(StudentRow::new).collect(Collectors.toList())
-        );
-
-        TableView<StudentRow> table = new TableView<>(studentRows);
+    private TableView<MarksRow> createMarksTable() {
+        studentRows = FXCollections.observableArrayList();
+        TableView<MarksRow> table = new TableView<>(studentRows);
+        AsyncDatabaseOperations.setLoading(table, true, "No students found");
 
         // Columns
-        TableColumn<StudentRow, String> admNoCol = new TableColumn<>("AdmNo");
+        TableColumn<MarksRow, String> admNoCol = new TableColumn<>("AdmNo");
         admNoCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().admNo));
 
-        TableColumn<StudentRow, String> nameCol = new TableColumn<>("Name");
+        TableColumn<MarksRow, String> nameCol = new TableColumn<>("Name");
         nameCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().name));
 
-        TableColumn<StudentRow, String> cat1Col = createEditableColumn("CAT 1 (/10)", "cat1");
-        TableColumn<StudentRow, String> cat2Col = createEditableColumn("CAT 2 (/10)", "cat2");
-        TableColumn<StudentRow, String> cat3Col = createEditableColumn("CAT 3 (/10)", "cat3");
-        TableColumn<StudentRow, String> cat4Col = createEditableColumn("CAT 4 (/10)", "cat4");
-        TableColumn<StudentRow, String> examCol = createEditableColumn("Exam (/60)", "exam");
+        TableColumn<MarksRow, String> cat1Col = createEditableColumn("CAT 1 (/10)", "cat1");
+        TableColumn<MarksRow, String> cat2Col = createEditableColumn("CAT 2 (/10)", "cat2");
+        TableColumn<MarksRow, String> cat3Col = createEditableColumn("CAT 3 (/10)", "cat3");
+        TableColumn<MarksRow, String> cat4Col = createEditableColumn("CAT 4 (/10)", "cat4");
+        TableColumn<MarksRow, String> examCol = createEditableColumn("Exam (/60)", "exam");
 
-        TableColumn<StudentRow, String> totalCol = new TableColumn<>("Total");
+        TableColumn<MarksRow, String> totalCol = new TableColumn<>("Total");
         totalCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getTotal()));
 
-        TableColumn<StudentRow, String> gradeCol = new TableColumn<>("Grade");
+        TableColumn<MarksRow, String> gradeCol = new TableColumn<>("Grade");
         gradeCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getGrade()));
 
         table.getColumns().addAll(admNoCol, nameCol, cat1Col, cat2Col, cat3Col, cat4Col, examCol, totalCol, gradeCol);
@@ -151,32 +161,43 @@ public class TeacherDashboard extends Application {
         return table;
     }
 
-    private TableColumn<StudentRow, String> createEditableColumn(String title, String property) {
-        TableColumn<StudentRow, String> column = new TableColumn<>(title);
-        column.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getProperty(property)));
+    /**
+     * Fetches the class list of the selected year with any marks already recorded and replaces the
+     * student rows with it; edits not saved yet are dropped.
+     */
+    private void loadMarks(TableView<MarksRow> table, SubjectAssignment assignment, int year) {
+        int generation = ++marksGeneration;
+        AsyncDatabaseOperations.setLoading(table, true, "No students found");
+        asyncOps.callAsync(ops -> ops.getMarksForSubject(assignment.subjectId(), assignment.form(), assignment.term(), year), marks -> {
+            if (generation == marksGeneration) {
+                studentRows.setAll(marks.stream().map(MarksRow::new).collect(Collectors.toList()));
+                AsyncDatabaseOperations.setLoading(table, false, "No students found");
+            }
+        });
+    }
 
-        column.setCellFactory(tc -> {
-            TableCell<StudentRow, String> cell = new TextFieldTableCell<>();
-            cell.setOnMouseClicked(event -> {
-                StudentRow student = studentRows.get(cell.getIndex());
-                validateInput(student, cell.getText(), title);
-            });
-            return cell;
+    private TableColumn<MarksRow, String> createEditableColumn(String title, String property) {
+        TableColumn<MarksRow, String> column = new TableColumn<>(title);
+        column.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getProperty(property)));
+        column.setCellFactory(TextFieldTableCell.forTableColumn());
+        column.setOnEditCommit(event -> {
+            validateInput(event.getRowValue(), event.getNewValue(), title, property);
+            event.getTableView().refresh(); // Update total and grade
         });
 
         return column;
     }
 
-    private void validateInput(StudentRow student, String input, String title) {
+    private void validateInput(MarksRow student, String input, String title, String property) {
         try {
             int max = title.contains("Exam") ? 60 : 10;
-            int value = Integer.parseInt(input);
+            int value = Integer.parseInt(input.trim());
 
             if (value < 0 || value > max) {
                 throw new NumberFormatException();
             }
 
-            student.setProperty(title, String.valueOf(value));
+            student.setProperty(property, String.valueOf(value));
         } catch (NumberFormatException e) {
             Alert alert = new Alert(Alert.AlertType.ERROR);
             alert.setTitle("Invalid Input");
@@ -185,7 +206,45 @@ public class TeacherDashboard extends Application {
         }
     }
 
-    private void showSortingOptions(String subject, TableView<StudentRow> tableView) {
+    /**
+     * Writes the rows edited since the last save back to the results table
+     * in a single batched transaction.
+     */
+    private void saveMarks() {
+        List<MarksRow> dirtyRows = studentRows.stream().filter(MarksRow::isDirty).collect(Collectors.toList());
+        if (dirtyRows.isEmpty()) {
+            showInfo("No Changes", "There are no unsaved marks.");
+            return;
+        }
+
+        List<MarkRow> marks = dirtyRows.stream().map(MarksRow::toMarkRow).collect(Collectors.toList());
+        asyncOps.callAsync(ops -> ops.saveMarks(marks), saved -> {
+            if (saved) {
+                // Rows edited again while saving stay dirty for the next save
+                for (int i = 0; i < dirtyRows.size(); i++) {
+                    if (dirtyRows.get(i).toMarkRow().equals(marks.get(i))) {
+                        dirtyRows.get(i).markSaved();
+                    }
+                }
+                showInfo("Marks Saved", "Saved marks for " + marks.size() + " student(s).");
+            } else {
+                Alert alert = new Alert(Alert.AlertType.ERROR);
+                alert.setTitle("Save Failed");
+                alert.setContentText("The marks could not be saved. No changes were written.");
+                alert.showAndWait();
+            }
+        });
+    }
+
+    private void showInfo(String title, String content) {
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(content);
+        alert.showAndWait();
+    }
+
+    private void showSortingOptions(String subject, TableView<MarksRow> tableView) {
         mainContainer.getChildren().clear();
 
         Text title = new Text("Sort Results for: " + subject);
@@ -206,11 +265,12 @@ public class TeacherDashboard extends Application {
         mainContainer.getChildren().addAll(title, sortingButtons, generateReport);
     }
 
-    private void exportResultsToPDF(String subject, TableView<StudentRow> tableView) {
+    private void exportResultsToPDF(String subject, TableView<MarksRow> tableView) {
         System.out.println("Exporting to PDF...");
     }
 
-    public static class StudentRow {
+    public static class MarksRow {
+        private final MarkRow saved; // Identifies the results row being edited
         private String admNo;
         private String name;
         private String cat1;
@@ -218,15 +278,17 @@ public class TeacherDashboard extends Application {
         private String cat3;
         private String cat4;
         private String exam;
-
-        public StudentRow(String[] studentData) {
-            this.admNo = studentData[0];
-            this.name = studentData[1];
-            this.cat1 = "";
-            this.cat2 = "";
-            this.cat3 = "";
-            this.cat4 = "";
-            this.exam = "";
+        private boolean dirty;
+
+        public MarksRow(MarkRow marks) {
+            this.saved = marks;
+            this.admNo = String.valueOf(marks.admno());
+            this.name = marks.studentName();
+            this.cat1 = String.valueOf(marks.cat1());
+            this.cat2 = String.valueOf(marks.cat2());
+            this.cat3 = String.valueOf(marks.cat3());
+            this.cat4 = String.valueOf(marks.cat4());
+            this.exam = String.valueOf(marks.exam());
         }
 
         public String getProperty(String property) {
@@ -247,6 +309,9 @@ public class TeacherDashboard extends Application {
         }
 
         public void setProperty(String property, String value) {
+            if (value.equals(getProperty(property))) {
+                return;
+            }
             switch (property) {
                 case "cat1":
                     cat1 = value;
@@ -263,31 +328,43 @@ public class TeacherDashboard extends Application {
                 case "exam":
                     exam = value;
                     break;
+                default:
+                    return;
             }
+            dirty = true;
+        }
+
+        public boolean isDirty() {
+            return dirty;
+        }
+
+        public void markSaved() {
+            dirty = false;
+        }
+
+        public MarkRow toMarkRow() {
+            return new MarkRow(saved.admno(), saved.studentName(), saved.subjectId(), saved.form(), saved.term(),
+                    saved.year(), toInt(cat1), toInt(cat2), toInt(cat3), toInt(cat4), toInt(exam));
+        }
+
+        private static int toInt(String value) {
+            return Integer.parseInt(value.isEmpty() ? "0" : value);
         }
 
         public String getTotal() {
-            int total = Integer.parseInt(cat1.isEmpty() ? "0" : cat1)
-                    + Integer.parseInt(cat2.isEmpty() ? "0" : cat2)
-                    + Integer.parseInt(cat3.isEmpty() ? "0" : cat3)
-                    + Integer.parseInt(cat4.isEmpty() ? "0" : cat4)
-                    + Integer.parseInt(exam.isEmpty() ? "0" : exam);
+            int total = toInt(cat1) + toInt(cat2) + toInt(cat3) + toInt(cat4) + toInt(exam);
             return String.valueOf(total);
         }
 
         public String getGrade() {
-            int total = Integer.parseInt(getTotal());
-            if (total >= 80) return "A";
-            if (total >= 70) return "B";
-            if (total >= 60) return "C";
-            if (total >= 50) return "D";
-            if (total >= 40) return "E";
-            return "F";
+            return Grading.gradeFor(Integer.parseInt(getTotal()));
         }
     }
 
     public static void main(String[] args) {
         TeacherDashboard.setTeacherId("teacher123"); // Provide teacherId dynamically
-        launch(args);
+        if (Repositories.openOrShowError()) {
+            launch(args);
+        }
     }
 }
@@ -7,17 +7,30 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 
 import java.time.LocalDate;
+import java.util.Comparator;
 import java.util.List;
 
-public class TeacherManagement {
+public class TeacherManagement implements ManagementView {
 
-    private final DatabaseOperations dbOps = new DatabaseOperations();
+    private final ResultsRepository dbOps = Repositories.get();
+    private final AsyncDatabaseOperations asyncOps = new AsyncDatabaseOperations(dbOps);
     private TableView<Teacher> teacherTable;
     private TableView<AssignedSubject> assignedSubjectsTable;
+    private TextField searchField;
+
+    // Every teacher, loaded once; searching and adding or deleting a teacher update it in place
+    private final SearchIndex<String, TeacherRow> searchIndex = new SearchIndex<>(TeacherRow::staffNumber,
+            row -> List.of(row.name(), row.staffNumber()), Comparator.comparing(TeacherRow::staffNumber));
+    private boolean searchIndexReady;
+
+    // Debounced, off the FX thread, newest query wins
+    private final SearchPipeline<List<TeacherRow>> searchPipeline =
+            new SearchPipeline<>("teachers", searchIndex::search, this::showTeachers);
 
     /**
      * Returns the Teacher Management UI as a Parent object.
      */
+    @Override
     public Parent getView() {
         VBox teacherView = new VBox(20);
         teacherView.setAlignment(Pos.TOP_CENTER);
@@ -35,8 +48,8 @@ public class TeacherManagement {
         setupAssignedSubjectsTable();
 
         // Search field
-        TextField searchField = new TextField();
-        searchField.setPromptText("Search for a teacher...");
+        searchField = new TextField();
+        searchField.setPromptText("Search by name or staff number...");
         searchField.setPrefWidth(300);
 
         // Add new teacher button
@@ -57,7 +70,11 @@ public class TeacherManagement {
         deleteTeacherButton.setOnAction(event -> deleteSelectedTeacher());
 
         // Search functionality
-        searchField.textProperty().addListener((observable, oldValue, newValue) -> filterTeachers(newValue));
+        searchField.textProperty().addListener((observable, oldValue, newValue) -> {
+            if (searchIndexReady) {
+                searchPipeline.submit(newValue); // Otherwise loadTeachers searches when it finishes
+            }
+        });
 
         // Buttons container
         HBox buttonContainer = new HBox(10);
@@ -73,6 +90,15 @@ public class TeacherManagement {
         return teacherView;
     }
 
+    /**
+     * Reloads the teachers; the selection and its assigned subjects are cleared.
+     */
+    @Override
+    public void refresh() {
+        assignedSubjectsTable.getItems().clear();
+        loadTeachers();
+    }
+
     /**
      * Set up the teacher table with columns.
      */
@@ -114,46 +140,29 @@ public class TeacherManagement {
     }
 
     /**
-     * Load teachers from the database into the table.
+     * Load teachers from the database into the search index, then show them.
      */
     private void loadTeachers() {
+        searchIndexReady = false;
+        searchPipeline.cancel();
         teacherTable.getItems().clear();
-        List<String[]> teachers = dbOps.getAllTeachers();
-        for (String[] teacherData : teachers) {
-            Teacher teacher = new Teacher(
-                    teacherData[0], // Staff Number
-                    teacherData[1], // Name
-                    teacherData[2]  // ID/Passport
-            );
-            teacherTable.getItems().add(teacher);
-        }
+        AsyncDatabaseOperations.setLoading(teacherTable, true, "No teachers found");
+        asyncOps.callAsync(ops -> {
+            List<TeacherRow> teachers = ops.getAllTeachers();
+            synchronized (searchIndex) {
+                searchIndex.clear();
+                searchIndex.putAll(teachers);
+            }
+            return teachers.size();
+        }, count -> {
+            searchIndexReady = true;
+            searchPipeline.searchNow(searchField.getText());
+        });
     }
 
-    /**
-     * Filters the teachers displayed in the table based on the search query.
-     *
-     * @param query The search query entered by the user.
-     */
-    private void filterTeachers(String query) {
-        teacherTable.getItems().clear();
-
-        if (query == null || query.isEmpty()) {
-            loadTeachers();
-        } else {
-            List<String[]> teachers = dbOps.getAllTeachers();
-            for (String[] teacherData : teachers) {
-                String name = teacherData[1].toLowerCase();
-                String staffNumber = teacherData[0].toLowerCase();
-                if (name.contains(query.toLowerCase()) || staffNumber.contains(query.toLowerCase())) {
-                    Teacher teacher = new Teacher(
-                            teacherData[0], // Staff Number
-                            teacherData[1], // Name
-                            teacherData[2]  // ID/Passport
-                    );
-                    teacherTable.getItems().add(teacher);
-                }
-            }
-        }
+    private void showTeachers(List<TeacherRow> teachers) {
+        teacherTable.getItems().setAll(teachers.stream().map(TeacherManagement::toTeacher).toList());
+        AsyncDatabaseOperations.setLoading(teacherTable, false, "No teachers found");
     }
 
     /**
@@ -161,15 +170,22 @@ public class TeacherManagement {
      */
     private void loadAssignedSubjects(String teacherId) {
         assignedSubjectsTable.getItems().clear();
-        List<String[]> subjects = dbOps.getTeacherSubjects(teacherId);
-        for (String[] subjectData : subjects) {
-            AssignedSubject subject = new AssignedSubject(
-                    subjectData[0], // Subject
-                    subjectData[1], // Form
-                    subjectData[2]  // Term
-            );
-            assignedSubjectsTable.getItems().add(subject);
-        }
+        AsyncDatabaseOperations.setLoading(assignedSubjectsTable, true, "No subjects assigned");
+        asyncOps.callAsync(ops -> ops.getTeacherSubjects(teacherId), subjects -> {
+            Teacher selected = teacherTable.getSelectionModel().getSelectedItem();
+            if (selected == null || !selected.getStaffNumber().equals(teacherId)) {
+                return; // Selection moved on while loading
+            }
+            for (TeacherSubjectRow row : subjects) {
+                AssignedSubject subject = new AssignedSubject(
+                        row.subject(),
+                        String.valueOf(row.form()),
+                        String.valueOf(row.term())
+                );
+                assignedSubjectsTable.getItems().add(subject);
+            }
+            AsyncDatabaseOperations.setLoading(assignedSubjectsTable, false, "No subjects assigned");
+        });
     }
 
     /**
@@ -195,8 +211,10 @@ public class TeacherManagement {
 
         dialog.setResultConverter(button -> {
             if (button == ButtonType.OK) {
-                dbOps.addTeacher(nameField.getText(), staffNumberField.getText(), idField.getText());
-                loadTeachers();
+                String name = nameField.getText();
+                String staffNumber = staffNumberField.getText();
+                String idPassport = idField.getText();
+                asyncOps.callAsync(ops -> ops.addTeacher(name, staffNumber, idPassport), this::teacherAdded);
             }
             return null;
         });
@@ -204,6 +222,24 @@ public class TeacherManagement {
         dialog.showAndWait();
     }
 
+    /**
+     * Puts a teacher just added into the search index and, if the search shows it, the table.
+     */
+    private void teacherAdded(TeacherRow teacher) {
+        if (teacher == null) {
+            return;
+        }
+        searchIndex.put(teacher);
+        if (searchIndexReady && searchIndex.matches(teacher, searchField.getText())) {
+            AsyncDatabaseOperations.insertSorted(teacherTable, toTeacher(teacher),
+                    Comparator.comparing(Teacher::getStaffNumber));
+        }
+    }
+
+    private static Teacher toTeacher(TeacherRow row) {
+        return new Teacher(row.staffNumber(), row.name(), row.idPassport());
+    }
+
     /**
      * Show a dialog to assign a subject to a teacher.
      */
@@ -214,9 +250,10 @@ public class TeacherManagement {
             return;
         }
 
+        // Offer the subjects that exist, so every assignment resolves to a subject id
         ComboBox<String> subjectComboBox = new ComboBox<>();
-        subjectComboBox.getItems().addAll("English", "Math", "Science", "History", "Geography");
         subjectComboBox.setPromptText("Select Subject");
+        asyncOps.callAsync(ResultsRepository::getAllSubjectNames, names -> subjectComboBox.getItems().setAll(names));
 
         ComboBox<Integer> formComboBox = new ComboBox<>();
         formComboBox.getItems().addAll(1, 2, 3, 4);
@@ -237,8 +274,9 @@ public class TeacherManagement {
                 int term = determineCurrentTerm();
 
                 if (subject != null && form != null) {
-                    dbOps.addTeacherSubject(selectedTeacher.getStaffNumber(), subject, form, term);
-                    loadAssignedSubjects(selectedTeacher.getStaffNumber());
+                    String staffNumber = selectedTeacher.getStaffNumber();
+                    asyncOps.runAsync(ops -> ops.addTeacherSubject(staffNumber, subject, form, term),
+                            () -> loadAssignedSubjects(staffNumber));
                 } else {
                     showAlert("Incomplete Information", "Please select both a subject and a form.");
                 }
@@ -255,8 +293,13 @@ public class TeacherManagement {
     private void deleteSelectedTeacher() {
         Teacher selectedTeacher = teacherTable.getSelectionModel().getSelectedItem();
         if (selectedTeacher != null) {
-            dbOps.deleteTeacher(selectedTeacher.getStaffNumber());
-            loadTeachers();
+            String staffNumber = selectedTeacher.getStaffNumber();
+            asyncOps.callAsync(ops -> ops.deleteTeacher(staffNumber), deleted -> {
+                if (deleted) {
+                    searchIndex.remove(staffNumber);
+                    teacherTable.getItems().remove(selectedTeacher);
+                }
+            });
         } else {
             showAlert("No Teacher Selected", "Please select a teacher to delete.");
         }
@@ -0,0 +1,5 @@
+/**
+ * A row from the teachers table.
+ */
+public record TeacherRow(String staffNumber, String name, String idPassport) {
+}
@@ -0,0 +1,5 @@
+/**
+ * A subject assigned to a teacher for a given form and term.
+ */
+public record TeacherSubjectRow(int id, String subject, int form, int term) {
+}
@@ -0,0 +1,13 @@
+/**
+ * Running totals of one student's results for a form, term and year, kept up to
+ * date by every write to the results table so averages need no re-summing.
+ *
+ * @param markSum      the sum of the student's subject totals
+ * @param subjectCount the number of results rows (one per subject)
+ */
+public record TermAggregate(int admno, int form, int term, int year, int markSum, int subjectCount) {
+
+    public double average() {
+        return subjectCount == 0 ? 0 : (double) markSum / subjectCount;
+    }
+}
@@ -0,0 +1,57 @@
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Closes a form/term/year: computes every student's average, overall grade and
+ * promotion decision, stores them in one transaction and publishes the cohort's
+ * positions. Dashboards only read what this job wrote.
+ *
+ * Each student's totals come from the maintained {@link TermAggregate}s, so the
+ * results table is not re-summed; the outcomes are computed in one pass before a
+ * single batched write.
+ */
+public final class TermCloseJob {
+
+    /**
+     * What a run did.
+     *
+     * @param saved false if the outcomes could not be written (nothing was changed)
+     */
+    public record Summary(int students, int promoted, int repeating, long millis, boolean saved) {
+    }
+
+    private TermCloseJob() {
+    }
+
+    public static Summary run(ResultsRepository repository, int form, int term, int year) {
+        long start = System.nanoTime();
+        List<TermOutcome> outcomes = computeOutcomes(repository, form, term, year);
+        boolean saved = outcomes.isEmpty() || repository.saveTermOutcomes(form, term, year, outcomes);
+        if (saved && !outcomes.isEmpty()) {
+            RankingEngine.rankAndSave(repository, form, term, year);
+        }
+        int promoted = (int) outcomes.stream().filter(TermOutcome::isPromoted).count();
+        return new Summary(outcomes.size(), promoted, outcomes.size() - promoted,
+                (System.nanoTime() - start) / 1_000_000, saved);
+    }
+
+    /**
+     * Computes the outcomes of a cohort without storing them, in admno order.
+     */
+    public static List<TermOutcome> computeOutcomes(ResultsRepository repository, int form, int term, int year) {
+        return repository.getTermAggregates(form, term, year).stream()
+                .map(TermCloseJob::outcomeOf)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The outcome for one student. The grade is taken from the whole-number average,
+     * as the result slip always showed it.
+     */
+    static TermOutcome outcomeOf(TermAggregate aggregate) {
+        double average = aggregate.average();
+        String overallGrade = Grading.gradeFor((int) average);
+        return new TermOutcome(aggregate.admno(), aggregate.form(), aggregate.term(), aggregate.year(),
+                aggregate.subjectCount(), aggregate.markSum(), average, overallGrade, Grading.promotionFor(overallGrade));
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * A student's closed term: the average of their subject totals, the overall grade
+ * it earns and whether they proceed or repeat. Written by {@link TermCloseJob}.
+ */
+public record TermOutcome(int admno, int form, int term, int year,
+                          int subjectCount, int totalMarks, double average, String overallGrade, String promotionStatus) {
+
+    public boolean isPromoted() {
+        return Grading.PROCEED.equals(promotionStatus);
+    }
+}
@@ -0,0 +1,180 @@
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts the successful writes made through it, per group of tables, so a screen
+ * can tell whether what it shows is out of date without querying.
+ *
+ * A version only ever grows. Writes that report failure (false, null or nothing
+ * inserted) leave it unchanged. Changes made by other programs are not seen.
+ */
+public class VersionedResultsRepository extends ForwardingResultsRepository {
+
+    /**
+     * The groups of tables versions are kept for.
+     */
+    public enum Table {
+        STUDENTS,
+        TEACHERS,   // Teachers and their subject assignments
+        SUBJECTS,
+        RESULTS     // Marks, aggregates, rankings and term outcomes
+    }
+
+    private final AtomicLongArray versions = new AtomicLongArray(Table.values().length);
+
+    public VersionedResultsRepository(ResultsRepository delegate) {
+        super(delegate);
+    }
+
+    /**
+     * The sum of the tables' versions: it changes whenever any of them is written to.
+     */
+    public long version(Table... tables) {
+        long sum = 0;
+        for (Table table : tables) {
+            sum += versions.get(table.ordinal());
+        }
+        return sum;
+    }
+
+    private void changed(Table... tables) {
+        for (Table table : tables) {
+            versions.incrementAndGet(table.ordinal());
+        }
+    }
+
+    // -----------------------------------------
+    // Students
+    // -----------------------------------------
+
+    @Override
+    public StudentRow addStudent(String name, String gender, int form, int term, int year) {
+        StudentRow student = delegate.addStudent(name, gender, form, term, year);
+        if (student != null) {
+            changed(Table.STUDENTS);
+        }
+        return student;
+    }
+
+    @Override
+    public List<Integer> addStudents(List<StudentRow> students) {
+        List<Integer> admissionNumbers = delegate.addStudents(students);
+        if (!admissionNumbers.isEmpty()) {
+            changed(Table.STUDENTS);
+        }
+        return admissionNumbers;
+    }
+
+    @Override
+    public boolean deleteStudent(int admno) {
+        boolean deleted = delegate.deleteStudent(admno);
+        if (deleted) {
+            // Their results, rankings and outcomes go with them
+            changed(Table.STUDENTS, Table.RESULTS);
+        }
+        return deleted;
+    }
+
+    // -----------------------------------------
+    // Teachers
+    // -----------------------------------------
+
+    @Override
+    public TeacherRow addTeacher(String name, String staffNumber, String idPassport) {
+        TeacherRow teacher = delegate.addTeacher(name, staffNumber, idPassport);
+        if (teacher != null) {
+            changed(Table.TEACHERS);
+        }
+        return teacher;
+    }
+
+    @Override
+    public boolean deleteTeacher(String staffNumber) {
+        boolean deleted = delegate.deleteTeacher(staffNumber);
+        if (deleted) {
+            changed(Table.TEACHERS);
+        }
+        return deleted;
+    }
+
+    @Override
+    public boolean addTeacherSubject(String teacherId, String subject, int form, int term) {
+        boolean added = delegate.addTeacherSubject(teacherId, subject, form, term);
+        if (added) {
+            changed(Table.TEACHERS);
+        }
+        return added;
+    }
+
+    @Override
+    public boolean deleteTeacherSubject(int id) {
+        boolean deleted = delegate.deleteTeacherSubject(id);
+        if (deleted) {
+            changed(Table.TEACHERS);
+        }
+        return deleted;
+    }
+
+    // -----------------------------------------
+    // Subjects
+    // -----------------------------------------
+
+    @Override
+    public SubjectRow addSubject(String name, String code, String description) {
+        SubjectRow subject = delegate.addSubject(name, code, description);
+        if (subject != null) {
+            changed(Table.SUBJECTS);
+        }
+        return subject;
+    }
+
+    @Override
+    public void updateSubject(int id, String name, String code, String description) {
+        try {
+            delegate.updateSubject(id, name, code, description);
+        } finally {
+            changed(Table.SUBJECTS); // Reports no outcome, so assume it changed
+        }
+    }
+
+    @Override
+    public boolean deleteSubject(int id) {
+        boolean deleted = delegate.deleteSubject(id);
+        if (deleted) {
+            changed(Table.SUBJECTS, Table.RESULTS);
+        }
+        return deleted;
+    }
+
+    // -----------------------------------------
+    // Results
+    // -----------------------------------------
+
+    @Override
+    public boolean saveMarks(List<MarkRow> marks) {
+        boolean saved = delegate.saveMarks(marks);
+        if (saved) {
+            changed(Table.RESULTS);
+        }
+        return saved;
+    }
+
+    @Override
+    public boolean saveRankings(int form, int term, int year, List<RankRow> rankings) {
+        boolean saved = delegate.saveRankings(form, term, year, rankings);
+        if (saved) {
+            changed(Table.RESULTS);
+        }
+        return saved;
+    }
+
+    @Override
+    public boolean saveTermOutcomes(int form, int term, int year, List<TermOutcome> outcomes) {
+        boolean saved = delegate.saveTermOutcomes(form, term, year, outcomes);
+        if (saved) {
+            // Each student's grade and promotion status is copied onto the students table
+            changed(Table.RESULTS, Table.STUDENTS);
+        }
+        return saved;
+    }
+}
@@ -0,0 +1,57 @@
+-- V1: base tables of the results_system database.
+-- Applied by SchemaMigrator on startup; for MySQL the database itself must exist:
+--   CREATE DATABASE IF NOT EXISTS results_system;
+-- Uses IF NOT EXISTS so databases created before migrations existed adopt it unchanged.
+
+CREATE TABLE IF NOT EXISTS students (
+    admno            INT AUTO_INCREMENT PRIMARY KEY,
+    name             VARCHAR(100) NOT NULL,
+    gender           VARCHAR(10)  NOT NULL,
+    form             INT          NOT NULL,
+    term             INT          NOT NULL,
+    year             INT          NOT NULL,
+    overall_grade    VARCHAR(2),
+    promotion_status VARCHAR(50)
+);
+
+CREATE TABLE IF NOT EXISTS teachers (
+    staff_number VARCHAR(20)  PRIMARY KEY,
+    name         VARCHAR(100) NOT NULL,
+    id_passport  VARCHAR(20)  NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS subjects (
+    id          INT AUTO_INCREMENT PRIMARY KEY,
+    name        VARCHAR(100) NOT NULL,
+    description VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS teacher_subjects (
+    id         INT AUTO_INCREMENT PRIMARY KEY,
+    teacher_id VARCHAR(20)  NOT NULL,
+    subject    VARCHAR(100) NOT NULL,
+    form       INT          NOT NULL,
+    term       INT          NOT NULL
+);
+
+-- One row per student, subject, form, term and year.
+-- uk_results_entry is the key DatabaseOperations.saveMarks upserts on.
+-- A results table made before the key existed gets it from V8 in SchemaMigrator.
+CREATE TABLE IF NOT EXISTS results (
+    id         INT AUTO_INCREMENT PRIMARY KEY,
+    admno      INT NOT NULL,
+    subject_id INT NOT NULL,
+    form       INT NOT NULL,
+    term       INT NOT NULL,
+    year       INT NOT NULL,
+    cat1       INT NOT NULL DEFAULT 0,
+    cat2       INT NOT NULL DEFAULT 0,
+    cat3       INT NOT NULL DEFAULT 0,
+    cat4       INT NOT NULL DEFAULT 0,
+    exam       INT NOT NULL DEFAULT 0,
+    total      INT NOT NULL DEFAULT 0,
+    grade      VARCHAR(2),
+    UNIQUE KEY uk_results_entry (admno, form, term, year, subject_id),
+    FOREIGN KEY (admno) REFERENCES students (admno) ON DELETE CASCADE,
+    FOREIGN KEY (subject_id) REFERENCES subjects (id) ON DELETE CASCADE
+);
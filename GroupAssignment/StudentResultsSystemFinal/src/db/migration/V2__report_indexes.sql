@@ -0,0 +1,28 @@
+-- V2: indexes for the report and dashboard queries in DatabaseOperations.
+-- Each index leads with the query's equality filters. Where it is cheap, the index
+-- also carries the selected columns, so the query reads only the index and never
+-- touches the table rows.
+
+-- getGroupResults: form, term, year and subject_id filter; admno, total are read from the index
+CREATE INDEX idx_results_group ON results (form, term, year, subject_id, admno, total);
+
+-- getResultsPage / streamResults: one cohort in (admno, subject_id) order without a sort
+CREATE INDEX idx_results_cohort ON results (form, term, year, admno, subject_id, total, grade);
+
+-- getResultsForStudent / getIndividualResults: one student's slip, covering total and grade
+CREATE INDEX idx_results_student ON results (admno, form, term, subject_id, total, grade);
+
+-- getStudentsForSubject / getMarksForSubject: class list for a subject and term
+CREATE INDEX idx_results_subject_term ON results (subject_id, term, admno);
+
+-- getYearsFromDatabase: DISTINCT year is answered from the index alone
+CREATE INDEX idx_results_year ON results (year);
+
+-- getGroupResults joins on the subject name
+CREATE INDEX idx_subjects_name ON subjects (name);
+
+-- getTeacherSubjects / getSubjectsForTeacher: covering, the id comes from the primary key
+CREATE INDEX idx_teacher_subjects_teacher ON teacher_subjects (teacher_id, subject, form, term);
+
+-- getStudentsByFormAndTerm
+CREATE INDEX idx_students_form_term ON students (form, term);
@@ -0,0 +1,6 @@
+-- V3: short subject codes (e.g. MAT, ENG) so subjects can be looked up by code as
+-- well as by name. Optional; existing subjects keep a NULL code.
+
+ALTER TABLE subjects ADD COLUMN code VARCHAR(20);
+
+CREATE UNIQUE INDEX uk_subjects_code ON subjects (code);
@@ -0,0 +1,19 @@
+-- V4: stored merit-list positions, written by RankingEngine per form/term/year cohort.
+-- subject_id 0 holds the overall position; other rows are per subject.
+-- saveMarks clears a cohort's rows, so positions are recomputed after marks change.
+
+CREATE TABLE rankings (
+    form       INT NOT NULL,
+    term       INT NOT NULL,
+    year       INT NOT NULL,
+    subject_id INT NOT NULL,
+    admno      INT NOT NULL,
+    score      INT NOT NULL,
+    position   INT NOT NULL,
+    out_of     INT NOT NULL,
+    PRIMARY KEY (form, term, year, subject_id, admno),
+    FOREIGN KEY (admno) REFERENCES students (admno) ON DELETE CASCADE
+);
+
+-- Result slips read one student's positions
+CREATE INDEX idx_rankings_student ON rankings (admno, form, term, year);
@@ -0,0 +1,20 @@
+-- V5: per-term overall grades and promotion decisions, written by TermCloseJob.
+-- students.overall_grade and promotion_status still hold the latest closed term.
+-- saveMarks clears a cohort's rows, so a term has to be closed again after marks change.
+
+CREATE TABLE term_outcomes (
+    admno            INT          NOT NULL,
+    form             INT          NOT NULL,
+    term             INT          NOT NULL,
+    year             INT          NOT NULL,
+    subject_count    INT          NOT NULL,
+    total_marks      INT          NOT NULL,
+    average          DOUBLE       NOT NULL,
+    overall_grade    VARCHAR(2)   NOT NULL,
+    promotion_status VARCHAR(50)  NOT NULL,
+    PRIMARY KEY (admno, form, term, year),
+    FOREIGN KEY (admno) REFERENCES students (admno) ON DELETE CASCADE
+);
+
+-- Closing a term replaces the whole cohort
+CREATE INDEX idx_term_outcomes_cohort ON term_outcomes (form, term, year);
@@ -0,0 +1,22 @@
+-- V6: per-student sums of results for each form/term/year, maintained by the
+-- repository in the same transaction as every results write.
+
+CREATE TABLE student_term_aggregates (
+    admno         INT NOT NULL,
+    form          INT NOT NULL,
+    term          INT NOT NULL,
+    year          INT NOT NULL,
+    mark_sum      INT NOT NULL,
+    subject_count INT NOT NULL,
+    PRIMARY KEY (admno, form, term, year),
+    FOREIGN KEY (admno) REFERENCES students (admno) ON DELETE CASCADE
+);
+
+-- Closing a term reads a whole cohort
+CREATE INDEX idx_term_aggregates_cohort ON student_term_aggregates (form, term, year, admno);
+
+-- Backfill from the results already recorded
+INSERT INTO student_term_aggregates (admno, form, term, year, mark_sum, subject_count)
+SELECT admno, form, term, year, SUM(total), COUNT(*)
+FROM results
+GROUP BY admno, form, term, year;
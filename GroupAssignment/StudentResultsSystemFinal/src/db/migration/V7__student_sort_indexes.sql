@@ -0,0 +1,14 @@
+-- V7: one index per sortable column of the student table, for
+-- DatabaseOperations.getStudentsSorted. Each ends with admno so that ORDER BY
+-- column, admno and the keyset condition after the previous page's last row
+-- read the page straight from the index. Admno order uses the primary key.
+
+CREATE INDEX idx_students_name ON students (name, admno);
+
+CREATE INDEX idx_students_gender ON students (gender, admno);
+
+CREATE INDEX idx_students_form ON students (form, admno);
+
+CREATE INDEX idx_students_term ON students (term, admno);
+
+CREATE INDEX idx_students_year ON students (year, admno);
@@ -0,0 +1,333 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the same checks of the {@link ResultsRepository} contract against every
+ * backend that can run without a server: {@link InMemoryResultsRepository} and
+ * {@link EmbeddedDatabaseOperations} on a throwaway in-memory H2 database.
+ * Each check gets a fresh, empty repository.
+ *
+ * Needs no test framework. Compile it with the application classes and run it with
+ * src on the classpath, which holds the migration scripts:
+ * <pre>
+ *     java -cp out:src:&lt;libraries&gt; ResultsRepositoryContractTest
+ * </pre>
+ * Exits with status 1 if any check fails.
+ */
+public class ResultsRepositoryContractTest {
+
+    private interface Check {
+        void run(ResultsRepository repository);
+    }
+
+    private record Backend(String name, Supplier<ResultsRepository> factory) {
+    }
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private static final List<Backend> BACKENDS = List.of(
+            new Backend("in-memory", InMemoryResultsRepository::new),
+            new Backend("H2", () -> new EmbeddedDatabaseOperations("jdbc:h2:mem:contract" + DATABASES.incrementAndGet()
+                    + ";DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE;NON_KEYWORDS=YEAR,VALUE")));
+
+    public static void main(String[] args) {
+        List<String> failures = new ArrayList<>();
+        int run = 0;
+        for (Backend backend : BACKENDS) {
+            run += runCheck(backend, "students", ResultsRepositoryContractTest::students, failures);
+            run += runCheck(backend, "student pages", ResultsRepositoryContractTest::studentPages, failures);
+            run += runCheck(backend, "teachers", ResultsRepositoryContractTest::teachers, failures);
+            run += runCheck(backend, "subjects", ResultsRepositoryContractTest::subjects, failures);
+            run += runCheck(backend, "marks", ResultsRepositoryContractTest::marks, failures);
+            run += runCheck(backend, "result reads", ResultsRepositoryContractTest::resultReads, failures);
+            run += runCheck(backend, "rankings", ResultsRepositoryContractTest::rankings, failures);
+            run += runCheck(backend, "term outcomes", ResultsRepositoryContractTest::termOutcomes, failures);
+            run += runCheck(backend, "deletes cascade", ResultsRepositoryContractTest::deletesCascade, failures);
+        }
+        failures.forEach(System.err::println);
+        System.out.println(run + " checks, " + failures.size() + " failed");
+        if (!failures.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    private static int runCheck(Backend backend, String name, Check check, List<String> failures) {
+        try {
+            check.run(backend.factory().get());
+        } catch (AssertionError | RuntimeException e) {
+            failures.add(backend.name() + " / " + name + ": " + e);
+        }
+        return 1;
+    }
+
+    // -----------------------------------------
+    // Students
+    // -----------------------------------------
+
+    private static void students(ResultsRepository repository) {
+        StudentRow alice = repository.addStudent("Alice Wanjiru", "Female", 1, 1, 2025);
+        assertNotNull(alice, "addStudent");
+        assertEquals(new StudentRow(alice.admno(), "Alice Wanjiru", "Female", 1, 1, 2025), alice, "added student");
+
+        List<Integer> added = repository.addStudents(List.of(
+                new StudentRow(0, "Brian Otieno", "Male", 1, 1, 2025),
+                new StudentRow(0, "Carol Achieng", "Female", 2, 1, 2025)));
+        assertEquals(2, added.size(), "addStudents keys");
+        assertTrue(alice.admno() < added.get(0) && added.get(0) < added.get(1), "keys in input order");
+
+        assertEquals(3, repository.countStudents(), "countStudents");
+        assertEquals(List.of(alice.admno(), added.get(0), added.get(1)), admnos(repository.getAllStudents()), "getAllStudents");
+        assertEquals("Brian Otieno", repository.getStudentNameByAdmNo(added.get(0)), "getStudentNameByAdmNo");
+        assertEquals(List.of(added.get(0)), admnos(repository.searchStudentsByName("brian")), "search ignores case");
+        assertEquals(List.of(added.get(1)), admnos(repository.getStudentsByFormAndTerm(2, 1)), "getStudentsByFormAndTerm");
+        assertEquals(List.of(2025), repository.getStudentYears(1, 1), "getStudentYears");
+        assertTrue(repository.getStudentYears(3, 1).isEmpty(), "no students in that form");
+
+        List<StudentRow> streamed = new ArrayList<>();
+        assertEquals(3, repository.streamStudents(streamed::add), "streamStudents count");
+        assertEquals(repository.getAllStudents(), streamed, "streamStudents rows");
+
+        assertTrue(repository.deleteStudent(alice.admno()), "deleteStudent");
+        assertFalse(repository.deleteStudent(alice.admno()), "deleteStudent again");
+        assertEquals(2, repository.countStudents(), "count after delete");
+    }
+
+    private static void studentPages(ResultsRepository repository) {
+        repository.addStudents(List.of(
+                new StudentRow(0, "Dan", "Male", 1, 1, 2025),
+                new StudentRow(0, "amina", "Female", 2, 1, 2025),
+                new StudentRow(0, "Brian", "Male", 1, 1, 2025),
+                new StudentRow(0, "Amina", "Female", 1, 1, 2025)));
+        List<StudentRow> all = repository.getAllStudents();
+        int first = all.get(0).admno();
+
+        assertEquals(admnos(all.subList(1, 3)), admnos(repository.getStudentsPage(first, 2)), "getStudentsPage");
+
+        // Names compare without case, admno breaking the tie between the two Aminas
+        List<Integer> byName = List.of(first + 1, first + 3, first + 2, first);
+        assertEquals(byName, admnos(repository.getStudentsSorted(StudentSort.NAME, false, null, 0, 10)), "by name");
+        assertEquals(byName.subList(2, 4),
+                admnos(repository.getStudentsSorted(StudentSort.NAME, false, all.get(3), 0, 10)), "by name after a row");
+        assertEquals(byName.subList(1, 3),
+                admnos(repository.getStudentsSorted(StudentSort.NAME, false, null, 1, 2)), "by name with skip");
+        assertEquals(List.of(first, first + 2, first + 3, first + 1),
+                admnos(repository.getStudentsSorted(StudentSort.NAME, true, null, 0, 10)), "by name descending");
+        assertEquals(List.of(first + 1, first + 3),
+                admnos(repository.getStudentsSorted(StudentSort.FORM, true, null, 0, 2)), "by form descending");
+    }
+
+    // -----------------------------------------
+    // Teachers and subjects
+    // -----------------------------------------
+
+    private static void teachers(ResultsRepository repository) {
+        assertEquals(new TeacherRow("T001", "Grace Muthoni", "12345678"),
+                repository.addTeacher("Grace Muthoni", "T001", "12345678"), "addTeacher");
+        assertNull(repository.addTeacher("Someone Else", "T001", "87654321"), "staff number taken");
+        assertEquals(1, repository.getAllTeachers().size(), "getAllTeachers");
+
+        assertTrue(repository.addTeacherSubject("T001", "Mathematics", 1, 1), "addTeacherSubject");
+        assertTrue(repository.addTeacherSubject("T001", "Physics", 2, 3), "second subject");
+        List<TeacherSubjectRow> assignments = repository.getTeacherSubjects("T001");
+        assertEquals(2, assignments.size(), "getTeacherSubjects");
+        assertEquals(List.of("Mathematics", "Physics"), repository.getSubjectsForTeacher("T001").stream().sorted().toList(),
+                "getSubjectsForTeacher");
+
+        assertTrue(repository.deleteTeacherSubject(assignments.get(0).id()), "deleteTeacherSubject");
+        assertEquals(1, repository.getTeacherSubjects("T001").size(), "assignments after delete");
+
+        assertTrue(repository.deleteTeacher("T001"), "deleteTeacher");
+        assertFalse(repository.deleteTeacher("T001"), "deleteTeacher again");
+        assertTrue(repository.getAllTeachers().isEmpty(), "teachers after delete");
+    }
+
+    private static void subjects(ResultsRepository repository) {
+        SubjectRow maths = repository.addSubject("Mathematics", "MAT", "Numbers");
+        assertNotNull(maths, "addSubject");
+        assertNull(repository.addSubject("Mathematics Alt", "mat", ""), "code taken, ignoring case");
+        assertNotNull(repository.addSubject("English", null, ""), "subject without a code");
+        assertNotNull(repository.addSubject("Kiswahili", null, ""), "a second subject without a code");
+
+        assertEquals(List.of("English", "Kiswahili", "Mathematics"),
+                repository.getAllSubjectNames().stream().sorted().toList(), "getAllSubjectNames");
+        assertEquals(3, repository.getAllSubjects().size(), "getAllSubjects");
+        assertEquals(List.of(maths), repository.searchSubjectsByName("math"), "searchSubjectsByName");
+
+        repository.updateSubject(maths.id(), "Maths", "MAT", "Numbers and shapes");
+        assertEquals(new SubjectRow(maths.id(), "Maths", "MAT", "Numbers and shapes"),
+                repository.searchSubjectsByName("maths").get(0), "updateSubject");
+
+        SubjectDictionary dictionary = repository.getSubjectDictionary();
+        assertEquals(maths.id(), dictionary.find("  MATHS ").orElseThrow().id(), "dictionary by name");
+        assertEquals(maths.id(), dictionary.find("mat").orElseThrow().id(), "dictionary by code");
+        assertTrue(dictionary.find("Biology").isEmpty(), "dictionary miss");
+
+        assertTrue(repository.deleteSubject(maths.id()), "deleteSubject");
+        assertFalse(repository.deleteSubject(maths.id()), "deleteSubject again");
+        assertEquals(2, repository.getAllSubjects().size(), "subjects after delete");
+    }
+
+    // -----------------------------------------
+    // Results
+    // -----------------------------------------
+
+    private static void marks(ResultsRepository repository) {
+        int alice = repository.addStudent("Alice", "Female", 1, 1, 2025).admno();
+        int brian = repository.addStudent("Brian", "Male", 1, 1, 2025).admno();
+        int maths = repository.addSubject("Mathematics", "MAT", "").id();
+
+        assertTrue(repository.saveMarks(List.of(mark(alice, maths, 2025, 60))), "saveMarks");
+        assertTrue(repository.saveMarks(List.of(mark(alice, maths, 2025, 70))), "saveMarks upserts");
+        assertTrue(repository.saveMarks(List.of()), "saving nothing succeeds");
+        assertFalse(repository.saveMarks(List.of(mark(brian, maths, 2025, 50), mark(9999, maths, 2025, 50))),
+                "unknown student fails the batch");
+
+        // Every student of the class, with zeros where nothing is recorded
+        List<MarkRow> sheet = repository.getMarksForSubject(maths, 1, 1, 2025);
+        assertEquals(List.of(alice, brian), sheet.stream().map(MarkRow::admno).toList(), "getMarksForSubject rows");
+        assertEquals(70, sheet.get(0).total(), "upserted mark");
+        assertEquals(0, sheet.get(1).total(), "failed batch saved nothing");
+
+        TermAggregate totals = repository.getTermAggregate(alice, 1, 1, 2025);
+        assertEquals(new TermAggregate(alice, 1, 1, 2025, 70, 1), totals, "getTermAggregate");
+        assertEquals(List.of(totals), repository.getTermAggregates(1, 1, 2025), "getTermAggregates");
+        assertEquals(List.of(2025), repository.getYearsFromDatabase(), "getYearsFromDatabase");
+    }
+
+    private static void resultReads(ResultsRepository repository) {
+        int alice = repository.addStudent("Alice", "Female", 1, 1, 2025).admno();
+        int brian = repository.addStudent("Brian", "Male", 1, 1, 2025).admno();
+        int maths = repository.addSubject("Mathematics", "MAT", "").id();
+        int english = repository.addSubject("English", "ENG", "").id();
+        repository.saveMarks(List.of(
+                mark(alice, maths, 2025, 80), mark(alice, english, 2025, 65), mark(brian, maths, 2025, 40)));
+
+        assertEquals(List.of(new GroupResultRow(alice, "Alice", 80), new GroupResultRow(brian, "Brian", 40)),
+                repository.getGroupResults(1, 1, 2025, "Mathematics"), "getGroupResults");
+        assertEquals(2, repository.getIndividualResults(alice).size(), "getIndividualResults");
+        assertEquals(List.of(new ResultRow("English", 65, Grading.gradeFor(65)),
+                        new ResultRow("Mathematics", 80, Grading.gradeFor(80))),
+                repository.getResultsForStudent(alice, 1, 1, 2025).stream()
+                        .sorted((a, b) -> a.subject().compareTo(b.subject())).toList(), "getResultsForStudent");
+        assertTrue(repository.getResultsForStudent(alice, 1, 1, 2024).isEmpty(), "other years are not read");
+        assertEquals(2025, repository.getNewestResultYear(alice, 1, 1), "getNewestResultYear");
+        assertNull(repository.getNewestResultYear(alice, 2, 1), "no results in that form");
+        assertEquals(List.of(alice, brian), admnos(repository.getStudentsForSubject(maths, 1)), "getStudentsForSubject");
+
+        List<CohortResultRow> streamed = new ArrayList<>();
+        assertEquals(3, repository.streamResults(1, 1, 2025, streamed::add), "streamResults count");
+        assertEquals(List.of(alice, alice, brian), streamed.stream().map(CohortResultRow::admno).toList(),
+                "streamResults order");
+        assertEquals(streamed.subList(0, 2), repository.getResultsPage(1, 1, 2025, 0, 0, 2), "first results page");
+        assertEquals(streamed.subList(2, 3), repository.getResultsPage(1, 1, 2025,
+                streamed.get(1).admno(), streamed.get(1).subjectId(), 2), "next results page");
+        assertEquals(0, repository.streamResults(2, 1, 2025, row -> { }), "empty cohort");
+    }
+
+    // -----------------------------------------
+    // Rankings and term outcomes
+    // -----------------------------------------
+
+    private static void rankings(ResultsRepository repository) {
+        int alice = repository.addStudent("Alice", "Female", 1, 1, 2025).admno();
+        int maths = repository.addSubject("Mathematics", "MAT", "").id();
+        repository.saveMarks(List.of(mark(alice, maths, 2025, 80)));
+
+        List<RankRow> rows = List.of(
+                new RankRow(1, 1, 2025, RankRow.OVERALL, alice, 80, 1, 1),
+                new RankRow(1, 1, 2025, maths, alice, 80, 1, 1));
+        assertTrue(repository.saveRankings(1, 1, 2025, rows), "saveRankings");
+        assertEquals(rows, repository.getRankings(1, 1, 2025), "getRankings");
+        assertEquals(rows, repository.getStudentRankings(alice, 1, 1, 2025), "getStudentRankings");
+        assertFalse(repository.saveRankings(1, 1, 2025, List.of(new RankRow(1, 1, 2025, 0, 9999, 1, 1, 1))),
+                "unknown student");
+        assertEquals(rows, repository.getRankings(1, 1, 2025), "failed save keeps the rows");
+
+        repository.saveMarks(List.of(mark(alice, maths, 2025, 90)));
+        assertTrue(repository.getRankings(1, 1, 2025).isEmpty(), "saveMarks clears the cohort's rankings");
+    }
+
+    private static void termOutcomes(ResultsRepository repository) {
+        int alice = repository.addStudent("Alice", "Female", 1, 1, 2024).admno();
+        int maths = repository.addSubject("Mathematics", "MAT", "").id();
+        repository.saveMarks(List.of(mark(alice, maths, 2024, 80), mark(alice, maths, 2025, 50)));
+
+        TermOutcome earlier = new TermOutcome(alice, 1, 1, 2024, 1, 80, 80.0, "A", "Proceed to Next Term");
+        TermOutcome newest = new TermOutcome(alice, 1, 1, 2025, 1, 50, 50.0, "C", "Proceed to Next Term");
+        assertTrue(repository.saveTermOutcomes(1, 1, 2024, List.of(earlier)), "saveTermOutcomes");
+        assertTrue(repository.saveTermOutcomes(1, 1, 2025, List.of(newest)), "second year");
+        assertEquals(newest, repository.getTermOutcome(alice, 1, 1, 2025), "getTermOutcome");
+        assertEquals(earlier, repository.getTermOutcome(alice, 1, 1, 2024), "getTermOutcome of an earlier year");
+        assertEquals(List.of(earlier), repository.getTermOutcomes(1, 1, 2024), "getTermOutcomes");
+        assertTrue(repository.getTermOutcomes(1, 2, 2024).isEmpty(), "term not closed");
+
+        repository.saveMarks(List.of(mark(alice, maths, 2025, 55)));
+        assertTrue(repository.getTermOutcomes(1, 1, 2025).isEmpty(), "saveMarks clears the cohort's outcomes");
+        assertEquals(List.of(earlier), repository.getTermOutcomes(1, 1, 2024), "other cohorts are kept");
+    }
+
+    private static void deletesCascade(ResultsRepository repository) {
+        int alice = repository.addStudent("Alice", "Female", 1, 1, 2025).admno();
+        int brian = repository.addStudent("Brian", "Male", 1, 1, 2025).admno();
+        int maths = repository.addSubject("Mathematics", "MAT", "").id();
+        int english = repository.addSubject("English", "ENG", "").id();
+        repository.saveMarks(List.of(mark(alice, maths, 2025, 80), mark(alice, english, 2025, 60),
+                mark(brian, maths, 2025, 40)));
+        repository.saveRankings(1, 1, 2025, List.of(new RankRow(1, 1, 2025, RankRow.OVERALL, alice, 140, 1, 2)));
+        repository.saveTermOutcomes(1, 1, 2025, List.of(new TermOutcome(alice, 1, 1, 2025, 2, 140, 70.0, "A", "Proceed")));
+
+        assertTrue(repository.deleteSubject(english), "deleteSubject");
+        assertEquals(new TermAggregate(alice, 1, 1, 2025, 80, 1), repository.getTermAggregate(alice, 1, 1, 2025),
+                "subject's marks leave the aggregate");
+        assertEquals(2, repository.streamResults(1, 1, 2025, row -> { }), "subject's results deleted");
+        assertTrue(repository.getRankings(1, 1, 2025).isEmpty(), "cohort rankings cleared");
+        assertNull(repository.getTermOutcome(alice, 1, 1, 2025), "cohort outcomes cleared");
+
+        assertTrue(repository.deleteStudent(brian), "deleteStudent");
+        assertEquals(List.of(new GroupResultRow(alice, "Alice", 80)),
+                repository.getGroupResults(1, 1, 2025, "Mathematics"), "student's results deleted");
+        assertNull(repository.getTermAggregate(brian, 1, 1, 2025), "student's aggregate deleted");
+    }
+
+    // -----------------------------------------
+    // Helpers
+    // -----------------------------------------
+
+    /**
+     * Form 1, term 1 marks adding up to {@code total}, all of it in the exam.
+     */
+    private static MarkRow mark(int admno, int subjectId, int year, int total) {
+        return new MarkRow(admno, "", subjectId, 1, 1, year, 0, 0, 0, 0, total);
+    }
+
+    private static List<Integer> admnos(List<StudentRow> students) {
+        return students.stream().map(StudentRow::admno).toList();
+    }
+
+    private static void assertEquals(Object expected, Object actual, String what) {
+        if (!Objects.equals(expected, actual)) {
+            throw new AssertionError(what + ": expected " + expected + " but was " + actual);
+        }
+    }
+
+    private static void assertTrue(boolean condition, String what) {
+        if (!condition) {
+            throw new AssertionError(what);
+        }
+    }
+
+    private static void assertFalse(boolean condition, String what) {
+        assertTrue(!condition, what + " should have failed");
+    }
+
+    private static void assertNull(Object value, String what) {
+        assertEquals(null, value, what);
+    }
+
+    private static void assertNotNull(Object value, String what) {
+        assertTrue(value != null, what + " returned null");
+    }
+}